@@ -0,0 +1,106 @@
+package dev.jpcode.eccore.config.expression;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares evaluating parsed expression trees against their {@link CompiledExpression}s, over every combination of
+ * matching conditions, and measures parsing and compiling.
+ *
+ * <p>Run with {@code ./gradlew :ec-core:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpressionBenchmark {
+    private enum Condition {
+        Never,
+        Always,
+        NoBed,
+        SameWorld,
+        FirstJoin,
+    }
+
+    private static final int CONDITION_SETS = 1 << Condition.values().length;
+
+    @Param({
+        "NoBed",
+        "FirstJoin OR NoBed AND SameWorld",
+        "NOT FirstJoin AND (NoBed OR SameWorld) OR FirstJoin AND NOT (SameWorld AND NoBed)",
+    })
+    public String source;
+
+    private Expression<Condition> tree;
+    private CompiledExpression<Condition> compiled;
+    private MaskContext[] contexts;
+
+    private static final class MaskContext implements ExpressionEvaluationContext<Condition> {
+        private final int matchingConditions;
+
+        private MaskContext(int matchingConditions) {
+            this.matchingConditions = matchingConditions;
+        }
+
+        @Override
+        public boolean matches(Condition condition) {
+            return (matchingConditions & (1 << condition.ordinal())) != 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        tree = ExpressionParser.parse(source, Condition::valueOf);
+        compiled = tree.compile();
+        contexts = new MaskContext[CONDITION_SETS];
+        for (int i = 0; i < CONDITION_SETS; i++) {
+            contexts[i] = new MaskContext(i);
+        }
+    }
+
+    @Benchmark
+    public int tree() {
+        int matches = 0;
+        for (MaskContext context : contexts) {
+            if (tree.matches(context)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int compiled() {
+        int matches = 0;
+        for (MaskContext context : contexts) {
+            if (compiled.matches(context)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public Expression<Condition> parse() {
+        return ExpressionParser.parse(source, Condition::valueOf);
+    }
+
+    @Benchmark
+    public CompiledExpression<Condition> parseAndCompile() {
+        return ExpressionParser.parse(source, Condition::valueOf).compile();
+    }
+}
@@ -1,13 +1,17 @@
 package dev.jpcode.eccore.config;
 
 import java.io.*;
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Comparator;
-import java.util.List;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -23,6 +27,8 @@ import net.minecraft.util.Formatting;
 
 public abstract class Config<T extends Config<T>> {
     static final Logger LOGGER = LogManager.getLogger("ec-core-config");
+    // Editors often write a file in several steps (truncate, write, rename), so wait for them to settle.
+    private static final long RELOAD_DEBOUNCE_MS = 500;
 
     protected SortedProperties props;
     private final Path configPath;
@@ -30,19 +36,38 @@ public abstract class Config<T extends Config<T>> {
     private final String documentationLink;
 
     private @Nullable String existingPropsStr;
+    private final ConfigBinder<T> binder;
+    private final List<String> publicFieldNames;
+    private @Nullable Map<String, Option<?>> optionsByFieldName;
+    private @Nullable Map<String, Option<?>> optionsByKey;
+    // The raw value each option was last loaded from.
+    private final Map<String, String> loadedValues = new HashMap<>();
+    private @Nullable WatchService watchService;
     private String getNonCommentsLines(String propsContent) {
         return propsContent.lines()
             .skip(displayName.lines().count() + 2)
             .collect(Collectors.joining("\n"));
     }
 
+    /**
+     * Binds options with {@link ReflectiveConfigBinder}. Prefer passing the generated {@code <Config>Binder}.
+     */
     public Config(Path savePath, String displayName, String documentationLink) {
+        this(savePath, displayName, documentationLink, null);
+    }
+
+    public Config(Path savePath, String displayName, String documentationLink, @Nullable ConfigBinder<T> binder) {
         this.configPath = savePath;
         this.displayName = displayName;
         this.documentationLink = documentationLink;
-        initFieldStorage();
+        this.binder = binder != null ? binder : new ReflectiveConfigBinder<>(this.getClass());
+        this.publicFieldNames = this.binder.getFieldNames().stream().sorted().toList();
     }
 
+    /**
+     * Loads every option from the properties file, creating it (or adding missing keys) as needed, then runs the load
+     * handlers. See {@link #reloadChanges()} to apply just the keys that were edited.
+     */
     public void loadOrCreateProperties() {
         props = new SortedProperties();
         File inFile = configPath.toFile();
@@ -51,11 +76,8 @@ public abstract class Config<T extends Config<T>> {
             inFile.getParentFile().mkdirs();
             boolean fileAlreadyExisted = !inFile.createNewFile();
             if (fileAlreadyExisted) {
-                var stringWriter = new StringWriter();
-                new FileReader(inFile).transferTo(stringWriter);
-                existingPropsStr = stringWriter.toString();
-
-                props.load(new FileReader(inFile));
+                existingPropsStr = Files.readString(configPath);
+                props.load(new StringReader(existingPropsStr));
             }
         } catch (IOException e) {
             LOGGER.warn("Failed to load preferences.");
@@ -67,17 +89,137 @@ public abstract class Config<T extends Config<T>> {
     }
 
     private void initProperties() {
-        Class<? extends Config> cls = this.getClass();
-        // Cursed reflection reloading of all properties.
-        Arrays.stream(cls.getDeclaredFields())
-            .filter(field -> field.isAnnotationPresent(ConfigOption.class))
-            .forEach(field -> {
-                try {
-                    ((Option<?>) field.get(this)).loadAndSave(props);
-                } catch (IllegalAccessException e) {
-                    e.printStackTrace();
+        getOptionsByKey().forEach((key, option) -> {
+            option.loadAndSave(props);
+            loadedValues.put(key, props.getProperty(key));
+        });
+    }
+
+    private Map<String, Option<?>> getOptionsByFieldName() {
+        // Bound on first use: the subclass' option fields aren't assigned yet while this constructor runs.
+        if (optionsByFieldName == null) {
+            optionsByFieldName = binder.getOptions((T) this);
+        }
+        return optionsByFieldName;
+    }
+
+    private Map<String, Option<?>> getOptionsByKey() {
+        if (optionsByKey == null) {
+            optionsByKey = new LinkedHashMap<>();
+            getOptionsByFieldName().values().forEach(option -> optionsByKey.put(option.getKey(), option));
+        }
+        return optionsByKey;
+    }
+
+    /**
+     * Re-reads the properties file and loads only the options whose raw value changed since they were last loaded, so
+     * {@link Option#changeEvent} fires just for those. Keys that were removed from the file are reset to their default
+     * and written back. If anything changed, the change handlers are run with the changed options.
+     *
+     * @return the options that were reloaded.
+     */
+    public Set<Option<?>> reloadChanges() {
+        String propsStr;
+        var newProps = new SortedProperties();
+        try {
+            propsStr = Files.readString(configPath);
+            newProps.load(new StringReader(propsStr));
+        } catch (IOException e) {
+            LOGGER.warn("Failed to reload preferences.");
+            LOGGER.error(e.getMessage());
+            return Set.of();
+        }
+        // Includes our own writes, from storeProperties.
+        if (propsStr.equals(existingPropsStr)) {
+            return Set.of();
+        }
+        existingPropsStr = propsStr;
+
+        Set<Option<?>> changedOptions = new LinkedHashSet<>();
+        getOptionsByKey().forEach((key, option) -> {
+            if (!Objects.equals(newProps.getProperty(key), loadedValues.get(key))) {
+                option.loadFrom(newProps);
+                changedOptions.add(option);
+            }
+            option.saveIfAbsent(newProps);
+            loadedValues.put(key, newProps.getProperty(key));
+        });
+        props = newProps;
+        storeProperties();
+
+        if (!changedOptions.isEmpty()) {
+            LOGGER.info("Reloaded {} changed config options.", changedOptions.size());
+            configChangeHandlers.forEach(handler -> handler.accept((T) this, changedOptions));
+        }
+        return changedOptions;
+    }
+
+    /**
+     * Watches the properties file, and calls {@link #reloadChanges()} on {@code executor} once edits to it have
+     * settled. Does nothing if already watching.
+     */
+    public synchronized void watchForChanges(Executor executor) {
+        if (watchService != null) {
+            return;
+        }
+        Path configDir = configPath.toAbsolutePath().getParent();
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            configDir.register(
+                watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to watch '{}' for changes.", configPath, e);
+            watchService = null;
+            return;
+        }
+
+        WatchService watcher = watchService;
+        var watcherThread = new Thread(() -> runWatcher(watcher, executor), "ec-core config watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    public synchronized void stopWatching() {
+        if (watchService == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            LOGGER.warn("Failed to stop watching '{}'.", configPath, e);
+        }
+        watchService = null;
+    }
+
+    private void runWatcher(WatchService watcher, Executor executor) {
+        try {
+            while (true) {
+                if (!pollConfigEvents(watcher.take())) {
+                    continue;
+                }
+                // Wait for a quiet period, so that a burst of writes causes a single reload.
+                WatchKey key;
+                while ((key = watcher.poll(RELOAD_DEBOUNCE_MS, TimeUnit.MILLISECONDS)) != null) {
+                    pollConfigEvents(key);
                 }
-            });
+                executor.execute(this::reloadChanges);
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Stopped watching.
+        }
+    }
+
+    /**
+     * @return whether any of {@code key}'s pending events are for the properties file.
+     */
+    private boolean pollConfigEvents(WatchKey key) {
+        Path fileName = configPath.getFileName();
+        boolean configChanged = key.pollEvents().stream()
+            .anyMatch(event -> fileName.equals(event.context()));
+        key.reset();
+        return configChanged;
     }
 
     public void storeProperties() {
@@ -93,9 +235,7 @@ public abstract class Config<T extends Config<T>> {
             if (existingPropsStr == null
                 || !stringifiedPropsNoComments.equals(getNonCommentsLines(existingPropsStr)))
             {
-                File outFile = configPath.toFile();
-                FileWriter writer = new FileWriter(outFile);
-                props.storeSorted(writer, propsComments);
+                Files.writeString(configPath, strinifiedProps);
                 existingPropsStr = strinifiedProps;
             }
 
@@ -119,14 +259,9 @@ public abstract class Config<T extends Config<T>> {
         result.append(propsText);
 
         //print field names paired with their values
-        for (Field field : publicFields) {
-            try {
-                if (Modifier.isPublic(field.getModifiers())) {
-                    propsText.append(fieldAsText(field).append(newLine));
-                }
-            } catch (IllegalAccessException ex) {
-                ex.printStackTrace();
-            }
+        var options = getOptionsByFieldName();
+        for (String fieldName : publicFieldNames) {
+            propsText.append(optionAsText(fieldName, options.get(fieldName)).append(newLine));
         }
         result.append(Text.literal("}").setStyle(ACCENT_STYLE));
 
@@ -134,41 +269,22 @@ public abstract class Config<T extends Config<T>> {
 
     }
 
-    private List<String> publicFieldNames;
-    private List<Field> publicFields;
-
-    private void initFieldStorage() {
-        Class<? extends Config> cls = this.getClass();
-        publicFieldNames = Arrays.stream(cls.getDeclaredFields())
-            .filter(field -> Modifier.isPublic(field.getModifiers()))
-            .map(Field::getName)
-            .sorted()
-            .collect(Collectors.toList());
-        publicFields = Arrays.stream(cls.getDeclaredFields())
-            .filter(field -> Modifier.isPublic(field.getModifiers()))
-            .sorted(Comparator.comparing(Field::getName))
-            .collect(Collectors.toList());
-
-    }
-
     public List<String> getPublicFieldNames() {
         return publicFieldNames;
     }
 
-    private MutableText fieldAsText(Field field) throws IllegalAccessException {
-        var value = (Option<?>) field.get(this);
+    private static MutableText optionAsText(String fieldName, Option<?> option) {
         return Text.empty()
-            .append(Text.literal(field.getName() + ": ").setStyle(DEFAULT_STYLE))
-            .append(Text.literal(value.getValue().toString()));
+            .append(Text.literal(fieldName + ": ").setStyle(DEFAULT_STYLE))
+            .append(Text.literal(option.getValue().toString()));
     }
 
     public @Nullable MutableText getFieldValueAsText(String fieldName) throws NoSuchFieldException {
-        try {
-            return fieldAsText(this.getClass().getField(fieldName));
-        } catch (IllegalAccessException e) {
-            e.printStackTrace();
+        var option = getOptionsByFieldName().get(fieldName);
+        if (option == null) {
+            throw new NoSuchFieldException(fieldName);
         }
-        return null;
+        return optionAsText(fieldName, option);
     }
 
     private final List<Consumer<T>> configLoadHandlers = new ArrayList<>();
@@ -176,4 +292,13 @@ public abstract class Config<T extends Config<T>> {
     public void registerLoadHandler(Consumer<T> handler) {
         configLoadHandlers.add(handler);
     }
+
+    private final List<BiConsumer<T, Set<Option<?>>>> configChangeHandlers = new ArrayList<>();
+
+    /**
+     * Registers {@code handler} to run after {@link #reloadChanges()} reloads options, with the options that changed.
+     */
+    public void registerChangeHandler(BiConsumer<T, Set<Option<?>>> handler) {
+        configChangeHandlers.add(handler);
+    }
 }
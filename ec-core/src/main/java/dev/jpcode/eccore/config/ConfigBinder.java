@@ -0,0 +1,23 @@
+package dev.jpcode.eccore.config;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gives {@link Config} access to its subclass' {@link ConfigOption} fields.
+ *
+ * <p>The ec-core annotation processor generates an implementation for each {@link Config} subclass, named
+ * {@code <Config>Binder}, which reads the fields directly. {@link ReflectiveConfigBinder} is used for configs that
+ * aren't compiled with the processor.
+ */
+public interface ConfigBinder<T extends Config<T>> {
+    /**
+     * @return the names of the option fields, in declaration order.
+     */
+    List<String> getFieldNames();
+
+    /**
+     * @return the options of {@code config}, by field name, in declaration order.
+     */
+    Map<String, Option<?>> getOptions(T config);
+}
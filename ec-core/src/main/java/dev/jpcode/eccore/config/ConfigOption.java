@@ -5,7 +5,16 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+/**
+ * Marks a {@code public final Option<T>} field of a {@link Config} subclass as one of its options. At compile time,
+ * these are bound by a generated {@code <Config>Binder} and {@code <Config>Values} (see {@link ConfigBinder}).
+ */
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.FIELD)
 public @interface ConfigOption {
+    /**
+     * Whether the generated {@code <Config>Values} snapshot has a field for this option. Disable for options whose
+     * snapshot value is derived, so a subclass can declare a field of the same name with a different type.
+     */
+    boolean snapshot() default true;
 }
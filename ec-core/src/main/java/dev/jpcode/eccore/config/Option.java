@@ -33,6 +33,10 @@ public class Option<T> {
         this(key, defaultValue, parser, String::valueOf);
     }
 
+    public String getKey() {
+        return key;
+    }
+
     public Option<T> loadAndSave(Properties props) {
         this.loadFrom(props);
         this.saveIfAbsent(props);
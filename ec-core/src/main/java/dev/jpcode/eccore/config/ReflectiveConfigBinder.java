@@ -0,0 +1,38 @@
+package dev.jpcode.eccore.config;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds {@link ConfigOption} fields with reflection. Used for configs that don't pass a generated binder.
+ */
+public final class ReflectiveConfigBinder<T extends Config<T>> implements ConfigBinder<T> {
+    private final List<Field> fields;
+
+    public ReflectiveConfigBinder(Class<?> configClass) {
+        this.fields = Arrays.stream(configClass.getDeclaredFields())
+            .filter(field -> field.isAnnotationPresent(ConfigOption.class))
+            .toList();
+    }
+
+    @Override
+    public List<String> getFieldNames() {
+        return fields.stream().map(Field::getName).toList();
+    }
+
+    @Override
+    public Map<String, Option<?>> getOptions(T config) {
+        Map<String, Option<?>> options = new LinkedHashMap<>();
+        for (Field field : fields) {
+            try {
+                options.put(field.getName(), (Option<?>) field.get(config));
+            } catch (IllegalAccessException e) {
+                Config.LOGGER.error("Failed to read config option '{}'.", field.getName(), e);
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,140 @@
+package dev.jpcode.eccore.config.expression;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An {@link Expression} flattened into a branching program: each instruction tests one operand, then jumps to the
+ * next instruction, or to a result, depending on whether it matched. {@code AND}, {@code OR} and {@code NOT} become
+ * jump targets, so evaluation short-circuits like the tree it was compiled from, without recursion or allocation.
+ *
+ * <p>Operands are numbered, and results are cached in a bitmask during each evaluation, so the context is asked about
+ * each operand at most once, however often it appears in the expression (up to {@value #MAX_OPERANDS} distinct
+ * operands).
+ */
+public final class CompiledExpression<T> implements Expression<T> {
+    public static final int MAX_OPERANDS = Long.SIZE;
+
+    // Jump targets below 0 are results.
+    private static final int MATCH = -1;
+    private static final int NO_MATCH = -2;
+
+    private final Expression<T> source;
+    private final List<T> operands;
+    private final int[] testedOperands;
+    private final int[] nextIfMatched;
+    private final int[] nextIfNotMatched;
+    private final int start;
+
+    private CompiledExpression(Expression<T> source, Builder<T> builder, int start) {
+        this.source = source;
+        this.operands = List.copyOf(builder.operandIndices.keySet());
+        this.testedOperands = builder.testedOperands.stream().mapToInt(Integer::intValue).toArray();
+        this.nextIfMatched = builder.nextIfMatched.stream().mapToInt(Integer::intValue).toArray();
+        this.nextIfNotMatched = builder.nextIfNotMatched.stream().mapToInt(Integer::intValue).toArray();
+        this.start = start;
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code expression} has more than {@value #MAX_OPERANDS} distinct operands,
+     * or contains an {@link Expression} implementation that can't be compiled.
+     */
+    public static <T> CompiledExpression<T> compile(Expression<T> expression) {
+        if (expression instanceof CompiledExpression<T> compiled) {
+            return compiled;
+        }
+        var builder = new Builder<T>();
+        int start = builder.compile(expression, MATCH, NO_MATCH);
+        return new CompiledExpression<>(expression, builder, start);
+    }
+
+    private static final class Builder<T> {
+        private final Map<T, Integer> operandIndices = new LinkedHashMap<>();
+        private final List<Integer> testedOperands = new ArrayList<>();
+        private final List<Integer> nextIfMatched = new ArrayList<>();
+        private final List<Integer> nextIfNotMatched = new ArrayList<>();
+
+        /**
+         * Emits the instructions for {@code expression}, with the right operand of each binary expression emitted first
+         * so that its start is known when the left operand is emitted.
+         *
+         * @return where evaluation of {@code expression} starts.
+         */
+        private int compile(Expression<T> expression, int ifMatched, int ifNotMatched) {
+            if (expression instanceof ValueExpression<T> value) {
+                return emitTest(value.value(), ifMatched, ifNotMatched);
+            }
+            if (expression instanceof NotExpression<T> not) {
+                return compile(not.operand(), ifNotMatched, ifMatched);
+            }
+            if (expression instanceof BinaryExpression<T> binary) {
+                int rightStart = compile(binary.right(), ifMatched, ifNotMatched);
+                return switch (binary.op()) {
+                    case AND -> compile(binary.left(), rightStart, ifNotMatched);
+                    case OR -> compile(binary.left(), ifMatched, rightStart);
+                };
+            }
+            if (expression instanceof EmptyExpression<T>) {
+                return ifNotMatched;
+            }
+            if (expression instanceof CompiledExpression<T> compiled) {
+                return compile(compiled.source, ifMatched, ifNotMatched);
+            }
+            throw new IllegalArgumentException("Cannot compile expression of type " + expression.getClass().getName());
+        }
+
+        private int emitTest(T operand, int ifMatched, int ifNotMatched) {
+            Integer operandIndex = operandIndices.get(operand);
+            if (operandIndex == null) {
+                if (operandIndices.size() == MAX_OPERANDS) {
+                    throw new IllegalArgumentException("Expressions may have at most " + MAX_OPERANDS + " distinct operands");
+                }
+                operandIndex = operandIndices.size();
+                operandIndices.put(operand, operandIndex);
+            }
+            testedOperands.add(operandIndex);
+            nextIfMatched.add(ifMatched);
+            nextIfNotMatched.add(ifNotMatched);
+            return testedOperands.size() - 1;
+        }
+    }
+
+    @Override
+    public boolean matches(ExpressionEvaluationContext<T> context) {
+        long evaluatedOperands = 0;
+        long matchedOperands = 0;
+        int instruction = start;
+        while (instruction >= 0) {
+            long operandBit = 1L << testedOperands[instruction];
+            if ((evaluatedOperands & operandBit) == 0) {
+                evaluatedOperands |= operandBit;
+                if (context.matches(operands.get(testedOperands[instruction]))) {
+                    matchedOperands |= operandBit;
+                }
+            }
+            instruction = (matchedOperands & operandBit) != 0
+                ? nextIfMatched[instruction]
+                : nextIfNotMatched[instruction];
+        }
+        return instruction == MATCH;
+    }
+
+    /**
+     * @return the distinct operands of this expression.
+     */
+    public List<T> getOperands() {
+        return operands;
+    }
+
+    @Override
+    public CompiledExpression<T> compile() {
+        return this;
+    }
+
+    @Override
+    public String serialize() {
+        return source.serialize();
+    }
+}
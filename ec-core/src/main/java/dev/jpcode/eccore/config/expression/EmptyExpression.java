@@ -0,0 +1,17 @@
+package dev.jpcode.eccore.config.expression;
+
+/**
+ * Matches nothing. See {@link Expression#empty()}.
+ */
+public record EmptyExpression<T>() implements Expression<T> {
+
+    @Override
+    public String serialize() {
+        return "";
+    }
+
+    @Override
+    public boolean matches(ExpressionEvaluationContext<T> context) {
+        return false;
+    }
+}
@@ -5,31 +5,18 @@ import dev.jpcode.eccore.config.StringSerializable;
 public interface Expression<TOperand> extends StringSerializable {
     boolean matches(ExpressionEvaluationContext<TOperand> context);
 
-    static <T> Expression<T> of(T value) {
-        return new Expression<>() {
-            @Override
-            public boolean matches(ExpressionEvaluationContext<T> context) {
-                return context.matches(value);
-            }
+    /**
+     * @return an equivalent expression that evaluates without walking this tree. See {@link CompiledExpression}.
+     */
+    default CompiledExpression<TOperand> compile() {
+        return CompiledExpression.compile(this);
+    }
 
-            @Override
-            public String serialize() {
-                return value.toString();
-            }
-        };
+    static <T> Expression<T> of(T value) {
+        return new ValueExpression<>(value);
     }
 
     static <T> Expression<T> empty() {
-        return new Expression<>() {
-            @Override
-            public boolean matches(ExpressionEvaluationContext<T> context) {
-                return false;
-            }
-
-            @Override
-            public String serialize() {
-                return "";
-            }
-        };
+        return new EmptyExpression<>();
     }
 }
@@ -1,5 +1,6 @@
 package dev.jpcode.eccore.config.expression;
 
+@FunctionalInterface
 public interface ExpressionEvaluationContext<TOperand> {
     boolean matches(TOperand operand);
 }
@@ -0,0 +1,30 @@
+package dev.jpcode.eccore.config.expression;
+
+/**
+ * Thrown by {@link ExpressionParser} for malformed expressions.
+ */
+public class ExpressionParseException extends IllegalArgumentException {
+    private final String expression;
+    private final int position;
+
+    public ExpressionParseException(String message, String expression, int position, Throwable cause) {
+        super("%s at position %d in '%s'".formatted(message, position, expression), cause);
+        this.expression = expression;
+        this.position = position;
+    }
+
+    public ExpressionParseException(String message, String expression, int position) {
+        this(message, expression, position, null);
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * @return the index in {@link #getExpression()} at which the error was found.
+     */
+    public int getPosition() {
+        return position;
+    }
+}
@@ -0,0 +1,139 @@
+package dev.jpcode.eccore.config.expression;
+
+import java.util.function.Function;
+
+/**
+ * Parses boolean expressions over operands, e.g. {@code NoBed AND NOT (SameWorld OR FirstJoin)}.
+ *
+ * <p>Operands are runs of characters other than whitespace and parentheses, converted with the operand parser.
+ * {@code NOT} binds tightest, then {@code AND}, then {@code OR}. Binary operators are left-associative, and there is no
+ * limit on the number of operands in a group. Errors are reported as {@link ExpressionParseException}s, with the
+ * position of the offending token.
+ */
+public final class ExpressionParser<T> {
+    private enum TokenKind {
+        OPERAND,
+        AND,
+        OR,
+        NOT,
+        OPEN_GROUP,
+        CLOSE_GROUP,
+        END,
+    }
+
+    private record Token(TokenKind kind, String text, int start) {}
+
+    private final String source;
+    private final Function<String, T> operandParser;
+    private int position;
+    private Token token;
+
+    private ExpressionParser(String source, Function<String, T> operandParser) {
+        this.source = source;
+        this.operandParser = operandParser;
+    }
+
+    /**
+     * @throws ExpressionParseException if {@code str} isn't a valid expression, or {@code operandParser} throws.
+     */
+    public static <T> Expression<T> parse(String str, Function<String, T> operandParser) {
+        var parser = new ExpressionParser<>(str, operandParser);
+        parser.advance();
+        var expression = parser.parseExpression(0);
+        if (parser.token.kind() != TokenKind.END) {
+            throw parser.error("Expected AND, OR or the end of the expression");
+        }
+        return expression;
+    }
+
+    private static int getPrecedence(TokenKind kind) {
+        return switch (kind) {
+            case OR -> 1;
+            case AND -> 2;
+            default -> -1;
+        };
+    }
+
+    /**
+     * Parses operands joined by binary operators of at least {@code minPrecedence} (precedence climbing).
+     */
+    private Expression<T> parseExpression(int minPrecedence) {
+        var left = parseUnary();
+        int precedence;
+        while ((precedence = getPrecedence(token.kind())) >= minPrecedence) {
+            var operator = token.kind() == TokenKind.AND ? LogicalOperator.AND : LogicalOperator.OR;
+            advance();
+            var right = parseExpression(precedence + 1);
+            left = new BinaryExpression<>(left, right, operator);
+        }
+        return left;
+    }
+
+    private Expression<T> parseUnary() {
+        var current = token;
+        switch (current.kind()) {
+            case NOT -> {
+                advance();
+                return new NotExpression<>(parseUnary());
+            }
+            case OPEN_GROUP -> {
+                advance();
+                var group = parseExpression(0);
+                if (token.kind() != TokenKind.CLOSE_GROUP) {
+                    throw error("Expected ')' (group opened at position " + current.start() + ")");
+                }
+                advance();
+                return group;
+            }
+            case OPERAND -> {
+                T operand;
+                try {
+                    operand = operandParser.apply(current.text());
+                } catch (RuntimeException e) {
+                    throw new ExpressionParseException("Invalid operand '" + current.text() + "'", source, current.start(), e);
+                }
+                advance();
+                return new ValueExpression<>(operand);
+            }
+            default -> throw error("Expected an operand, NOT or '('");
+        }
+    }
+
+    private ExpressionParseException error(String message) {
+        return new ExpressionParseException(message, source, token.start());
+    }
+
+    private void advance() {
+        while (position < source.length() && Character.isWhitespace(source.charAt(position))) {
+            position++;
+        }
+        int start = position;
+        if (position == source.length()) {
+            token = new Token(TokenKind.END, "", start);
+            return;
+        }
+
+        char ch = source.charAt(position);
+        if (ch == '(' || ch == ')') {
+            position++;
+            token = new Token(ch == '(' ? TokenKind.OPEN_GROUP : TokenKind.CLOSE_GROUP, String.valueOf(ch), start);
+            return;
+        }
+
+        while (position < source.length() && !isDelimiter(source.charAt(position))) {
+            position++;
+        }
+        String text = source.substring(start, position);
+        var kind = switch (text) {
+            case "AND" -> TokenKind.AND;
+            case "OR" -> TokenKind.OR;
+            case "NOT" -> TokenKind.NOT;
+            default -> TokenKind.OPERAND;
+        };
+        token = new Token(kind, text, start);
+    }
+
+    private static boolean isDelimiter(char ch) {
+        return Character.isWhitespace(ch) || ch == '(' || ch == ')';
+    }
+}
@@ -0,0 +1,14 @@
+package dev.jpcode.eccore.config.expression;
+
+public record NotExpression<TOperand>(Expression<TOperand> operand) implements Expression<TOperand> {
+
+    @Override
+    public String serialize() {
+        return "NOT " + operand.serialize();
+    }
+
+    @Override
+    public boolean matches(ExpressionEvaluationContext<TOperand> context) {
+        return !operand.matches(context);
+    }
+}
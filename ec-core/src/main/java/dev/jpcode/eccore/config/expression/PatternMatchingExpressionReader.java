@@ -2,8 +2,13 @@ package dev.jpcode.eccore.config.expression;
 
 import java.io.IOException;
 import java.io.StringReader;
+import java.io.StringWriter;
 import java.util.function.Function;
 
+/**
+ * @deprecated use {@link ExpressionParser}, which this delegates to.
+ */
+@Deprecated
 public class PatternMatchingExpressionReader<T>
 {
     private final StringReader reader;
@@ -20,143 +25,12 @@ public class PatternMatchingExpressionReader<T>
     }
 
     public static <T2> Expression<T2> parse(String str, Function<String, T2> operandParser) {
-        try {
-            return new PatternMatchingExpressionReader<>(str, operandParser).readExpression();
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    private enum Mode
-    {
-        Operand1,
-        Operator1,
-        Operand2,
-        Operator2,
-        Operand3,
-    }
-
-    private class ParsingContext
-    {
-        StringBuilder workingBuffer = new StringBuilder();
-        public Mode mode = Mode.Operand1;
-        public Expression<T> operand1 = null;
-        public LogicalOperator operator1 = null;
-        public Expression<T> operand2 = null;
-        public LogicalOperator operator2 = null;
-        public Expression<T> operand3 = null;
-
-        public void finalizeOperand3() {
-            // do nothing if operator2 is null;
-            if (this.operator2 == null) {
-                return;
-            }
-            switch (this.operator2) {
-                case AND -> {
-                    this.operand2 = new BinaryExpression<>(
-                        this.operand2,
-                        this.operand3,
-                        this.operator2
-                    );
-                    this.operand3 = null;
-                    this.operator2 = null;
-                }
-                case OR -> {
-                    this.operand1 = new BinaryExpression<>(
-                        this.operand1,
-                        this.operand2,
-                        this.operator1
-                    );
-                    // Shift everything else left 1
-                    this.operator1 = this.operator2;
-                    this.operator2 = null;
-                    this.operand2 = this.operand3;
-                    this.operand3 = null;
-                }
-            }
-            this.mode = Mode.Operator2;
-        }
-
-        public Expression<T> fullFinalize() {
-            finalizeOperand3();
-
-            if (this.operand2 != null) {
-                this.operand1 = new BinaryExpression<>(
-                    this.operand1,
-                    this.operand2,
-                    this.operator1
-                );
-            }
-
-            return this.operand1;
-        }
-
-        private void tokenEnd() {
-            if (workingBuffer.isEmpty()) {
-                return;
-            }
-            switch (this.mode) {
-                case Operand1 -> {
-                    this.operand1 = readValueExpression(this.workingBuffer.toString());
-                    this.mode = Mode.Operator1;
-                }
-                case Operator1 -> {
-                    this.operator1 = LogicalOperator.valueOf(this.workingBuffer.toString());
-                    this.mode = Mode.Operand2;
-                }
-                case Operand2 -> {
-                    this.operand2 = readValueExpression(this.workingBuffer.toString());
-                    this.mode = Mode.Operator2;
-                }
-                case Operator2 -> {
-                    this.operator2 = LogicalOperator.valueOf(this.workingBuffer.toString());
-                    this.mode = Mode.Operand3;
-                }
-                case Operand3 -> {
-                    this.operand3 = readValueExpression(this.workingBuffer.toString());
-                    finalizeOperand3();
-                }
-            }
-            this.workingBuffer = new StringBuilder();
-        }
-
+        return ExpressionParser.parse(str, operandParser);
     }
 
     public Expression<T> readExpression() throws IOException {
-        return parse(this.reader);
-    }
-
-    private Expression<T> parse(StringReader reader) throws IOException {
-        final ParsingContext ctx = new ParsingContext();
-
-        int chInt;
-        while ((chInt = reader.read()) != -1) {
-            char ch = (char)chInt;
-
-            switch (ch) {
-                case ' ' -> ctx.tokenEnd();
-                case '(' -> { // begin group
-                    var parsedGroup = parse(reader);
-                    switch (ctx.mode) {
-                        case Operand1 -> {ctx.operand1 = parsedGroup; ctx.mode = Mode.Operator1;}
-                        case Operand2 -> {ctx.operand2 = parsedGroup; ctx.mode = Mode.Operator2;}
-                        case Operand3 -> {ctx.operand3 = parsedGroup; ctx.finalizeOperand3();}
-                        default -> throw new RuntimeException("Invalid parsing state (Group start while not ready to parse operand (missing logical operator?)");
-                    }
-                }
-                case ')' -> { // end group
-                    ctx.tokenEnd();
-                    return ctx.fullFinalize();
-                }
-                default -> ctx.workingBuffer.append(ch);
-            }
-        }
-
-        ctx.tokenEnd();
-        return ctx.fullFinalize();
-    }
-
-    private ValueExpression<T> readValueExpression(String str) {
-        return new ValueExpression<>(this.operandParser.apply(str));
+        var str = new StringWriter();
+        reader.transferTo(str);
+        return ExpressionParser.parse(str.toString(), operandParser);
     }
 }
@@ -0,0 +1,221 @@
+package dev.jpcode.eccore.config.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates, for each class with {@code @ConfigOption} fields, in the same package:
+ *
+ * <ul>
+ *   <li>{@code <Config>Binder}, a {@code ConfigBinder} that reads the option fields directly, so that loading and
+ *   displaying the config needs no reflection.</li>
+ *   <li>{@code <Config>Values}, an immutable snapshot with one field per option (unboxed where possible). Its
+ *   constructor copies unchanged values from a previous snapshot, so a reload only reads the options that changed.
+ *   Subclass it to add derived values.</li>
+ * </ul>
+ *
+ * <p>Option fields must be {@code public final Option<T>}.
+ */
+@SupportedAnnotationTypes(ConfigBindingsProcessor.CONFIG_OPTION)
+public final class ConfigBindingsProcessor extends AbstractProcessor {
+    static final String CONFIG_OPTION = "dev.jpcode.eccore.config.ConfigOption";
+    private static final String OPTION = "dev.jpcode.eccore.config.Option";
+    private static final String CONFIG_BINDER = "dev.jpcode.eccore.config.ConfigBinder";
+
+    private static final Map<String, String> UNBOXED_TYPES = Map.of(
+        "java.lang.Boolean", "boolean",
+        "java.lang.Integer", "int",
+        "java.lang.Long", "long",
+        "java.lang.Double", "double",
+        "java.lang.Float", "float");
+
+    private record OptionField(String name, String valueType, boolean inSnapshot) {}
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Map<TypeElement, List<OptionField>> optionFieldsByConfig = new LinkedHashMap<>();
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                var field = readOptionField((VariableElement) element);
+                if (field != null) {
+                    optionFieldsByConfig
+                        .computeIfAbsent((TypeElement) element.getEnclosingElement(), config -> new ArrayList<>())
+                        .add(field);
+                }
+            }
+        }
+
+        optionFieldsByConfig.forEach((config, fields) -> {
+            try {
+                writeBinder(config, fields);
+                writeValues(config, fields);
+            } catch (IOException e) {
+                error(config, "Failed to generate config bindings: " + e.getMessage());
+            }
+        });
+        return true;
+    }
+
+    private OptionField readOptionField(VariableElement field) {
+        var modifiers = field.getModifiers();
+        if (!modifiers.contains(Modifier.PUBLIC) || !modifiers.contains(Modifier.FINAL) || modifiers.contains(Modifier.STATIC)) {
+            error(field, "@ConfigOption fields must be public, final and not static");
+            return null;
+        }
+        if (field.getEnclosingElement().getKind() != ElementKind.CLASS) {
+            error(field, "@ConfigOption fields must be declared in a class");
+            return null;
+        }
+
+        TypeMirror type = field.asType();
+        if (type.getKind() != TypeKind.DECLARED
+            || !((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals(OPTION)
+            || ((DeclaredType) type).getTypeArguments().size() != 1)
+        {
+            error(field, "@ConfigOption fields must be of type Option<T>");
+            return null;
+        }
+
+        String valueType = ((DeclaredType) type).getTypeArguments().get(0).toString();
+        return new OptionField(
+            field.getSimpleName().toString(),
+            UNBOXED_TYPES.getOrDefault(valueType, valueType),
+            readSnapshotAttribute(field));
+    }
+
+    private static boolean readSnapshotAttribute(VariableElement field) {
+        for (AnnotationMirror annotation : field.getAnnotationMirrors()) {
+            if (!((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(CONFIG_OPTION)) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                : annotation.getElementValues().entrySet())
+            {
+                if (entry.getKey().getSimpleName().contentEquals("snapshot")) {
+                    return (Boolean) entry.getValue().getValue();
+                }
+            }
+        }
+        return true;
+    }
+
+    private void writeBinder(TypeElement config, List<OptionField> fields) throws IOException {
+        String configName = config.getSimpleName().toString();
+        String binderName = configName + "Binder";
+
+        var out = new StringBuilder();
+        writeHeader(out, config);
+        out.append("/**\n")
+            .append(" * Binds the options of {@link ").append(configName).append("} without reflection.\n")
+            .append(" */\n")
+            .append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n")
+            .append("public final class ").append(binderName)
+            .append(" implements ").append(CONFIG_BINDER).append('<').append(configName).append("> {\n")
+            .append("    private static final java.util.List<String> FIELD_NAMES = java.util.List.of(");
+        for (int i = 0; i < fields.size(); i++) {
+            out.append(i == 0 ? "\n" : ",\n").append("        \"").append(fields.get(i).name()).append('"');
+        }
+        out.append(");\n\n")
+            .append("    @Override\n")
+            .append("    public java.util.List<String> getFieldNames() {\n")
+            .append("        return FIELD_NAMES;\n")
+            .append("    }\n\n")
+            .append("    @Override\n")
+            .append("    public java.util.Map<String, ").append(OPTION).append("<?>> getOptions(")
+            .append(configName).append(" config) {\n")
+            .append("        var options = new java.util.LinkedHashMap<String, ").append(OPTION).append("<?>>(")
+            .append(fields.size() * 2).append(");\n");
+        for (OptionField field : fields) {
+            out.append("        options.put(\"").append(field.name()).append("\", config.").append(field.name()).append(");\n");
+        }
+        out.append("        return options;\n")
+            .append("    }\n")
+            .append("}\n");
+
+        writeSource(config, binderName, out);
+    }
+
+    private void writeValues(TypeElement config, List<OptionField> fields) throws IOException {
+        String configName = config.getSimpleName().toString();
+        String valuesName = configName + "Values";
+
+        var out = new StringBuilder();
+        writeHeader(out, config);
+        out.append("/**\n")
+            .append(" * An immutable snapshot of the option values of {@link ").append(configName).append("}.\n")
+            .append(" */\n")
+            .append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n")
+            .append("@SuppressWarnings(\"checkstyle:all\")\n")
+            .append("public class ").append(valuesName).append(" {\n");
+        for (OptionField field : fields) {
+            if (field.inSnapshot()) {
+                out.append("    public final ").append(field.valueType()).append(' ').append(field.name()).append(";\n");
+            }
+        }
+        out.append('\n')
+            .append("    /**\n")
+            .append("     * @param previous if not null, values of options not in {@code changedOptions} are copied from it.\n")
+            .append("     */\n")
+            .append("    protected ").append(valuesName).append('(').append(configName).append(" config, ")
+            .append(valuesName).append(" previous, java.util.Set<").append(OPTION).append("<?>> changedOptions) {\n");
+        for (OptionField field : fields) {
+            if (field.inSnapshot()) {
+                String name = field.name();
+                out.append("        this.").append(name)
+                    .append(" = previous != null && !changedOptions.contains(config.").append(name).append(")\n")
+                    .append("            ? previous.").append(name).append('\n')
+                    .append("            : config.").append(name).append(".getValue();\n");
+            }
+        }
+        out.append("    }\n")
+            .append("}\n");
+
+        writeSource(config, valuesName, out);
+    }
+
+    private void writeHeader(StringBuilder out, TypeElement config) {
+        String packageName = processingEnv.getElementUtils().getPackageOf(config).getQualifiedName().toString();
+        if (!packageName.isEmpty()) {
+            out.append("package ").append(packageName).append(";\n\n");
+        }
+    }
+
+    private void writeSource(TypeElement config, String simpleName, CharSequence source) throws IOException {
+        String packageName = processingEnv.getElementUtils().getPackageOf(config).getQualifiedName().toString();
+        String name = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(name, config).openWriter()) {
+            writer.append(source);
+        }
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
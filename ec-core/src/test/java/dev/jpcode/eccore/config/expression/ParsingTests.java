@@ -1,5 +1,8 @@
 package dev.jpcode.eccore.config.expression;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -67,4 +70,71 @@ public class ParsingTests {
 
     }
 
+    @Test
+    void ExpressionParser_parse_handlesNotAndLongGroups() {
+        var expression = ExpressionParser.parse(
+            "NOT IsFast AND (CanFly OR IsLarge OR IsAncient OR NOT (IsInvisible AND CanHighJump))",
+            PlayerProperties::valueOf);
+
+        assertEquals(
+            "(NOT IsFast AND (((CanFly OR IsLarge) OR IsAncient) OR NOT (IsInvisible AND CanHighJump)))",
+            expression.serialize());
+        assertEquals(expression.serialize(), ExpressionParser.parse(expression.serialize(), PlayerProperties::valueOf).serialize());
+    }
+
+    @Test
+    void ExpressionParser_parse_reportsErrorPositions() {
+        assertEquals(9, assertThrows(ExpressionParseException.class,
+            () -> ExpressionParser.parse("CanFly OR", PlayerProperties::valueOf)).getPosition());
+        assertEquals(10, assertThrows(ExpressionParseException.class,
+            () -> ExpressionParser.parse("CanFly OR Teleports", PlayerProperties::valueOf)).getPosition());
+        assertEquals(17, assertThrows(ExpressionParseException.class,
+            () -> ExpressionParser.parse("(CanFly OR IsFast", PlayerProperties::valueOf)).getPosition());
+        assertEquals(7, assertThrows(ExpressionParseException.class,
+            () -> ExpressionParser.parse("CanFly IsFast", PlayerProperties::valueOf)).getPosition());
+    }
+
+    @Test
+    void CompiledExpression_matches_agreesWithTree() {
+        var expression = ExpressionParser.parse(
+            "NOT IsFast AND (CanFly OR IsLarge) OR IsAncient AND NOT (IsInvisible OR CanHighJump)",
+            PlayerProperties::valueOf);
+        var compiled = expression.compile();
+        var properties = PlayerProperties.values();
+
+        for (int mask = 0; mask < 1 << properties.length; mask++) {
+            int matchingProperties = mask;
+            ExpressionEvaluationContext<PlayerProperties> context =
+                property -> (matchingProperties & (1 << property.ordinal())) != 0;
+
+            assertEquals(expression.matches(context), compiled.matches(context), "properties mask " + mask);
+        }
+    }
+
+    @Test
+    void CompiledExpression_matches_evaluatesEachOperandAtMostOnce() {
+        var compiled = ExpressionParser.parse(
+            "CanFly AND IsLarge OR CanFly AND IsAncient OR NOT CanFly AND IsLarge",
+            PlayerProperties::valueOf).compile();
+        var evaluationCounts = new EnumMap<PlayerProperties, Integer>(PlayerProperties.class);
+
+        boolean matches = compiled.matches(property -> {
+            evaluationCounts.merge(property, 1, Integer::sum);
+            return property == PlayerProperties.CanFly || property == PlayerProperties.IsAncient;
+        });
+
+        assertTrue(matches);
+        assertEquals(
+            Map.of(PlayerProperties.CanFly, 1, PlayerProperties.IsLarge, 1, PlayerProperties.IsAncient, 1),
+            evaluationCounts);
+    }
+
+    @Test
+    void CompiledExpression_empty_doesNotMatch() {
+        var compiled = Expression.<PlayerProperties>empty().compile();
+
+        assertFalse(compiled.matches(property -> true));
+        assertEquals("", compiled.serialize());
+    }
+
 }
@@ -0,0 +1,237 @@
+package com.fibermc.essentialcommands.commands.helpers;
+
+import java.util.EnumSet;
+import java.util.OptionalInt;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.world.HeightLimitView;
+import net.minecraft.world.Heightmap;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.ChunkStatus;
+import net.minecraft.world.chunk.PalettedContainer;
+import net.minecraft.world.chunk.ProtoChunk;
+import net.minecraft.world.chunk.UpgradeData;
+import net.minecraft.world.tick.SimpleTickScheduler;
+
+/**
+ * Compares {@link ChunkColumnHeightFinder} against the block-by-block column scans it replaced, on the five columns
+ * RTP checks per candidate chunk.
+ *
+ * <p>Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeightFinderBenchmark {
+    private static final ChunkPos CHUNK_POS = new ChunkPos(0, 0);
+
+    private Chunk overworldWithHeightmaps;
+    private Chunk overworldWithoutHeightmaps;
+    private Chunk nether;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+
+        var random = new Random(79194);
+        overworldWithHeightmaps = createOverworldLikeChunk(random);
+        ((ProtoChunk) overworldWithHeightmaps).setStatus(ChunkStatus.FEATURES);
+        Heightmap.populateHeightmaps(overworldWithHeightmaps, EnumSet.of(Heightmap.Type.WORLD_SURFACE));
+        overworldWithoutHeightmaps = createOverworldLikeChunk(random);
+        nether = createNetherLikeChunk(random);
+    }
+
+    @Benchmark
+    public void topDown_legacyScan(Blackhole blackhole) {
+        forEachCandidateColumn(overworldWithoutHeightmaps, LegacyScans::getTop, blackhole);
+    }
+
+    @Benchmark
+    public void topDown_sectionSkipping(Blackhole blackhole) {
+        forEachCandidateColumn(overworldWithoutHeightmaps, ChunkColumnHeightFinder.TOP_DOWN, blackhole);
+    }
+
+    @Benchmark
+    public void topDown_heightmap(Blackhole blackhole) {
+        forEachCandidateColumn(overworldWithHeightmaps, ChunkColumnHeightFinder.TOP_DOWN, blackhole);
+    }
+
+    @Benchmark
+    public void bottomUp_legacyScan(Blackhole blackhole) {
+        forEachCandidateColumn(nether, LegacyScans::findYBottomUp, blackhole);
+    }
+
+    @Benchmark
+    public void bottomUp_sectionSkipping(Blackhole blackhole) {
+        forEachCandidateColumn(nether, ChunkColumnHeightFinder.BOTTOM_UP, blackhole);
+    }
+
+    private static void forEachCandidateColumn(Chunk chunk, HeightFinder heightFinder, Blackhole blackhole) {
+        blackhole.consume(heightFinder.getY(chunk, CHUNK_POS.getStartX(), CHUNK_POS.getStartZ()));
+        blackhole.consume(heightFinder.getY(chunk, CHUNK_POS.getStartX(), CHUNK_POS.getEndZ()));
+        blackhole.consume(heightFinder.getY(chunk, CHUNK_POS.getEndX(), CHUNK_POS.getStartZ()));
+        blackhole.consume(heightFinder.getY(chunk, CHUNK_POS.getEndX(), CHUNK_POS.getEndZ()));
+        blackhole.consume(heightFinder.getY(chunk, CHUNK_POS.getCenterX(), CHUNK_POS.getCenterZ()));
+    }
+
+    /**
+     * Solid stone up to y=59, a mixed dirt/grass/air surface layer, then empty sections up to the build limit.
+     */
+    private static Chunk createOverworldLikeChunk(Random random) {
+        var chunk = createChunk(HeightLimitView.create(-64, 384));
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                int surfaceY = 60 + random.nextInt(8);
+                for (int y = -64; y <= surfaceY; y++) {
+                    BlockState state = y == -64 ? Blocks.BEDROCK.getDefaultState()
+                        : y < 60 ? Blocks.STONE.getDefaultState()
+                        : y < surfaceY ? Blocks.DIRT.getDefaultState()
+                        : Blocks.GRASS_BLOCK.getDefaultState();
+                    setBlockState(chunk, x, y, z, state);
+                }
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Netherrack with scattered cave pockets, bedrock floor and ceiling, and empty sections above the ceiling.
+     */
+    private static Chunk createNetherLikeChunk(Random random) {
+        var chunk = createChunk(HeightLimitView.create(0, 256));
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                for (int y = 0; y < 128; y++) {
+                    BlockState state = y == 0 || y == 127 ? Blocks.BEDROCK.getDefaultState()
+                        : y > 31 && y < 100 && random.nextInt(4) == 0 ? Blocks.AIR.getDefaultState()
+                        : Blocks.NETHERRACK.getDefaultState();
+                    setBlockState(chunk, x, y, z, state);
+                }
+            }
+        }
+        return chunk;
+    }
+
+    private static Chunk createChunk(HeightLimitView heightLimitView) {
+        // Biomes are never read by the height finders, so the sections are created without a biome container.
+        var sections = new ChunkSection[heightLimitView.countVerticalSections()];
+        for (int i = 0; i < sections.length; i++) {
+            sections[i] = new ChunkSection(
+                new PalettedContainer<>(Block.STATE_IDS, Blocks.AIR.getDefaultState(), PalettedContainer.PaletteProvider.BLOCK_STATE),
+                null
+            );
+        }
+        return new ProtoChunk(
+            CHUNK_POS,
+            UpgradeData.NO_UPGRADE_DATA,
+            sections,
+            new SimpleTickScheduler<>(),
+            new SimpleTickScheduler<>(),
+            heightLimitView,
+            null,
+            null
+        );
+    }
+
+    private static void setBlockState(Chunk chunk, int x, int y, int z, BlockState state) {
+        chunk.getSection(chunk.getSectionIndex(y)).setBlockState(x, y & 15, z, state);
+    }
+
+    /**
+     * The column scans used before {@link ChunkColumnHeightFinder}, with the {@code calculateMaxY} section offset
+     * corrected so that the comparison is like-for-like.
+     */
+    private static final class LegacyScans {
+        static OptionalInt getTop(Chunk chunk, int x, int z) {
+            final int maxY = calculateMaxY(chunk);
+            final int bottomY = chunk.getBottomY();
+            if (maxY <= bottomY) {
+                return OptionalInt.empty();
+            }
+
+            final BlockPos.Mutable mutablePos = new BlockPos.Mutable(x, maxY, z);
+            boolean isAir1 = chunk.getBlockState(mutablePos).isAir();
+            boolean isAir2 = chunk.getBlockState(mutablePos.move(Direction.DOWN)).isAir();
+            boolean isAir3;
+
+            while (mutablePos.getY() > bottomY) {
+                isAir3 = chunk.getBlockState(mutablePos.move(Direction.DOWN)).isAir();
+                if (!isAir3 && isAir2 && isAir1) {
+                    return OptionalInt.of(mutablePos.getY() + 1);
+                }
+
+                isAir1 = isAir2;
+                isAir2 = isAir3;
+            }
+
+            return OptionalInt.empty();
+        }
+
+        private static int calculateMaxY(Chunk chunk) {
+            ChunkSection[] sections = chunk.getSectionArray();
+            for (int index = sections.length - 1; index >= 0; --index) {
+                if (!sections[index].isEmpty()) {
+                    return Math.min(ChunkSectionPos.getBlockCoord(chunk.sectionIndexToCoord(index)) + 15, chunk.getTopY());
+                }
+            }
+
+            return chunk.getBottomY();
+        }
+
+        static OptionalInt findYBottomUp(Chunk chunk, int x, int z) {
+            int highestNonEmptySection = chunk.getHighestNonEmptySection();
+            final int topY = highestNonEmptySection < 0
+                ? chunk.getBottomY()
+                : ChunkSectionPos.getBlockCoord(chunk.sectionIndexToCoord(highestNonEmptySection));
+            final int bottomY = chunk.getBottomY();
+            if (topY <= bottomY) {
+                return OptionalInt.empty();
+            }
+
+            final BlockPos.Mutable mutablePos = new BlockPos.Mutable(x, bottomY, z);
+            BlockState bsFeet1 = chunk.getBlockState(mutablePos);
+            BlockState bsBody2 = chunk.getBlockState(mutablePos.move(Direction.UP));
+            BlockState bsHead3;
+
+            while (mutablePos.getY() < topY) {
+                bsHead3 = chunk.getBlockState(mutablePos.move(Direction.UP));
+                if (bsFeet1.isSolid() && bsBody2.isAir() && bsHead3.isAir()) {
+                    return OptionalInt.of(mutablePos.getY() - 1);
+                }
+
+                bsFeet1 = bsBody2;
+                bsBody2 = bsHead3;
+            }
+
+            return OptionalInt.empty();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.fibermc.essentialcommands.config;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+
+import dev.jpcode.eccore.config.Option;
+import dev.jpcode.eccore.config.ReflectiveConfigBinder;
+
+/**
+ * Compares the generated {@link EssentialCommandsConfigBinder} against the reflective field scan that every config
+ * load used to do, and measures snapshot creation and patching.
+ *
+ * <p>Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigBindingBenchmark {
+    private EssentialCommandsConfig config;
+    private EssentialCommandsConfigSnapshot snapshot;
+    private Set<Option<?>> changedOptions;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+
+        // Never loaded, so nothing is read from or written to this path.
+        config = new EssentialCommandsConfig(Path.of("EssentialCommands.properties"), "Benchmark Config", "");
+        snapshot = EssentialCommandsConfigSnapshot.create(config);
+        changedOptions = Set.of(config.HOME_LIMIT, config.TELEPORT_DELAY);
+    }
+
+    @Benchmark
+    public Map<String, Option<?>> bindOptions_reflective() {
+        return new ReflectiveConfigBinder<EssentialCommandsConfig>(EssentialCommandsConfig.class).getOptions(config);
+    }
+
+    @Benchmark
+    public Map<String, Option<?>> bindOptions_generated() {
+        return new EssentialCommandsConfigBinder().getOptions(config);
+    }
+
+    @Benchmark
+    public EssentialCommandsConfigSnapshot createSnapshot() {
+        return EssentialCommandsConfigSnapshot.create(config);
+    }
+
+    @Benchmark
+    public EssentialCommandsConfigSnapshot patchSnapshot() {
+        return snapshot.patch(config, changedOptions);
+    }
+}
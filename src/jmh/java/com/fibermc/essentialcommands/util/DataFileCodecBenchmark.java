@@ -0,0 +1,150 @@
+package com.fibermc.essentialcommands.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.fibermc.essentialcommands.playerdata.BackLocationHistory;
+import com.fibermc.essentialcommands.types.MinecraftLocation;
+import com.fibermc.essentialcommands.types.NamedLocationStorage;
+import com.fibermc.essentialcommands.types.NamedMinecraftLocation;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtHelper;
+import net.minecraft.nbt.NbtSizeTracker;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.world.World;
+
+/**
+ * Compares {@link DataFileCodec}s on player data files, by home count. Encoded sizes are reported as the
+ * {@code encodedBytes} secondary result.
+ *
+ * <p>Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataFileCodecBenchmark {
+    private static final int BACK_LOCATION_COUNT = 8;
+
+    @Param({"0", "5", "50"})
+    public int homeCount;
+
+    @Param({"none", "deflate", "gzip_1", "gzip_6", "gzip_9"})
+    public String codecName;
+
+    private DataFileCodec codec;
+    private NbtCompound playerData;
+    private byte[] encoded;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+        public long encodedBytes;
+
+        @Setup(Level.Iteration)
+        public void setup(DataFileCodecBenchmark benchmark) {
+            encodedBytes = benchmark.encoded.length;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+
+        codec = switch (codecName) {
+            case "none" -> DataFileCodec.NONE;
+            case "deflate" -> DataFileCodec.DEFLATE;
+            default -> DataFileCodec.gzip(Integer.parseInt(codecName.substring("gzip_".length())));
+        };
+        playerData = createPlayerData(new Random(homeCount), homeCount);
+
+        var out = new ByteArrayOutputStream();
+        codec.write(playerData, out);
+        encoded = out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] write(EncodedSize encodedSize) throws IOException {
+        var out = new ByteArrayOutputStream(encoded.length);
+        codec.write(playerData, out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public NbtCompound read(EncodedSize encodedSize) throws IOException {
+        return codec.read(new ByteArrayInputStream(encoded), NbtSizeTracker.ofUnlimitedBytes());
+    }
+
+    /**
+     * Shaped like a saved {@code PlayerData}: homes spread over the three vanilla dimensions, a styled nickname, and
+     * persisted back locations.
+     */
+    private static NbtCompound createPlayerData(Random random, int homeCount) {
+        var homes = new NamedLocationStorage();
+        for (int i = 0; i < homeCount; i++) {
+            String name = "home_" + i;
+            homes.put(name, new NamedMinecraftLocation(
+                randomDimension(random),
+                random.nextInt(20_000) - 10_000 + 0.5,
+                random.nextInt(200) - 60,
+                random.nextInt(20_000) - 10_000 + 0.5,
+                random.nextFloat() * 360 - 180,
+                random.nextFloat() * 180 - 90,
+                name));
+        }
+
+        var backLocations = new BackLocationHistory(BACK_LOCATION_COUNT);
+        for (int i = 0; i < BACK_LOCATION_COUNT; i++) {
+            backLocations.record(new MinecraftLocation(
+                randomDimension(random),
+                random.nextDouble() * 20_000 - 10_000,
+                random.nextDouble() * 200 - 60,
+                random.nextDouble() * 20_000 - 10_000,
+                random.nextFloat() * 360 - 180,
+                random.nextFloat() * 180 - 90));
+        }
+
+        var data = new NbtCompound();
+        data.putUuid("playerUuid", new UUID(random.nextLong(), random.nextLong()));
+        data.put("homes", homes.writeNbt(new NbtCompound()));
+        data.putString("nickname", "{\"text\":\"Nick\",\"color\":\"gold\",\"extra\":[{\"text\":\"name\",\"italic\":true}]}");
+        data.putLong("timeUsedRtpEpochMs", System.currentTimeMillis());
+        data.put("backLocations", backLocations.writeNbt(new NbtCompound()));
+
+        var tag = new NbtCompound();
+        tag.put("data", data);
+        NbtHelper.putDataVersion(tag);
+        return tag;
+    }
+
+    private static RegistryKey<World> randomDimension(Random random) {
+        return switch (random.nextInt(3)) {
+            case 0 -> World.NETHER;
+            case 1 -> World.END;
+            default -> World.OVERWORLD;
+        };
+    }
+}
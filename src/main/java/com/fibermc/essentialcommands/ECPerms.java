@@ -83,6 +83,12 @@ public final class ECPerms {
         public static final String near_self = "essentialcommands.near.self";
         public static final String near_others = "essentialcommands.near.others";
         public static final String motd = "essentialcommands.motd";
+        public static final String rtp_stats = "essentialcommands.admin.rtp_stats";
+        public static final String bulk_teleport = "essentialcommands.admin.bulk_teleport";
+        public static final String scheduler_stats = "essentialcommands.admin.scheduler_stats";
+        public static final String homes_query = "essentialcommands.admin.homes_query";
+        public static final String player_catalog = "essentialcommands.admin.player_catalog";
+        public static final String player_data_jobs = "essentialcommands.admin.player_data_jobs";
 
         public static final class Group {
             public static final String[] tpa_group = {tpa, tpahere, tpaccept, tpdeny};
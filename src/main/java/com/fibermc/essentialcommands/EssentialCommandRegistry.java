@@ -1,7 +1,6 @@
 package com.fibermc.essentialcommands;
 
-import java.io.FileNotFoundException;
-import java.nio.file.NotDirectoryException;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.HashSet;
 import java.util.function.Predicate;
@@ -13,10 +12,11 @@ import com.fibermc.essentialcommands.commands.suggestions.NicknamePlayersSuggest
 import com.fibermc.essentialcommands.commands.suggestions.TeleportResponseSuggestion;
 import com.fibermc.essentialcommands.commands.suggestions.WarpSuggestion;
 import com.fibermc.essentialcommands.commands.utility.*;
+import com.fibermc.essentialcommands.playerdata.PlayerCatalog;
+import com.fibermc.essentialcommands.playerdata.PlayerData;
 import com.fibermc.essentialcommands.text.ECText;
-import com.fibermc.essentialcommands.types.NamedMinecraftLocation;
 import com.fibermc.essentialcommands.util.EssentialsConvertor;
-import com.fibermc.essentialcommands.util.EssentialsXParser;
+import com.fibermc.essentialcommands.util.EssentialsXHomeImport;
 import org.apache.logging.log4j.Level;
 import org.spongepowered.asm.util.IConsumer;
 
@@ -149,6 +149,7 @@ public final class EssentialCommandRegistry {
             homeTpOfflineBuilder
                 .requires(ECPerms.require(ECPerms.Registry.home_tp_others, 2))
                 .then(argument("target_player", StringArgumentType.word())
+                    .suggests(ListSuggestion.of(PlayerCatalog.getInstance()::getNames))
                     .then(argument("home_name", StringArgumentType.word())
                         .executes(new HomeTeleportOtherCommand()::runOfflinePlayer)));
 
@@ -158,17 +159,20 @@ public final class EssentialCommandRegistry {
                     .suggests(HomeCommand.Suggestion.LIST_SUGGESTION_PROVIDER)
                     .executes(new HomeDeleteCommand()));
 
-            homeListBuilder
-                .requires(ECPerms.require(ECPerms.Registry.home_tp, 0))
-                .executes(ListCommandFactory.create(
+            ListCommandFactory.withSortingAndPaging(
+                homeListBuilder.requires(ECPerms.require(ECPerms.Registry.home_tp, 0)),
+                ListCommandFactory.createPagedLocationList(
                     ECText.getInstance().getString("cmd.home.list.start"),
                     "home tp",
-                    HomeCommand.Suggestion::getSuggestionEntries));
+                    "home list",
+                    context -> PlayerData.accessFromContextOrThrow(context).getHomeListing()));
 
             homeListOfflineBuilder
                 .requires(ECPerms.require(ECPerms.Registry.home_tp_others, 2))
-                .then(argument("target_player", StringArgumentType.word())
-                    .executes(HomeTeleportOtherCommand::runListOffline));
+                .then(ListCommandFactory.withSortingAndPaging(
+                    argument("target_player", StringArgumentType.word())
+                        .suggests(ListSuggestion.of(PlayerCatalog.getInstance()::getNames)),
+                    HomeTeleportOtherCommand::runListOffline));
 
             homeOverwriteBuilder
                 .requires(ECPerms.require(ECPerms.Registry.home_set, 0))
@@ -196,7 +200,11 @@ public final class EssentialCommandRegistry {
             LiteralArgumentBuilder<ServerCommandSource> backBuilder = CommandManager.literal("back");
             backBuilder
                 .requires(ECPerms.require(ECPerms.Registry.back, 0))
-                .executes(new BackCommand());
+                .executes(new BackCommand())
+                .then(CommandManager.literal("list")
+                    .executes(BackCommand::list))
+                .then(argument("index", IntegerArgumentType.integer(1))
+                    .executes(BackCommand::runWithIndex));
 
             LiteralCommandNode<ServerCommandSource> backNode = backBuilder.build();
 
@@ -239,14 +247,13 @@ public final class EssentialCommandRegistry {
                     .suggests(WarpSuggestion.STRING_SUGGESTIONS_PROVIDER)
                     .executes(new WarpDeleteCommand()));
 
-            warpListBuilder
-                .requires(ECPerms.require(ECPerms.Registry.warp_tp, 0))
-                .executes(ListCommandFactory.create(
+            ListCommandFactory.withSortingAndPaging(
+                warpListBuilder.requires(ECPerms.require(ECPerms.Registry.warp_tp, 0)),
+                ListCommandFactory.createPagedLocationList(
                     ECText.getInstance().getString("cmd.warp.list.start"),
                     "warp tp",
-                    (context) -> ManagerLocator.getInstance().getWorldDataManager().getAccessibleWarps(context.getSource().getPlayerOrThrow()).toList(),
-                    NamedMinecraftLocation::getName
-                ));
+                    "warp list",
+                    (context) -> ManagerLocator.getInstance().getWorldDataManager().getWarpListing(context.getSource().getPlayerOrThrow())));
 
             LiteralCommandNode<ServerCommandSource> warpNode = warpBuilder
                 .requires(ECPerms.requireAny(ECPerms.Registry.Group.warp_group, 0))
@@ -462,6 +469,7 @@ public final class EssentialCommandRegistry {
         registerNode.accept(CommandManager.literal("lastPos")
             .requires(ECPerms.require("essentialcommands.admin.lastpos", 2))
                 .then(argument("target_player", StringArgumentType.word())
+                .suggests(ListSuggestion.of(PlayerCatalog.getInstance()::getNames))
                 .executes((context) -> {
                     var targetPlayerName = StringArgumentType.getString(context, "target_player");
                     ManagerLocator.getInstance()
@@ -560,9 +568,15 @@ public final class EssentialCommandRegistry {
                 .executes(new NearCommand())
                 .then(argument("range", IntegerArgumentType.integer())
                     .executes(NearCommand::withRange)
+                    .then(CommandManager.literal("page")
+                        .then(argument("page", IntegerArgumentType.integer(1))
+                            .executes(NearCommand::withRange)))
                     .then(CommandUtil.targetPlayerArgument()
                         .requires(ECPerms.require(ECPerms.Registry.near_others, 2))
-                        .executes(NearCommand::withRange)))
+                        .executes(NearCommand::withRange)
+                        .then(CommandManager.literal("page")
+                            .then(argument("page", IntegerArgumentType.integer(1))
+                                .executes(NearCommand::withRange)))))
                         .build());
         }
 
@@ -576,11 +590,21 @@ public final class EssentialCommandRegistry {
         var profileNode = ProfileCommand.buildNode();
         essentialCommandsRootNode.addChild(profileNode);
 
+        if (CONFIG.ENABLE_RTP) {
+            essentialCommandsRootNode.addChild(RtpAdminCommand.buildNode());
+        }
+
+        essentialCommandsRootNode.addChild(BulkTeleportCommand.buildNode());
+        essentialCommandsRootNode.addChild(SchedulerCommand.buildNode());
+        essentialCommandsRootNode.addChild(HomeIndexCommand.buildNode());
+        essentialCommandsRootNode.addChild(PlayerCatalogCommand.buildNode());
+        essentialCommandsRootNode.addChild(PlayerDataJobsCommand.buildNode());
+
         LiteralCommandNode<ServerCommandSource> configNode = CommandManager.literal("config")
             .requires(ECPerms.requireAny(ECPerms.Registry.Group.config_group, 4))
             .then(CommandManager.literal("reload")
                 .executes((context) -> {
-                    BACKING_CONFIG.loadOrCreateProperties();
+                    BACKING_CONFIG.reloadChanges();
                     var player = context.getSource().getPlayer();
                     var ecText = player != null ? ECText.access(player) : ECText.getInstance();
                     context.getSource().sendFeedback(() ->
@@ -594,7 +618,6 @@ public final class EssentialCommandRegistry {
             .then(CommandManager.literal("display")
                 .requires(ECPerms.require(ECPerms.Registry.config_reload, 4))
                 .executes((context) -> {
-                    BACKING_CONFIG.loadOrCreateProperties();
                     context.getSource().sendFeedback(
                         BACKING_CONFIG::stateAsText,
                         false
@@ -633,17 +656,35 @@ public final class EssentialCommandRegistry {
                 .executes((source) -> {
                     Path mcDir = source.getSource().getServer().getRunDirectory();
                     try {
-                        EssentialsXParser.convertPlayerDataDir(
-                            mcDir.resolve("plugins/Essentials/userdata").toFile(),
-                            mcDir.resolve("world/modplayerdata").toFile(),
-                            source.getSource().getServer()
-                        );
-                        source.getSource().sendFeedback(() -> Text.literal("Successfully converted data dirs."), CONFIG.BROADCAST_TO_OPS);
-                    } catch (NotDirectoryException | FileNotFoundException e) {
+                        if (!EssentialsXHomeImport.start(source.getSource(), mcDir.resolve("plugins/Essentials/userdata"))) {
+                            source.getSource().sendError(Text.literal("An EssentialsX import is already running."));
+                            return 0;
+                        }
+                        source.getSource().sendFeedback(() -> Text.literal("Started converting EssentialsX homes in the background."), CONFIG.BROADCAST_TO_OPS);
+                    } catch (IOException e) {
                         e.printStackTrace();
+                        source.getSource().sendError(Text.literal(e.getMessage()));
                     }
                     return 0;
-                }).build()
+                })
+                .then(CommandManager.literal("status")
+                    .executes((source) -> {
+                        var progressText = EssentialsXHomeImport.getProgressText();
+                        source.getSource().sendFeedback(
+                            () -> progressText != null ? progressText : Text.literal("No EssentialsX import is running."),
+                            false);
+                        return 0;
+                    }))
+                .then(CommandManager.literal("cancel")
+                    .executes((source) -> {
+                        if (!EssentialsXHomeImport.cancel()) {
+                            source.getSource().sendError(Text.literal("No EssentialsX import is running."));
+                            return 0;
+                        }
+                        source.getSource().sendFeedback(() -> Text.literal("Stopping the EssentialsX import. Running it again resumes it."), CONFIG.BROADCAST_TO_OPS);
+                        return 0;
+                    }))
+                .build()
             );
             essentialCommandsRootNode.addChild(CommandManager.literal("convertEssentialsXWarps")
                 .requires(source -> source.hasPermissionLevel(4))
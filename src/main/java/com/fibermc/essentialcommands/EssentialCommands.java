@@ -2,10 +2,12 @@ package com.fibermc.essentialcommands;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Set;
 
 import com.fibermc.essentialcommands.commands.RulesCommand;
 import com.fibermc.essentialcommands.config.EssentialCommandsConfig;
 import com.fibermc.essentialcommands.config.EssentialCommandsConfigSnapshot;
+import com.fibermc.essentialcommands.scheduler.MainThreadInbox;
 import com.fibermc.essentialcommands.text.ECText;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
@@ -18,6 +20,7 @@ import net.fabricmc.loader.api.FabricLoader;
 import net.fabricmc.loader.api.ModContainer;
 import net.fabricmc.loader.api.metadata.ModMetadata;
 
+import dev.jpcode.eccore.config.Option;
 import dev.jpcode.eccore.util.TimeUtil;
 
 public final class EssentialCommands implements ModInitializer {
@@ -44,6 +47,10 @@ public final class EssentialCommands implements ModInitializer {
         CONFIG = EssentialCommandsConfigSnapshot.create(BACKING_CONFIG);
     }
 
+    public static void refreshConfigSnapshot(Set<Option<?>> changedOptions) {
+        CONFIG = CONFIG.patch(BACKING_CONFIG, changedOptions);
+    }
+
     @Override
     public void onInitialize() {
         if (MOD_METADATA == null) {
@@ -53,7 +60,10 @@ public final class EssentialCommands implements ModInitializer {
         log(Level.INFO, "Mod Load Initiated.");
 
         BACKING_CONFIG.registerLoadHandler((backingConfig) -> CONFIG = EssentialCommandsConfigSnapshot.create(backingConfig));
+        BACKING_CONFIG.registerChangeHandler((backingConfig, changedOptions) -> refreshConfigSnapshot(changedOptions));
         BACKING_CONFIG.loadOrCreateProperties();
+        // Edits to the config file are applied on the server thread.
+        BACKING_CONFIG.watchForChanges(MainThreadInbox.getInstance());
 
         ECPlaceholderRegistry.register();
         ECAbilitySources.init();
@@ -4,8 +4,20 @@ import java.util.HashMap;
 import java.util.function.Consumer;
 
 import com.fibermc.essentialcommands.commands.suggestions.OfflinePlayerRepo;
+import com.fibermc.essentialcommands.playerdata.HomeIndex;
+import com.fibermc.essentialcommands.playerdata.PlayerCatalog;
+import com.fibermc.essentialcommands.playerdata.PlayerDataJobManager;
 import com.fibermc.essentialcommands.playerdata.PlayerDataManager;
+import com.fibermc.essentialcommands.playerdata.PlayerDataSaveScheduler;
+import com.fibermc.essentialcommands.scheduler.MainThreadInbox;
+import com.fibermc.essentialcommands.scheduler.TickScheduler;
+import com.fibermc.essentialcommands.storage.StorageManager;
+import com.fibermc.essentialcommands.teleportation.BulkTeleportManager;
+import com.fibermc.essentialcommands.teleportation.RtpLocationPool;
+import com.fibermc.essentialcommands.teleportation.RtpSearchScheduler;
+import com.fibermc.essentialcommands.teleportation.SafeDestinationResolver;
 import com.fibermc.essentialcommands.teleportation.TeleportManager;
+import com.fibermc.essentialcommands.util.EssentialsXHomeImport;
 
 import net.minecraft.server.MinecraftServer;
 
@@ -32,18 +44,39 @@ public final class ManagerLocator {
     }
 
     public void init() {
+        TickScheduler.init();
+        MainThreadInbox.init();
+        StorageManager.init();
+        // Before the managers that save on SERVER_STOPPING, so that they save what a cancelled import or job wrote.
+        EssentialsXHomeImport.init();
+        PlayerDataJobManager.init();
         PlayerDataManager.init();
+        PlayerDataSaveScheduler.init();
+        HomeIndex.init();
+        PlayerCatalog.init();
         TeleportManager.init();
+        RtpLocationPool.init();
+        RtpSearchScheduler.init();
+        SafeDestinationResolver.init();
+        BulkTeleportManager.init();
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> {
+            // Most world data changes are saved right away, but warp use counts are only marked dirty.
+            if (worldDataManager != null && worldDataManager.isDirty()) {
+                worldDataManager.save(server.getRegistryManager());
+            }
+        });
     }
 
     private boolean serverStarted = false;
 
     public void onServerStart(MinecraftServer server) {
         this.server = server;
+        StorageManager.getInstance().open(server);
         this.playerDataManager = PlayerDataManager.getInstance();
         this.tpManager = TeleportManager.getInstance();
         this.worldDataManager = WorldDataManager.createForServer(server);
         this.offlinePlayerRepo = new OfflinePlayerRepo(server);
+        RtpLocationPool.getInstance().onServerStart(server);
         ServerLifecycleEvents.SERVER_STARTED.register(server1 -> {
             serverStartActions.values().forEach(a -> a.accept(server));
             serverStarted = true;
@@ -1,32 +1,33 @@
 package com.fibermc.essentialcommands;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import com.fibermc.essentialcommands.commands.helpers.LocationListing;
+import com.fibermc.essentialcommands.storage.StorageBackend;
+import com.fibermc.essentialcommands.storage.StorageManager;
 import com.fibermc.essentialcommands.types.MinecraftLocation;
 import com.fibermc.essentialcommands.types.WarpLocation;
 import com.fibermc.essentialcommands.types.WarpStorage;
 import org.apache.logging.log4j.Level;
+import org.jetbrains.annotations.Nullable;
 
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtElement;
-import net.minecraft.nbt.NbtIo;
-import net.minecraft.nbt.NbtSizeTracker;
 import net.minecraft.registry.DynamicRegistryManager;
 import net.minecraft.registry.RegistryWrapper;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
-import net.minecraft.util.WorldSavePath;
 import net.minecraft.world.PersistentState;
 
 import net.fabricmc.fabric.api.event.Event;
@@ -35,8 +36,6 @@ import net.fabricmc.fabric.api.event.EventFactory;
 public class WorldDataManager extends PersistentState {
     private final WarpStorage warps;
     private MinecraftLocation spawnLocation;
-    private Path saveDir;
-    private File worldDataFile;
 
     private static final String SPAWN_KEY = "spawn";
     private static final String WARPS_KEY = "warps";
@@ -54,34 +53,20 @@ public class WorldDataManager extends PersistentState {
     }
 
     public void onServerStart(MinecraftServer server) {
-        this.saveDir = server.getSavePath(WorldSavePath.ROOT).resolve("essentialcommands");
         try {
-            Files.createDirectories(saveDir);
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-
-        this.worldDataFile = saveDir.resolve("world_data.dat").toFile();
-
-        try {
-            boolean fileExisted = !worldDataFile.createNewFile();
-            if (fileExisted && worldDataFile.length() > 0) {
-                // if files was not JUST created, read data from it.
-                this.fromNbt(NbtIo.readCompressed(worldDataFile.toPath(), NbtSizeTracker.ofUnlimitedBytes()).getCompound("data"));
+            var tag = StorageManager.getInstance().getBackend().loadWorldData();
+            if (tag != null) {
+                this.fromNbt(tag.getCompound("data"));
             } else {
                 this.markDirty();
                 this.save(server.getRegistryManager());
             }
         } catch (IOException e) {
-            EssentialCommands.log(Level.ERROR, String.format("An unexpected error occoured while loading the Essential Commands World Data file (Path: '%s')", worldDataFile.getPath()));
+            EssentialCommands.log(Level.ERROR, "An unexpected error occoured while loading the Essential Commands World Data");
             e.printStackTrace();
         }
     }
 
-    private File getDataFile() {
-        return worldDataFile;
-    }
-
     public void fromNbt(NbtCompound tag) {
         MinecraftLocation tempSpawnLocation = MinecraftLocation.fromNbt(tag.getCompound(SPAWN_KEY));
         if (tempSpawnLocation.dim().getValue().getPath().isEmpty()) {
@@ -103,9 +88,9 @@ public class WorldDataManager extends PersistentState {
         });
 
     public void save(RegistryWrapper.WrapperLookup wrapperLookup) {
-        EssentialCommands.log(Level.INFO, "Saving world_data.dat (Spawn/Warps)...");
-        super.save(this.worldDataFile, wrapperLookup);
-        EssentialCommands.log(Level.INFO, "world_data.dat saved.");
+        EssentialCommands.log(Level.INFO, "Saving world data (Spawn/Warps)...");
+        StorageManager.getInstance().save(this, wrapperLookup, StorageBackend::saveWorldData);
+        EssentialCommands.log(Level.INFO, "World data saved.");
     }
 
     @Override
@@ -127,20 +112,129 @@ public class WorldDataManager extends PersistentState {
 
     // Command Actions
     public void setWarp(String warpName, MinecraftLocation location, boolean requiresPermission) throws CommandSyntaxException {
-        warps.putCommand(warpName, new WarpLocation(
-            location,
-            requiresPermission ? warpName : null,
-            warpName
-        ));
-        this.markDirty();
-        this.save(DynamicRegistryManager.EMPTY);
+        warps.putCommand(warpName, toWarpLocation(warpName, location, requiresPermission));
+        onWarpsChanged();
     }
 
     public boolean delWarp(String warpName) {
         MinecraftLocation prevValue = warps.remove(warpName);
+        onWarpsChanged();
+        return prevValue != null;
+    }
+
+    /**
+     * @return a batch of warp changes, applied together by {@link WarpBatch#commit()}. Use this rather than repeated
+     * {@link #setWarp} / {@link #delWarp} calls for bulk changes (imports, conversions), since each of those saves the
+     * world data file.
+     */
+    public WarpBatch batchWarps() {
+        return new WarpBatch();
+    }
+
+    private void onWarpsChanged() {
         this.markDirty();
         this.save(DynamicRegistryManager.EMPTY);
-        return prevValue != null;
+        warpsLoadEvent.invoker().accept(warps);
+    }
+
+    /**
+     * @param conflicts descriptions of the changes that could not be applied, in which case none were.
+     */
+    public record WarpBatchResult(int addedCount, int updatedCount, int deletedCount, List<String> conflicts) {
+        public boolean isSuccess() {
+            return conflicts.isEmpty();
+        }
+    }
+
+    /**
+     * Warp inserts, updates and deletes, applied in order. Either all of them are applied, or, if any conflicts with the
+     * existing warps (or an earlier change in the batch), none are.
+     */
+    public final class WarpBatch {
+        private enum Kind { ADD, PUT, DELETE }
+
+        private record Change(Kind kind, String name, @Nullable WarpLocation location) {}
+
+        private final List<Change> changes = new ArrayList<>();
+
+        private WarpBatch() {}
+
+        /**
+         * Adds a new warp. Conflicts if a warp with that name exists.
+         */
+        public WarpBatch add(String warpName, MinecraftLocation location, boolean requiresPermission) {
+            changes.add(new Change(Kind.ADD, warpName, toWarpLocation(warpName, location, requiresPermission)));
+            return this;
+        }
+
+        /**
+         * Adds a warp, or replaces the warp with that name.
+         */
+        public WarpBatch put(String warpName, MinecraftLocation location, boolean requiresPermission) {
+            changes.add(new Change(Kind.PUT, warpName, toWarpLocation(warpName, location, requiresPermission)));
+            return this;
+        }
+
+        /**
+         * Deletes a warp. Conflicts if there is no warp with that name.
+         */
+        public WarpBatch delete(String warpName) {
+            changes.add(new Change(Kind.DELETE, warpName, null));
+            return this;
+        }
+
+        public int size() {
+            return changes.size();
+        }
+
+        /**
+         * Checks every change against the current warps, then applies them all and saves once.
+         */
+        public WarpBatchResult commit() {
+            List<String> conflicts = new ArrayList<>();
+            Set<String> warpNames = new HashSet<>(warps.keySet());
+            for (Change change : changes) {
+                switch (change.kind()) {
+                    case ADD -> {
+                        if (!warpNames.add(change.name())) {
+                            conflicts.add("Warp '%s' already exists".formatted(change.name()));
+                        }
+                    }
+                    case PUT -> warpNames.add(change.name());
+                    case DELETE -> {
+                        if (!warpNames.remove(change.name())) {
+                            conflicts.add("Warp '%s' does not exist".formatted(change.name()));
+                        }
+                    }
+                }
+            }
+            if (!conflicts.isEmpty()) {
+                return new WarpBatchResult(0, 0, 0, conflicts);
+            }
+
+            int addedCount = 0;
+            int updatedCount = 0;
+            int deletedCount = 0;
+            for (Change change : changes) {
+                if (change.kind() == Kind.DELETE) {
+                    warps.remove(change.name());
+                    deletedCount++;
+                } else if (warps.put(change.name(), change.location()) == null) {
+                    addedCount++;
+                } else {
+                    updatedCount++;
+                }
+            }
+            if (!changes.isEmpty()) {
+                onWarpsChanged();
+            }
+            changes.clear();
+            return new WarpBatchResult(addedCount, updatedCount, deletedCount, List.of());
+        }
+    }
+
+    private static WarpLocation toWarpLocation(String warpName, MinecraftLocation location, boolean requiresPermission) {
+        return new WarpLocation(location, requiresPermission ? warpName : null, warpName);
     }
 
     public WarpLocation getWarp(String warpName) {
@@ -158,6 +252,30 @@ public class WorldDataManager extends PersistentState {
             : warpsStream);
     }
 
+    /**
+     * @return the warps {@code player} may use. When permissions apply, the listing is keyed by the restricted warps
+     * the player can see, so that players with the same access share rendered pages.
+     */
+    public LocationListing<WarpLocation> getWarpListing(ServerPlayerEntity player) {
+        var accessibleWarps = getAccessibleWarps(player).toList();
+        Set<String> filterKey = EssentialCommands.CONFIG.USE_PERMISSIONS_API
+            ? accessibleWarps.stream()
+                .filter(warp -> warp.getPermissionString() != null)
+                .map(WarpLocation::getName)
+                .collect(Collectors.toSet())
+            : null;
+        return new LocationListing<>(accessibleWarps, warps.getVersion(), warps.getUseCountVersion(), warps.getPageCache(), filterKey);
+    }
+
+    /**
+     * Counts a teleport to the specified warp, for sorting warp listings by use. Saved with the next change to the
+     * world data, or when the server stops.
+     */
+    public void recordWarpUse(String warpName) {
+        warps.recordUse(warpName);
+        this.markDirty();
+    }
+
     public Set<Entry<String, WarpLocation>> getWarpEntries() {
         return this.warps.entrySet();
     }
@@ -1,5 +1,8 @@
 package com.fibermc.essentialcommands.commands;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.fibermc.essentialcommands.access.ServerPlayerEntityAccess;
 import com.fibermc.essentialcommands.playerdata.PlayerData;
 import com.fibermc.essentialcommands.teleportation.PlayerTeleporter;
@@ -7,11 +10,17 @@ import com.fibermc.essentialcommands.text.ECText;
 import com.fibermc.essentialcommands.types.MinecraftLocation;
 
 import com.mojang.brigadier.Command;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.text.ClickEvent;
+import net.minecraft.text.MutableText;
+import net.minecraft.text.Text;
+
+import dev.jpcode.eccore.util.TextUtil;
 
 public class BackCommand implements Command<ServerCommandSource> {
 
@@ -19,23 +28,68 @@ public class BackCommand implements Command<ServerCommandSource> {
 
     @Override
     public int run(CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
+        return exec(context, 1);
+    }
+
+    public static int runWithIndex(CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
+        return exec(context, IntegerArgumentType.getInteger(context, "index"));
+    }
+
+    private static int exec(CommandContext<ServerCommandSource> context, int index) throws CommandSyntaxException {
         //Store command sender
         ServerPlayerEntity player = context.getSource().getPlayerOrThrow();
         PlayerData playerData = ((ServerPlayerEntityAccess) player).ec$getPlayerData();
 
         //Get previous location
-        MinecraftLocation loc = playerData.getPreviousLocation();
+        var backLocations = playerData.getBackLocations();
+        MinecraftLocation loc = backLocations.get(index);
 
         //chat message
         if (loc == null) {
-            playerData.sendCommandError("cmd.back.error.no_prev_location");
+            if (backLocations.isEmpty()) {
+                playerData.sendCommandError("cmd.back.error.no_prev_location");
+            } else {
+                playerData.sendCommandError(
+                    "cmd.back.error.index_out_of_range",
+                    ECText.access(player).accent(String.valueOf(backLocations.size())));
+            }
             return 0;
         }
 
         //Teleport player to home location
         var prevLocationName = ECText.access(player).getText("cmd.back.location_name");
-        PlayerTeleporter.requestTeleport(playerData, loc, prevLocationName);
+        PlayerTeleporter.requestSafeTeleport(playerData, loc, prevLocationName);
 
         return SINGLE_SUCCESS;
     }
+
+    public static int list(CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
+        ServerPlayerEntity player = context.getSource().getPlayerOrThrow();
+        var playerAccess = (ServerPlayerEntityAccess) player;
+        PlayerData playerData = playerAccess.ec$getPlayerData();
+        var ecText = ECText.access(player);
+
+        var locations = playerData.getBackLocations().toList();
+        if (locations.isEmpty()) {
+            playerData.sendCommandError("cmd.back.error.no_prev_location");
+            return 0;
+        }
+
+        List<Text> lines = new ArrayList<>(locations.size() + 1);
+        lines.add(ecText.getText("cmd.back.list.header"));
+        for (int i = 0; i < locations.size(); i++) {
+            var location = locations.get(i);
+            MutableText entry = ecText.getText(
+                "cmd.back.list.entry",
+                ecText.accent(String.valueOf(i + 1)),
+                location.toText(playerAccess.ec$getProfile()),
+                ecText.accent(location.dim().getValue().toString()));
+            entry.setStyle(entry.getStyle().withClickEvent(
+                new ClickEvent(ClickEvent.Action.RUN_COMMAND, "/back " + (i + 1))));
+            lines.add(entry);
+        }
+
+        playerData.sendCommandFeedback(TextUtil.join(lines, Text.literal("\n")));
+        return locations.size();
+    }
 }
@@ -5,6 +5,7 @@ import java.util.Optional;
 
 import com.fibermc.essentialcommands.playerdata.PlayerData;
 import com.fibermc.essentialcommands.teleportation.PlayerTeleporter;
+import com.fibermc.essentialcommands.teleportation.SafeDestinationResolver;
 import com.fibermc.essentialcommands.text.ECText;
 import com.fibermc.essentialcommands.text.TextFormatType;
 import com.fibermc.essentialcommands.types.MinecraftLocation;
@@ -20,6 +21,7 @@ import net.minecraft.block.RespawnAnchorBlock;
 import net.minecraft.entity.EntityType;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.Vec3d;
 
@@ -29,20 +31,48 @@ public class BedCommand implements Command<ServerCommandSource> {
         var source = context.getSource();
         var player = source.getPlayerOrThrow();
 
-        var safeSpawnPos = getSafeSpawnPos(player);
-        if (safeSpawnPos.isEmpty()) {
+        var spawnPos = player.getSpawnPointPosition();
+        if (spawnPos == null) {
             PlayerData.access(player).sendError("cmd.bed.error.none_set");
             return 0;
         }
 
-        PlayerTeleporter.requestTeleport(
-            player,
-            safeSpawnPos.get(),
-            ECText.access(player).getText("cmd.bed.bed_destination_name", TextFormatType.Accent));
+        var world = getSpawnWorld(player);
+        // Finding the wake-up position reads blocks around the bed, so load its chunk first instead of blocking the
+        // server thread on it.
+        SafeDestinationResolver.loadChunkAsync(world, spawnPos).thenAccept(chunk -> {
+            if (player.isDisconnected()) {
+                return;
+            }
+
+            var safeSpawnPos = getSafeSpawnPos(player, world);
+            if (safeSpawnPos.isEmpty()) {
+                PlayerData.access(player).sendError("cmd.bed.error.none_set");
+                return;
+            }
+
+            PlayerTeleporter.requestSafeTeleport(
+                player,
+                safeSpawnPos.get(),
+                ECText.access(player).getText("cmd.bed.bed_destination_name", TextFormatType.Accent));
+        });
 
         return 0;
     }
 
+    private static ServerWorld getSpawnWorld(ServerPlayerEntity player) {
+        var spawnDim = player.getSpawnPointDimension();
+        var world = Objects.requireNonNull(player.getServer()).getWorld(spawnDim);
+
+        if (world == null) {
+            throw new IllegalStateException(String.format(
+                "could not resolve the ServerWorld corresponding to the player's spawn dimension. dimension: '%s'",
+                spawnDim.getValue())
+            );
+        }
+        return world;
+    }
+
     /**
      * This function finds a "safe" spawn position for a player based on their spawnpoint. This
      * calculation differs based on how the spawnpoint was set (respawn anchor, bed, etc.)
@@ -50,24 +80,15 @@ public class BedCommand implements Command<ServerCommandSource> {
      * if a "safe" spawnpoint cannot be found, we'll return a point just above the respawn target
      * block)
      */
-    private static Optional<MinecraftLocation> getSafeSpawnPos(ServerPlayerEntity player) {
+    private static Optional<MinecraftLocation> getSafeSpawnPos(ServerPlayerEntity player, ServerWorld world) {
         var spawnPos = player.getSpawnPointPosition();
         if (spawnPos == null) {
             return Optional.empty();
         }
 
-        var spawnDim = player.getSpawnPointDimension();
+        var spawnDim = world.getRegistryKey();
         var spawnAngle = player.getSpawnAngle();
 
-        var world = Objects.requireNonNull(player.getServer()).getWorld(spawnDim);
-
-        if (world == null) {
-            throw new IllegalStateException(String.format(
-                "could not resolve the ServerWorld corresponding to the player's spawn dimension. dimension: '%s'",
-                spawnDim.getValue())
-            );
-        }
-
         // Safe Position Calculation, based on the game respawn position calculation logic,
         // which was basically rewritten because the game code caused the state of the RespawnAnchorBlock to be refreshed.
         Vec3d safeSpawnPos;
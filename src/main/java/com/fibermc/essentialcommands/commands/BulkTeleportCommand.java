@@ -0,0 +1,108 @@
+package com.fibermc.essentialcommands.commands;
+
+import com.fibermc.essentialcommands.ECPerms;
+import com.fibermc.essentialcommands.ManagerLocator;
+import com.fibermc.essentialcommands.commands.suggestions.WarpSuggestion;
+import com.fibermc.essentialcommands.teleportation.BulkTeleportManager;
+import com.fibermc.essentialcommands.text.ECText;
+import com.fibermc.essentialcommands.text.TextFormatType;
+import com.fibermc.essentialcommands.types.MinecraftLocation;
+
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.tree.LiteralCommandNode;
+
+import net.minecraft.command.argument.EntityArgumentType;
+import net.minecraft.command.argument.Vec3ArgumentType;
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.MutableText;
+
+public final class BulkTeleportCommand {
+    private BulkTeleportCommand() {}
+
+    public static LiteralCommandNode<ServerCommandSource> buildNode() {
+        return CommandManager.literal("bulktp")
+            .requires(ECPerms.require(ECPerms.Registry.bulk_teleport, 4))
+            .then(CommandManager.literal("cancel")
+                .executes(BulkTeleportCommand::cancel))
+            .then(CommandManager.argument("targets", EntityArgumentType.players())
+                .then(CommandManager.literal("warp")
+                    .then(CommandManager.argument("warp_name", StringArgumentType.word())
+                        .suggests(WarpSuggestion.STRING_SUGGESTIONS_PROVIDER)
+                        .executes(BulkTeleportCommand::toWarp)))
+                .then(CommandManager.literal("spawn")
+                    .executes(BulkTeleportCommand::toSpawn))
+                .then(CommandManager.literal("player")
+                    .then(CommandManager.argument("destination_player", EntityArgumentType.player())
+                        .executes(BulkTeleportCommand::toPlayer)))
+                .then(CommandManager.literal("pos")
+                    .then(CommandManager.argument("pos", Vec3ArgumentType.vec3())
+                        .executes(BulkTeleportCommand::toPos))))
+            .build();
+    }
+
+    private static int toWarp(CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
+        var ecText = ECText.access(context.getSource().getPlayer());
+        String warpName = StringArgumentType.getString(context, "warp_name");
+        var warpNameText = ecText.accent(warpName);
+        var loc = ManagerLocator.getInstance().getWorldDataManager().getWarp(warpName);
+        if (loc == null) {
+            throw CommandUtil.createSimpleException(ecText.getText(
+                "cmd.warp.tp.error.not_found",
+                TextFormatType.Error,
+                warpNameText));
+        }
+
+        return start(context, loc, ecText.getText("cmd.warp.location_name", warpNameText), true);
+    }
+
+    private static int toSpawn(CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
+        var ecText = ECText.access(context.getSource().getPlayer());
+        var loc = ManagerLocator.getInstance().getWorldDataManager().getSpawn();
+        if (loc.isEmpty()) {
+            throw CommandUtil.createSimpleException(ecText.getText(
+                "cmd.spawn.tp.error.no_spawn_set",
+                TextFormatType.Error));
+        }
+
+        return start(context, loc.get(), ecText.getText("cmd.spawn.location_name"), false);
+    }
+
+    private static int toPlayer(CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
+        var destinationPlayer = EntityArgumentType.getPlayer(context, "destination_player");
+        return start(context, new MinecraftLocation(destinationPlayer), destinationPlayer.getDisplayName().copy(), false);
+    }
+
+    private static int toPos(CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
+        var ecText = ECText.access(context.getSource().getPlayer());
+        var pos = Vec3ArgumentType.getVec3(context, "pos");
+        var dest = new MinecraftLocation(context.getSource().getWorld().getRegistryKey(), pos.x, pos.y, pos.z);
+        return start(context, dest, ecText.accent(String.format("(%.1f, %.1f, %.1f)", pos.x, pos.y, pos.z)), false);
+    }
+
+    /**
+     * @param validateDestination whether {@code dest} is a saved destination, checked for safety like the single
+     *                            teleport command to it does.
+     */
+    private static int start(
+        CommandContext<ServerCommandSource> context,
+        MinecraftLocation dest,
+        MutableText destName,
+        boolean validateDestination) throws CommandSyntaxException
+    {
+        var players = EntityArgumentType.getPlayers(context, "targets");
+        return BulkTeleportManager.getInstance().start(context.getSource(), players, dest, destName, validateDestination);
+    }
+
+    private static int cancel(CommandContext<ServerCommandSource> context) {
+        var ecText = ECText.access(context.getSource().getPlayer());
+        int cancelledCount = BulkTeleportManager.getInstance().cancelAll();
+        context.getSource().sendFeedback(() -> ecText.getText(
+            "cmd.bulktp.cancelled",
+            ecText.accent(String.valueOf(cancelledCount))
+        ), false);
+        return cancelledCount;
+    }
+}
@@ -1,12 +1,11 @@
 package com.fibermc.essentialcommands.commands;
 
-import java.io.File;
 import java.io.IOException;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.UUID;
 
-import com.fibermc.essentialcommands.playerdata.PlayerDataFactory;
+import com.fibermc.essentialcommands.playerdata.HomeIndex;
+import com.fibermc.essentialcommands.storage.StorageManager;
 
 import com.mojang.brigadier.Command;
 import com.mojang.brigadier.context.CommandContext;
@@ -57,13 +56,11 @@ public class ClearPlayerDataCommand implements Command<ServerCommandSource> {
         server.getPlayerManager().disconnectAllPlayers();
 
         try {
-            var playerDataDirPath = PlayerDataFactory.getPlayerDataDirectoryPath(server);
-            var files = playerDataDirPath.toFile().listFiles();
-
-            assert files != null;
-
-            Arrays.stream(files)
-                .forEach(File::delete);
+            var backend = StorageManager.getInstance().getBackend();
+            for (UUID playerUuid : backend.getPlayerDataModifiedTimes().keySet()) {
+                backend.deletePlayerData(playerUuid);
+            }
+            HomeIndex.getInstance().clear();
 
         } catch (IOException e) {
             throw new RuntimeException(e);
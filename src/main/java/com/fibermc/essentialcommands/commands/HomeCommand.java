@@ -88,7 +88,7 @@ public class HomeCommand implements Command<ServerCommandSource> {
             TextFormatType.Default,
             ecText.accent(homeName));
 
-        PlayerTeleporter.requestTeleport(senderPlayerData, loc, homeNameText);
+        PlayerTeleporter.requestSafeTeleport(senderPlayerData, loc, homeNameText, () -> targetPlayerData.recordHomeUse(homeName));
         return SINGLE_SUCCESS;
     }
 
@@ -0,0 +1,145 @@
+package com.fibermc.essentialcommands.commands;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import com.fibermc.essentialcommands.ECPerms;
+import com.fibermc.essentialcommands.commands.helpers.PagedList;
+import com.fibermc.essentialcommands.playerdata.HomeIndex;
+import com.fibermc.essentialcommands.text.ECText;
+
+import com.mojang.authlib.GameProfile;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.builder.ArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.tree.LiteralCommandNode;
+
+import net.minecraft.command.argument.ColumnPosArgumentType;
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.ClickEvent;
+import net.minecraft.text.MutableText;
+import net.minecraft.text.Text;
+
+import dev.jpcode.eccore.util.TextUtil;
+
+import static com.fibermc.essentialcommands.EssentialCommands.CONFIG;
+
+/**
+ * Moderation queries against every player's homes, answered from {@link HomeIndex}.
+ */
+public final class HomeIndexCommand {
+    private HomeIndexCommand() {}
+
+    public static LiteralCommandNode<ServerCommandSource> buildNode() {
+        return CommandManager.literal("homes")
+            .requires(ECPerms.require(ECPerms.Registry.homes_query, 2))
+            .then(CommandManager.literal("near")
+                .then(withPage(
+                    CommandManager.argument("radius", IntegerArgumentType.integer(1)),
+                    HomeIndexCommand::near)))
+            .then(CommandManager.literal("in")
+                .then(CommandManager.argument("from", ColumnPosArgumentType.columnPos())
+                    .then(withPage(
+                        CommandManager.argument("to", ColumnPosArgumentType.columnPos()),
+                        HomeIndexCommand::in))))
+            .build();
+    }
+
+    @FunctionalInterface
+    private interface PagedQuery {
+        int run(CommandContext<ServerCommandSource> context, int page);
+    }
+
+    private static <B extends ArgumentBuilder<ServerCommandSource, B>> B withPage(B builder, PagedQuery query) {
+        return builder
+            .executes(context -> query.run(context, 1))
+            .then(CommandManager.literal("page")
+                .then(CommandManager.argument("page", IntegerArgumentType.integer(1))
+                    .executes(context -> query.run(context, IntegerArgumentType.getInteger(context, "page")))));
+    }
+
+    private static int near(CommandContext<ServerCommandSource> context, int page) {
+        var source = context.getSource();
+        var ecText = ECText.access(source.getPlayer());
+        int radius = IntegerArgumentType.getInteger(context, "radius");
+        var results = HomeIndex.getInstance().queryRadius(source.getWorld().getRegistryKey(), source.getPosition(), radius);
+
+        var pos = source.getPosition();
+        return sendResults(
+            source,
+            results,
+            page,
+            ecText.getText(
+                "cmd.homes.near.header",
+                ecText.accent(String.valueOf(results.size())),
+                ecText.accent(String.valueOf(radius)),
+                ecText.accent("(%d, %d)".formatted((int) pos.x, (int) pos.z))),
+            targetPage -> "/essentialcommands homes near %d page %d".formatted(radius, targetPage));
+    }
+
+    private static int in(CommandContext<ServerCommandSource> context, int page) {
+        var source = context.getSource();
+        var ecText = ECText.access(source.getPlayer());
+        var from = ColumnPosArgumentType.getColumnPos(context, "from");
+        var to = ColumnPosArgumentType.getColumnPos(context, "to");
+        var results = HomeIndex.getInstance().queryBox(source.getWorld().getRegistryKey(), from.x(), from.z(), to.x(), to.z());
+
+        return sendResults(
+            source,
+            results,
+            page,
+            ecText.getText(
+                "cmd.homes.in.header",
+                ecText.accent(String.valueOf(results.size())),
+                ecText.accent("(%d, %d)".formatted(from.x(), from.z())),
+                ecText.accent("(%d, %d)".formatted(to.x(), to.z()))),
+            targetPage -> "/essentialcommands homes in %d %d %d %d page %d".formatted(from.x(), from.z(), to.x(), to.z(), targetPage));
+    }
+
+    private static int sendResults(
+        ServerCommandSource source,
+        List<HomeIndex.Result> results,
+        int page,
+        Text header,
+        IntFunction<String> commandForPage)
+    {
+        var ecText = ECText.access(source.getPlayer());
+        List<Text> lines = new ArrayList<>();
+        lines.add(header);
+        if (HomeIndex.getInstance().isBuilding()) {
+            lines.add(ecText.getText("cmd.homes.error.building"));
+        }
+
+        var pagedResults = PagedList.of(results, page, Math.max(1, CONFIG.LIST_PAGE_SIZE));
+        var userCache = source.getServer().getUserCache();
+        for (HomeIndex.Result result : pagedResults.entries()) {
+            var home = result.home();
+            String ownerName = userCache == null
+                ? home.owner().toString()
+                : userCache.getByUuid(home.owner()).map(GameProfile::getName).orElse(home.owner().toString());
+
+            MutableText coordsText = ecText.accent("(%.0f, %.0f, %.0f)".formatted(home.pos().x, home.pos().y, home.pos().z));
+            // Suggests (doesn't run) a teleport there, for the moderator to confirm.
+            coordsText.setStyle(coordsText.getStyle().withClickEvent(new ClickEvent(
+                ClickEvent.Action.SUGGEST_COMMAND,
+                "/execute in %s run tp @s %.1f %.1f %.1f".formatted(
+                    home.dim().getValue(), home.pos().x, home.pos().y, home.pos().z))));
+
+            lines.add(ecText.getText(
+                "cmd.homes.entry",
+                ecText.accent(ownerName),
+                ecText.accent(home.name()),
+                coordsText,
+                ecText.accent(String.valueOf((int) result.distance()))));
+        }
+        if (pagedResults.hasMultiplePages()) {
+            lines.add(pagedResults.getNavigationText(ecText, commandForPage));
+        }
+
+        var message = TextUtil.join(lines, Text.literal("\n"));
+        source.sendFeedback(() -> message, false);
+        return results.size();
+    }
+}
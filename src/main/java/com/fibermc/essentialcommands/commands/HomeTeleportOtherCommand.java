@@ -3,11 +3,11 @@ package com.fibermc.essentialcommands.commands;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 
 import com.fibermc.essentialcommands.ManagerLocator;
 import com.fibermc.essentialcommands.access.ServerPlayerEntityAccess;
+import com.fibermc.essentialcommands.commands.helpers.ListSortOrder;
 import com.fibermc.essentialcommands.commands.suggestions.ListSuggestion;
 import com.fibermc.essentialcommands.playerdata.PlayerData;
 import com.fibermc.essentialcommands.playerdata.PlayerProfile;
@@ -80,7 +80,7 @@ public class HomeTeleportOtherCommand extends HomeCommand implements Command<Ser
 
     }
 
-    public static int runListOffline(CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
+    public static int runListOffline(CommandContext<ServerCommandSource> context, ListSortOrder sortOrder, int page) throws CommandSyntaxException {
         var targetPlayerName = StringArgumentType.getString(context, "target_player");
         var senderPlayerProfile = PlayerProfile.accessFromContextOrThrow(context);
         ManagerLocator.getInstance()
@@ -93,16 +93,19 @@ public class HomeTeleportOtherCommand extends HomeCommand implements Command<Ser
                 }
 
                 var targetPlayerData = ((ServerPlayerEntityAccess) targetPlayerEntity).ec$getPlayerData();
-                var suggestionText = ListCommandFactory.getSuggestionText(
+                var pageText = ListCommandFactory.getLocationPageText(
+                    context.getSource(),
+                    senderPlayerProfile,
+                    targetPlayerData.getHomeListing(),
+                    sortOrder,
+                    page,
                     ECText.getInstance().getString("cmd.home.list.start"),
                     "home tp_offline %s".formatted(targetPlayerName),
-                    targetPlayerData.getHomeEntries(),
-                    Entry::getKey,
-                    senderPlayerProfile
+                    "home list_offline %s".formatted(targetPlayerName)
                 );
 
                 context.getSource().sendFeedback(() ->
-                    suggestionText,
+                    pageText,
                     CONFIG.BROADCAST_TO_OPS
                 );
 
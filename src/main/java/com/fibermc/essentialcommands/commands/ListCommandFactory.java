@@ -1,23 +1,35 @@
 package com.fibermc.essentialcommands.commands;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import com.fibermc.essentialcommands.commands.helpers.ListSortOrder;
+import com.fibermc.essentialcommands.commands.helpers.LocationListing;
+import com.fibermc.essentialcommands.commands.helpers.PagedList;
+import com.fibermc.essentialcommands.commands.helpers.RenderedPageCache;
 import com.fibermc.essentialcommands.commands.suggestions.SuggestionListProvider;
 import com.fibermc.essentialcommands.playerdata.PlayerProfile;
 import com.fibermc.essentialcommands.text.ECText;
 import com.fibermc.essentialcommands.text.TextFormatType;
 import com.fibermc.essentialcommands.types.IStyleProvider;
+import com.fibermc.essentialcommands.types.NamedMinecraftLocation;
 
 import com.mojang.brigadier.Command;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.builder.ArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
 
+import net.minecraft.server.command.CommandManager;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.text.MutableText;
 import net.minecraft.text.Text;
+import net.minecraft.util.math.MathHelper;
 
 import dev.jpcode.eccore.util.TextUtil;
 
@@ -63,7 +75,7 @@ public final class ListCommandFactory {
         };
     }
 
-    public static <T> Text getSuggestionText(
+    public static <T> MutableText getSuggestionText(
         String responsePreText,
         String commandExecText,
         Collection<T> suggestionsList,
@@ -91,4 +103,108 @@ public final class ListCommandFactory {
         }
         return responseText;
     }
+
+    @FunctionalInterface
+    public interface PagedListCommand {
+        int run(CommandContext<ServerCommandSource> context, ListSortOrder sortOrder, int page) throws CommandSyntaxException;
+    }
+
+    @FunctionalInterface
+    public interface LocationListingProvider<T extends NamedMinecraftLocation> {
+        LocationListing<T> getListing(CommandContext<ServerCommandSource> context) throws CommandSyntaxException;
+    }
+
+    /**
+     * Makes {@code listBuilder} run {@code command}, adding the optional {@code page <page>} and
+     * {@code sort <name|distance|most_used> [page <page>]} arguments used by {@link #getLocationPageText}'s page links.
+     */
+    public static <B extends ArgumentBuilder<ServerCommandSource, B>> B withSortingAndPaging(B listBuilder, PagedListCommand command) {
+        var sortBuilder = CommandManager.literal("sort");
+        for (ListSortOrder sortOrder : ListSortOrder.values()) {
+            sortBuilder.then(withPaging(CommandManager.literal(sortOrder.getArgumentName()), sortOrder, command));
+        }
+        return withPaging(listBuilder, ListSortOrder.NAME, command)
+            .then(sortBuilder);
+    }
+
+    private static <B extends ArgumentBuilder<ServerCommandSource, B>> B withPaging(B builder, ListSortOrder sortOrder, PagedListCommand command) {
+        return builder
+            .executes(context -> command.run(context, sortOrder, 1))
+            .then(CommandManager.literal("page")
+                .then(CommandManager.argument("page", IntegerArgumentType.integer(1))
+                    .executes(context -> command.run(context, sortOrder, IntegerArgumentType.getInteger(context, "page")))));
+    }
+
+    /**
+     * @param listCommandText the list command, without leading slash, for page links
+     */
+    public static <T extends NamedMinecraftLocation> PagedListCommand createPagedLocationList(
+        String responsePreText,
+        String commandExecText,
+        String listCommandText,
+        LocationListingProvider<T> listingProvider)
+    {
+        return (context, sortOrder, page) -> {
+            var styleProvider = PlayerProfile.accessFromContextOrThrow(context);
+            var pageText = getLocationPageText(
+                context.getSource(),
+                styleProvider,
+                listingProvider.getListing(context),
+                sortOrder,
+                page,
+                responsePreText,
+                commandExecText,
+                listCommandText);
+
+            context.getSource().sendFeedback(() -> pageText, CONFIG.BROADCAST_TO_OPS);
+            return 0;
+        };
+    }
+
+    /**
+     * Renders one page of {@code listing}, followed by page links if there is more than one page. Pages that look the
+     * same for every viewer with the same styles are cached until the listing changes.
+     */
+    public static <T extends NamedMinecraftLocation> Text getLocationPageText(
+        ServerCommandSource source,
+        IStyleProvider styleProvider,
+        LocationListing<T> listing,
+        ListSortOrder sortOrder,
+        int requestedPage,
+        String responsePreText,
+        String commandExecText,
+        String listCommandText)
+    {
+        int pageSize = Math.max(1, CONFIG.LIST_PAGE_SIZE);
+        int pageCount = Math.max(1, (listing.entries().size() + pageSize - 1) / pageSize);
+        int page = MathHelper.clamp(requestedPage, 1, pageCount);
+
+        Supplier<Text> render = () -> {
+            List<T> sortedEntries = new ArrayList<>(listing.entries());
+            sortedEntries.sort(sortOrder.comparator(source));
+            var pagedEntries = PagedList.of(sortedEntries, page, pageSize);
+
+            var pageText = getSuggestionText(
+                responsePreText,
+                commandExecText,
+                pagedEntries.entries(),
+                NamedMinecraftLocation::getName,
+                styleProvider);
+            if (pagedEntries.hasMultiplePages()) {
+                pageText.append("\n").append(pagedEntries.getNavigationText(
+                    ECText.access(source.getPlayer()),
+                    targetPage -> "/%s sort %s page %d".formatted(listCommandText, sortOrder.getArgumentName(), targetPage)));
+            }
+            return pageText;
+        };
+
+        if (!sortOrder.isViewerIndependent()) {
+            return render.get();
+        }
+        return listing.pageCache().get(
+            listing.version(),
+            listing.useCountVersion(),
+            RenderedPageCache.Key.of(sortOrder, page, pageSize, commandExecText, styleProvider, listing.filterKey()),
+            render);
+    }
 }
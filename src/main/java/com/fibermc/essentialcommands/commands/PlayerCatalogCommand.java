@@ -0,0 +1,73 @@
+package com.fibermc.essentialcommands.commands;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fibermc.essentialcommands.ECPerms;
+import com.fibermc.essentialcommands.commands.helpers.PagedList;
+import com.fibermc.essentialcommands.playerdata.PlayerCatalog;
+import com.fibermc.essentialcommands.text.ECText;
+
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.tree.LiteralCommandNode;
+
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.Text;
+
+import dev.jpcode.eccore.util.TextUtil;
+
+import static com.fibermc.essentialcommands.EssentialCommands.CONFIG;
+
+/**
+ * Admin listings of every player who has joined, answered from {@link PlayerCatalog}.
+ */
+public final class PlayerCatalogCommand {
+    private PlayerCatalogCommand() {}
+
+    public static LiteralCommandNode<ServerCommandSource> buildNode() {
+        return CommandManager.literal("players")
+            .requires(ECPerms.require(ECPerms.Registry.player_catalog, 2))
+            .then(CommandManager.literal("inactive")
+                .then(CommandManager.argument("days", IntegerArgumentType.integer(1))
+                    .executes(context -> inactive(context, 1))
+                    .then(CommandManager.literal("page")
+                        .then(CommandManager.argument("page", IntegerArgumentType.integer(1))
+                            .executes(context -> inactive(context, IntegerArgumentType.getInteger(context, "page")))))))
+            .build();
+    }
+
+    private static int inactive(CommandContext<ServerCommandSource> context, int page) {
+        var source = context.getSource();
+        var ecText = ECText.access(source.getPlayer());
+        int days = IntegerArgumentType.getInteger(context, "days");
+        long now = System.currentTimeMillis();
+        var entries = PlayerCatalog.getInstance().getNotSeenSince(now - Duration.ofDays(days).toMillis());
+
+        List<Text> lines = new ArrayList<>();
+        lines.add(ecText.getText(
+            "cmd.players.inactive.header",
+            ecText.accent(String.valueOf(entries.size())),
+            ecText.accent(String.valueOf(days))));
+
+        var pagedEntries = PagedList.of(entries, page, Math.max(1, CONFIG.LIST_PAGE_SIZE));
+        for (PlayerCatalog.Entry entry : pagedEntries.entries()) {
+            lines.add(ecText.getText(
+                "cmd.players.inactive.entry",
+                ecText.accent(entry.name()),
+                ecText.accent(String.valueOf(Duration.ofMillis(now - entry.lastSeenEpochMs()).toDays())),
+                ecText.accent(String.valueOf(entry.homeCount()))));
+        }
+        if (pagedEntries.hasMultiplePages()) {
+            lines.add(pagedEntries.getNavigationText(
+                ecText,
+                targetPage -> "/essentialcommands players inactive %d page %d".formatted(days, targetPage)));
+        }
+
+        var message = TextUtil.join(lines, Text.literal("\n"));
+        source.sendFeedback(() -> message, false);
+        return entries.size();
+    }
+}
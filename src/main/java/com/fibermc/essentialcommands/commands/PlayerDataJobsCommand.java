@@ -0,0 +1,106 @@
+package com.fibermc.essentialcommands.commands;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fibermc.essentialcommands.ECPerms;
+import com.fibermc.essentialcommands.playerdata.PlayerDataJobManager;
+import com.fibermc.essentialcommands.text.ECText;
+import com.fibermc.essentialcommands.text.TextFormatType;
+
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.tree.LiteralCommandNode;
+
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.Text;
+
+import dev.jpcode.eccore.util.TextUtil;
+
+/**
+ * Starts, lists and cancels {@link PlayerDataJobManager} jobs.
+ */
+public final class PlayerDataJobsCommand {
+    private PlayerDataJobsCommand() {}
+
+    public static LiteralCommandNode<ServerCommandSource> buildNode() {
+        var startNode = CommandManager.literal("start")
+            .then(CommandManager.literal(PlayerDataJobManager.Kind.PURGE_INACTIVE.getArgumentName())
+                .then(CommandManager.argument("days", IntegerArgumentType.integer(1))
+                    .executes(context -> start(
+                        context,
+                        PlayerDataJobManager.Kind.PURGE_INACTIVE,
+                        IntegerArgumentType.getInteger(context, "days")))));
+        for (var kind : PlayerDataJobManager.Kind.values()) {
+            if (kind != PlayerDataJobManager.Kind.PURGE_INACTIVE) {
+                startNode.then(CommandManager.literal(kind.getArgumentName())
+                    .executes(context -> start(context, kind, 0)));
+            }
+        }
+
+        return CommandManager.literal("jobs")
+            .requires(ECPerms.require(ECPerms.Registry.player_data_jobs, 4))
+            .executes(PlayerDataJobsCommand::list)
+            .then(startNode)
+            .then(CommandManager.literal("cancel")
+                .then(CommandManager.argument("job_id", IntegerArgumentType.integer(1))
+                    .executes(PlayerDataJobsCommand::cancel)))
+            .build();
+    }
+
+    private static int start(CommandContext<ServerCommandSource> context, PlayerDataJobManager.Kind kind, int inactiveDays) {
+        var source = context.getSource();
+        var ecText = ECText.access(source.getPlayer());
+        var job = PlayerDataJobManager.getInstance().start(source, kind, inactiveDays);
+        source.sendFeedback(() -> ecText.getText(
+            "cmd.jobs.started",
+            ecText.accent("#" + job.getId()),
+            ecText.accent(job.getDescription())), true);
+        return job.getId();
+    }
+
+    private static int cancel(CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
+        var ecText = ECText.access(context.getSource().getPlayer());
+        int jobId = IntegerArgumentType.getInteger(context, "job_id");
+        var jobIdText = ecText.accent("#" + jobId);
+        if (!PlayerDataJobManager.getInstance().cancel(jobId)) {
+            throw CommandUtil.createSimpleException(ecText.getText(
+                "cmd.jobs.cancel.error.not_running",
+                TextFormatType.Error,
+                jobIdText));
+        }
+
+        context.getSource().sendFeedback(() -> ecText.getText("cmd.jobs.cancel.success", jobIdText), true);
+        return jobId;
+    }
+
+    private static int list(CommandContext<ServerCommandSource> context) {
+        var ecText = ECText.access(context.getSource().getPlayer());
+        var jobs = PlayerDataJobManager.getInstance().getJobs();
+
+        List<Text> lines = new ArrayList<>();
+        if (jobs.isEmpty()) {
+            lines.add(ecText.getText("cmd.jobs.list.none"));
+        } else {
+            lines.add(ecText.getText("cmd.jobs.list.header"));
+        }
+        for (var job : jobs) {
+            lines.add(ecText.getText(
+                "cmd.jobs.list.entry",
+                ecText.accent("#" + job.getId()),
+                ecText.accent(job.getDescription()),
+                ecText.accent(job.getState().getDisplayName()),
+                ecText.accent(String.valueOf(job.getProcessedCount())),
+                ecText.accent(String.valueOf(job.getRecordCount())),
+                ecText.accent(String.valueOf(job.getChangedCount())),
+                ecText.accent(String.valueOf(job.getFailedCount())),
+                ecText.accent(String.valueOf(job.getElapsedMs() / 1000))));
+        }
+
+        var message = TextUtil.join(lines, Text.literal("\n"));
+        context.getSource().sendFeedback(() -> message, false);
+        return jobs.size();
+    }
+}
@@ -4,8 +4,7 @@ import java.util.Iterator;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Random;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
 
 import com.fibermc.essentialcommands.ECPerms;
 import com.fibermc.essentialcommands.EssentialCommands;
@@ -13,7 +12,12 @@ import com.fibermc.essentialcommands.ManagerLocator;
 import com.fibermc.essentialcommands.commands.helpers.HeightFinder;
 import com.fibermc.essentialcommands.commands.helpers.HeightFindingStrategy;
 import com.fibermc.essentialcommands.playerdata.PlayerData;
+import com.fibermc.essentialcommands.scheduler.MainThreadInbox;
 import com.fibermc.essentialcommands.teleportation.PlayerTeleporter;
+import com.fibermc.essentialcommands.teleportation.RtpCandidatePrefilter;
+import com.fibermc.essentialcommands.teleportation.RtpLocationPool;
+import com.fibermc.essentialcommands.teleportation.RtpSearchScheduler;
+import com.fibermc.essentialcommands.teleportation.RtpStatistics;
 import com.fibermc.essentialcommands.text.ECText;
 import com.fibermc.essentialcommands.text.TextFormatType;
 import com.fibermc.essentialcommands.types.MinecraftLocation;
@@ -31,6 +35,7 @@ import net.minecraft.server.world.ServerWorld;
 import net.minecraft.text.Text;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
 import net.minecraft.util.math.Vec3i;
 import net.minecraft.world.chunk.Chunk;
 
@@ -51,34 +56,30 @@ public class RandomTeleportCommand implements Command<ServerCommandSource> {
 
     public RandomTeleportCommand() {}
 
-    private final Thread.UncaughtExceptionHandler exceptionHandler = (thread, throwable) -> {
-        EssentialCommands.LOGGER.error("Exception in RTP calculator thread", throwable);
-    };
-    private final Executor threadExecutor = Executors.newCachedThreadPool(runnable -> {
-        var thread = new Thread(runnable, "RTP Location Calculator Thread");
-
-        thread.setUncaughtExceptionHandler(exceptionHandler);
-
-        return thread;
-    });
+    /**
+     * How many random points a single attempt may reject via {@link RtpCandidatePrefilter} before giving up. Prefilter
+     * checks do not load chunks, so they are much cheaper than a full attempt.
+     */
+    private static final int PREFILTER_SAMPLES_PER_ATTEMPT = 8;
 
     @Override
     public int run(CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
         ServerPlayerEntity player = context.getSource().getPlayerOrThrow();
         ServerWorld world = context.getSource().getWorld();
         var ecText = ECText.access(player);
+        var playerData = PlayerData.access(player);
         if (!CONFIG.RTP_ENABLED_WORLDS.contains(world.getRegistryKey())) {
             var currentWorldAsText = Text.of(world.getRegistryKey().getValue().toString());
-            PlayerData.access(player).sendCommandError(TextUtil.concat(
+            playerData.sendCommandError(TextUtil.concat(
                 ecText.getText("cmd.rtp.error.pre", TextFormatType.Error),
                 ecText.getText("cmd.rtp.error.world_not_enabled", TextFormatType.Error, currentWorldAsText)
             ));
             return 0;
         }
 
-        if (CONFIG.RTP_COOLDOWN > 0 && !ECPerms.check(context.getSource(), ECPerms.Registry.bypass_randomteleport_cooldown)) {
-            int curServerTickTime = context.getSource().getServer().getTicks();
-            var playerData = PlayerData.access(player);
+        int curServerTickTime = context.getSource().getServer().getTicks();
+        boolean cooldownApplies = CONFIG.RTP_COOLDOWN > 0 && !ECPerms.check(context.getSource(), ECPerms.Registry.bypass_randomteleport_cooldown);
+        if (cooldownApplies) {
             var rtpCooldownEndTime = playerData.getTimeUsedRtp() + CONFIG.RTP_COOLDOWN * 20;
             var rtpCooldownRemaining = rtpCooldownEndTime - curServerTickTime;
             if (rtpCooldownRemaining > 0) {
@@ -88,11 +89,15 @@ public class RandomTeleportCommand implements Command<ServerCommandSource> {
                     );
                     return 0;
             }
-            // if cooldown has expired
-            playerData.setTimeUsedRtp(curServerTickTime);
         }
 
-        threadExecutor.execute(() -> {
+        var centerOpt = getRtpCenter(player);
+        if (centerOpt.isEmpty()) {
+            return 0;
+        }
+        Vec3i center = centerOpt.get();
+
+        var admission = RtpSearchScheduler.getInstance().submit(player.getUuid(), job -> {
             EssentialCommands.LOGGER.info(
                 String.format(
                     "Starting RTP location search for %s",
@@ -101,7 +106,7 @@ public class RandomTeleportCommand implements Command<ServerCommandSource> {
 
             Stopwatch timer = Stopwatch.createStarted();
 
-            exec(player, world);
+            exec(player, world, center, job);
 
             var totalTime = timer.stop();
             EssentialCommands.LOGGER.info(
@@ -109,28 +114,89 @@ public class RandomTeleportCommand implements Command<ServerCommandSource> {
                     "Total RTP Time: %s",
                     totalTime
                 ));
+        }, queuePosition -> {
+            if (!player.isDisconnected()) {
+                playerData.sendCommandFeedback("cmd.rtp.queued", ecText.accent(String.valueOf(queuePosition)));
+            }
         });
 
+        switch (admission.status()) {
+            case ALREADY_SEARCHING -> {
+                playerData.sendCommandError(TextUtil.concat(
+                    ecText.getText("cmd.rtp.error.pre", TextFormatType.Error),
+                    ecText.getText("cmd.rtp.error.in_progress", TextFormatType.Error)
+                ));
+                return 0;
+            }
+            case QUEUE_FULL -> {
+                playerData.sendCommandError(TextUtil.concat(
+                    ecText.getText("cmd.rtp.error.pre", TextFormatType.Error),
+                    ecText.getText("cmd.rtp.error.queue_full", TextFormatType.Error)
+                ));
+                return 0;
+            }
+            case QUEUED -> playerData.sendCommandFeedback(
+                "cmd.rtp.queued",
+                ecText.accent(String.valueOf(admission.queuePosition()))
+            );
+            default -> { }
+        }
+
+        // Only start the cooldown once a search has actually been accepted.
+        if (cooldownApplies) {
+            playerData.setTimeUsedRtp(curServerTickTime);
+        }
+
         return SINGLE_SUCCESS;
     }
 
     final static class ExecutionContext {
+        // Exclusive; in dimensions with a ceiling, everything from here up is the roof or above it.
         public final int topY;
         public final int bottomY;
 
         public ExecutionContext(ServerWorld world) {
-            this.topY = world.getTopY();
+            this.topY = Math.min(world.getTopY(), world.getBottomY() + world.getLogicalHeight());
             this.bottomY = world.getBottomY();
         }
     }
 
-    private static void exec(ServerPlayerEntity player, ServerWorld world) {
-        var centerOpt = getRtpCenter(player);
-        if (centerOpt.isEmpty()) {
+    private static void exec(ServerPlayerEntity player, ServerWorld world, Vec3i center, RtpSearchScheduler.SearchJob job) {
+        Optional<BlockPos> pos = RtpLocationPool.getInstance().take(world);
+        if (pos.isEmpty()) {
+            pos = searchForPosition(world, center, job::isCancelled);
+        }
+
+        if (pos.isEmpty() || job.isCancelled()) {
             return;
         }
-        Vec3i center = centerOpt.get();
 
+        // Teleport the player. This runs on an RTP worker thread, so hand the teleport to the server thread.
+        var dest = new MinecraftLocation(world.getRegistryKey(), pos.get(), 0, 0);
+        MainThreadInbox.getInstance().submit(() -> {
+            if (player.isDisconnected()) {
+                return;
+            }
+            PlayerTeleporter.requestTeleport(
+                player,
+                dest,
+                ECText.access(player).getText("cmd.rtp.location_name")
+            );
+        });
+    }
+
+    /**
+     * Runs up to {@code RTP_MAX_ATTEMPTS} random position searches around {@code center}. Blocks the calling thread while
+     * candidate chunks are loaded, so this should not be called from the server thread.
+     */
+    public static Optional<BlockPos> searchForPosition(ServerWorld world, Vec3i center) {
+        return searchForPosition(world, center, () -> false);
+    }
+
+    /**
+     * @param isCancelled checked between attempts; the search gives up early once it returns true.
+     */
+    public static Optional<BlockPos> searchForPosition(ServerWorld world, Vec3i center, BooleanSupplier isCancelled) {
         final var executionContext = new ExecutionContext(world);
         final var heightFinder = HeightFindingStrategy.forWorld(world.getRegistryKey());
 
@@ -139,39 +205,73 @@ public class RandomTeleportCommand implements Command<ServerCommandSource> {
         do {
             timesRun++;
             pos = findRtpPosition(world, center, heightFinder, executionContext);
-        } while (pos.isEmpty() && timesRun <= CONFIG.RTP_MAX_ATTEMPTS);
+        } while (pos.isEmpty() && timesRun <= CONFIG.RTP_MAX_ATTEMPTS && !isCancelled.getAsBoolean());
 
-        if (pos.isEmpty()) {
-            return;
-        }
+        // Candidate chunks may only have been generated up to the status the height finder needs. Finish generating
+        // the chosen one here, rather than on the server thread when the player arrives.
+        pos.ifPresent(world::getChunk);
 
-        // Teleport the player
-        PlayerTeleporter.requestTeleport(
-            player,
-            new MinecraftLocation(world.getRegistryKey(), pos.get(), 0, 0),
-            ECText.access(player).getText("cmd.rtp.location_name")
-        );
+        return pos;
     }
 
-    private static Optional<Vec3i> getRtpCenter(ServerPlayerEntity player) {
+    /**
+     * Re-checks a position found by an earlier search. The chunk has already been generated, so this only costs a chunk
+     * load (if it is not already loaded) and a single column lookup.
+     */
+    public static boolean isStillSafe(ServerWorld world, BlockPos pos) {
+        final Chunk chunk = world.getChunk(pos);
+        final OptionalInt yOpt = HeightFindingStrategy.forWorld(world.getRegistryKey()).getY(chunk, pos.getX(), pos.getZ());
+        final var executionContext = new ExecutionContext(world);
+
+        return yOpt.isPresent()
+            && yOpt.getAsInt() == pos.getY()
+            && pos.getY() + 1 < executionContext.topY
+            && isSafePosition(chunk, pos.down(2), executionContext);
+    }
+
+    public static Optional<Vec3i> getRtpCenter() {
         // Position relative to EC spawn locaiton.
-        var worldSpawn = ManagerLocator.getInstance().getWorldDataManager().getSpawn();
-        if (worldSpawn.isEmpty()) {
+        return ManagerLocator.getInstance().getWorldDataManager().getSpawn().map(MinecraftLocation::intPos);
+    }
+
+    private static Optional<Vec3i> getRtpCenter(ServerPlayerEntity player) {
+        var center = getRtpCenter();
+        if (center.isEmpty()) {
             var ecText = ECText.access(player);
             PlayerData.access(player).sendCommandError(TextUtil.concat(
                 ecText.getText("cmd.rtp.error.pre", TextFormatType.Error),
                 ecText.getText("cmd.rtp.error.no_spawn_set", TextFormatType.Error)
             ));
-            return Optional.empty();
         }
 
-        return Optional.of(worldSpawn.get().intPos());
+        return center;
     }
 
     private static Optional<BlockPos> findRtpPosition(ServerWorld world, Vec3i center, HeightFinder heightFinder, ExecutionContext ctx) {
+        final var stats = RtpStatistics.forWorld(world.getRegistryKey());
+
+        // Reject candidates that are obviously unsuitable (ocean, river, void, ...) before paying to generate them.
+        BlockPos targetXZ = null;
+        for (int i = 0; i < PREFILTER_SAMPLES_PER_ATTEMPT && targetXZ == null; i++) {
+            final BlockPos sampleXZ = getRandomXZ(center);
+            stats.recordCandidate();
+            var prefilterResult = RtpCandidatePrefilter.test(world, sampleXZ.getX(), sampleXZ.getZ());
+            stats.recordPrefilterResult(prefilterResult);
+            if (prefilterResult == RtpCandidatePrefilter.Result.ACCEPTED) {
+                targetXZ = sampleXZ;
+            }
+        }
+        if (targetXZ == null) {
+            return Optional.empty();
+        }
+
         // Search for a valid y-level (not in a block, underwater, out of the world, etc.)
-        final BlockPos targetXZ = getRandomXZ(center);
-        final Chunk chunk = world.getChunk(targetXZ);
+        final Chunk chunk = world.getChunk(
+            ChunkSectionPos.getSectionCoord(targetXZ.getX()),
+            ChunkSectionPos.getSectionCoord(targetXZ.getZ()),
+            heightFinder.getRequiredChunkStatus(),
+            true
+        );
 
         for (BlockPos.Mutable candidateBlock : getChunkCandidateBlocks(chunk.getPos())) {
             final int x = candidateBlock.getX();
@@ -181,12 +281,18 @@ public class RandomTeleportCommand implements Command<ServerCommandSource> {
                 continue;
             }
             final int y = yOpt.getAsInt();
+            // The player's head must be below the logical height too.
+            if (y + 1 >= ctx.topY) {
+                continue;
+            }
 
             if (isSafePosition(chunk, new BlockPos(x, y - 2, z), ctx)) {
+                stats.recordFound();
                 return Optional.of(new BlockPos(x, y, z));
             }
         }
 
+        stats.recordUnsafe();
         // This creates an infinite recursive call in the case where all positions on RTP circle are in water.
         //  Addressed by adding timesRun limit.
         return Optional.empty();
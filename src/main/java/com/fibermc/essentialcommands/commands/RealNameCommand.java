@@ -2,6 +2,7 @@ package com.fibermc.essentialcommands.commands;
 
 import java.util.List;
 
+import com.fibermc.essentialcommands.playerdata.PlayerCatalog;
 import com.fibermc.essentialcommands.playerdata.PlayerData;
 import com.fibermc.essentialcommands.playerdata.PlayerDataManager;
 import com.fibermc.essentialcommands.text.ECText;
@@ -23,12 +24,16 @@ public class RealNameCommand implements Command<ServerCommandSource> {
 
         String nicknameStr = StringArgumentType.getString(context, "player_nickname");
         List<PlayerData> nicknamePlayers = PlayerDataManager.getInstance().getPlayerDataMatchingNickname(nicknameStr);
+        var playerManager = context.getSource().getServer().getPlayerManager();
+        List<PlayerCatalog.Entry> offlinePlayers = PlayerCatalog.getInstance().findByNickname(nicknameStr).stream()
+            .filter(entry -> playerManager.getPlayer(entry.uuid()) == null)
+            .toList();
         MutableText responseText = Text.empty();
 
         var ecText = ECText.access(context.getSource().getPlayerOrThrow());
         var nicknameText = ecText.accent(nicknameStr);
         // If no players matched the provided nickname
-        if (nicknamePlayers.size() == 0) {
+        if (nicknamePlayers.isEmpty() && offlinePlayers.isEmpty()) {
             responseText
                 .append(ecText.getText("cmd.realname.feedback.none_match", nicknameText));
 
@@ -40,6 +45,10 @@ public class RealNameCommand implements Command<ServerCommandSource> {
                 responseText.append("\n  ");
                 responseText.append(nicknamePlayer.getPlayer().getGameProfile().getName());
             }
+            for (PlayerCatalog.Entry offlinePlayer : offlinePlayers) {
+                responseText.append("\n  ");
+                responseText.append(ecText.getText("cmd.realname.feedback.offline_entry", Text.literal(offlinePlayer.name())));
+            }
         }
 
         context.getSource().sendFeedback(() -> responseText, CONFIG.BROADCAST_TO_OPS);
@@ -0,0 +1,80 @@
+package com.fibermc.essentialcommands.commands;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.fibermc.essentialcommands.ECPerms;
+import com.fibermc.essentialcommands.teleportation.RtpLocationPool;
+import com.fibermc.essentialcommands.teleportation.RtpSearchScheduler;
+import com.fibermc.essentialcommands.teleportation.RtpStatistics;
+import com.fibermc.essentialcommands.text.ECText;
+
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.tree.LiteralCommandNode;
+
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.Text;
+import net.minecraft.world.World;
+
+import dev.jpcode.eccore.util.TextUtil;
+
+import static com.fibermc.essentialcommands.EssentialCommands.CONFIG;
+
+public final class RtpAdminCommand {
+    private RtpAdminCommand() {}
+
+    public static LiteralCommandNode<ServerCommandSource> buildNode() {
+        return CommandManager.literal("rtp")
+            .requires(ECPerms.require(ECPerms.Registry.rtp_stats, 2))
+            .then(CommandManager.literal("stats")
+                .executes(RtpAdminCommand::printStats))
+            .build();
+    }
+
+    private static int printStats(CommandContext<ServerCommandSource> context) {
+        var ecText = ECText.access(context.getSource().getPlayer());
+        var scheduler = RtpSearchScheduler.getInstance();
+        long[] latencyPercentiles = scheduler.getLatencyPercentilesMs(50, 90, 99);
+
+        List<Text> lines = new ArrayList<>();
+        lines.add(ecText.getText(
+            "cmd.rtp.stats.queue",
+            ecText.accent("%d/%d".formatted(scheduler.getRunningCount(), RtpSearchScheduler.getMaxConcurrentSearches())),
+            ecText.accent("%d/%d".formatted(scheduler.getQueuedCount(), CONFIG.RTP_MAX_QUEUED_SEARCHES))
+        ));
+        lines.add(ecText.getText(
+            "cmd.rtp.stats.latency",
+            ecText.accent(String.valueOf(latencyPercentiles[0])),
+            ecText.accent(String.valueOf(latencyPercentiles[1])),
+            ecText.accent(String.valueOf(latencyPercentiles[2])),
+            ecText.accent(String.valueOf(scheduler.getLatencySampleCount()))
+        ));
+
+        var stats = RtpStatistics.all();
+        if (stats.isEmpty()) {
+            lines.add(ecText.getText("cmd.rtp.stats.empty"));
+        } else {
+            lines.add(ecText.getText("cmd.rtp.stats.header"));
+        }
+        for (Map.Entry<RegistryKey<World>, RtpStatistics> entry : stats.entrySet()) {
+            var worldStats = entry.getValue();
+            lines.add(ecText.getText(
+                "cmd.rtp.stats.world",
+                ecText.accent(entry.getKey().getValue().toString()),
+                ecText.accent(String.valueOf(worldStats.getCandidates())),
+                ecText.accent(String.valueOf(worldStats.getRejectedBiome())),
+                ecText.accent(String.valueOf(worldStats.getRejectedTerrain())),
+                ecText.accent(String.valueOf(worldStats.getRejectedUnsafe())),
+                ecText.accent(String.valueOf(worldStats.getFound())),
+                ecText.accent("%d/%d".formatted(RtpLocationPool.getInstance().size(entry.getKey()), CONFIG.RTP_POOL_SIZE))
+            ));
+        }
+
+        var message = TextUtil.join(lines, Text.literal("\n"));
+        context.getSource().sendFeedback(() -> message, false);
+        return stats.size();
+    }
+}
@@ -0,0 +1,68 @@
+package com.fibermc.essentialcommands.commands;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import com.fibermc.essentialcommands.ECPerms;
+import com.fibermc.essentialcommands.scheduler.TickScheduler;
+import com.fibermc.essentialcommands.text.ECText;
+
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.tree.LiteralCommandNode;
+
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.Text;
+
+import dev.jpcode.eccore.util.TextUtil;
+
+import static com.fibermc.essentialcommands.EssentialCommands.CONFIG;
+
+public final class SchedulerCommand {
+    private static final int MAX_LISTED_TASKS = 10;
+
+    private SchedulerCommand() {}
+
+    public static LiteralCommandNode<ServerCommandSource> buildNode() {
+        return CommandManager.literal("scheduler")
+            .requires(ECPerms.require(ECPerms.Registry.scheduler_stats, 2))
+            .then(CommandManager.literal("stats")
+                .executes(SchedulerCommand::printStats))
+            .build();
+    }
+
+    private static int printStats(CommandContext<ServerCommandSource> context) {
+        var ecText = ECText.access(context.getSource().getPlayer());
+        var scheduler = TickScheduler.getInstance();
+
+        List<Text> lines = new ArrayList<>();
+        lines.add(ecText.getText(
+            "cmd.scheduler.stats.queue",
+            ecText.accent(String.valueOf(scheduler.getPendingCount())),
+            ecText.accent(String.valueOf(scheduler.getLowPriorityBacklogSize())),
+            ecText.accent("%.1f".formatted(CONFIG.SCHEDULER_LOW_PRIORITY_BUDGET_MS))
+        ));
+
+        var timings = scheduler.getTimings().entrySet().stream()
+            .sorted(Comparator.comparingDouble((Map.Entry<String, TickScheduler.TaskTiming> entry) -> entry.getValue().getTotalMs()).reversed())
+            .limit(MAX_LISTED_TASKS)
+            .toList();
+        for (var entry : timings) {
+            var timing = entry.getValue();
+            lines.add(ecText.getText(
+                "cmd.scheduler.stats.task",
+                ecText.accent(entry.getKey()),
+                ecText.accent(String.valueOf(timing.getRunCount())),
+                ecText.accent("%.3f".formatted(timing.getAverageMs())),
+                ecText.accent("%.3f".formatted(timing.getMaxMs())),
+                ecText.accent("%.1f".formatted(timing.getTotalMs()))
+            ));
+        }
+
+        var message = TextUtil.join(lines, Text.literal("\n"));
+        context.getSource().sendFeedback(() -> message, false);
+        return timings.size();
+    }
+}
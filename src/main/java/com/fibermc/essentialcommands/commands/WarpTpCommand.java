@@ -54,10 +54,11 @@ public class WarpTpCommand implements Command<ServerCommandSource> {
         }
 
         // Teleport & chat message
-        PlayerTeleporter.requestTeleport(
+        PlayerTeleporter.requestSafeTeleport(
             targetPlayer,
             loc,
-            ecText.getText("cmd.warp.location_name", warpNameText));
+            ecText.getText("cmd.warp.location_name", warpNameText),
+            () -> worldDataManager.recordWarpUse(warpName));
     }
 
     public int runOther(CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
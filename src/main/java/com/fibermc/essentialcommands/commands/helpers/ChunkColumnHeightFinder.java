@@ -0,0 +1,180 @@
+package com.fibermc.essentialcommands.commands.helpers;
+
+import java.util.OptionalInt;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.Heightmap;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.ChunkStatus;
+import net.minecraft.world.chunk.WorldChunk;
+
+/**
+ * Finds standable positions in a chunk column without visiting every block state.
+ *
+ * <p>Top-down searches read the {@link Heightmap.Type#WORLD_SURFACE} heightmap when the chunk has one. Otherwise (and
+ * for bottom-up searches, which heightmaps can't answer) the column is scanned one section at a time, and sections
+ * that are empty or hold only a single block state are stepped over in one go, using the section's palette.
+ *
+ * <p>{@link #TOP_DOWN} finds the highest non-air block with two air blocks above it, like the block-by-block scan it
+ * replaces. {@link #BOTTOM_UP} finds the lowest solid block with two air blocks above it, below the dimension's logical
+ * height. In dimensions with a ceiling it never looks above the highest non-empty section, so it can't pick the top of
+ * the roof. Without one, the empty section above that is checked too, so the top of the highest section can be stood
+ * on. Chunks that aren't attached to a world are treated as having a ceiling.
+ */
+public final class ChunkColumnHeightFinder implements HeightFinder {
+    public static final ChunkColumnHeightFinder TOP_DOWN = new ChunkColumnHeightFinder(true);
+    public static final ChunkColumnHeightFinder BOTTOM_UP = new ChunkColumnHeightFinder(false);
+
+    private static final int SECTION_HEIGHT = 16;
+
+    private final boolean topDown;
+
+    private ChunkColumnHeightFinder(boolean topDown) {
+        this.topDown = topDown;
+    }
+
+    @Override
+    public OptionalInt getY(Chunk chunk, int x, int z) {
+        return topDown
+            ? findTopDown(chunk, x, z)
+            : findBottomUp(chunk, x, z);
+    }
+
+    private static OptionalInt findTopDown(Chunk chunk, int x, int z) {
+        if (chunk.getStatus().isAtLeast(ChunkStatus.FEATURES)) {
+            // Y of the highest non-air block. Everything above it is air, so it is the floor we're looking for.
+            final int floorY = chunk.sampleHeightmap(Heightmap.Type.WORLD_SURFACE, x, z);
+            return floorY > chunk.getBottomY() && floorY + 2 < chunk.getTopY()
+                ? OptionalInt.of(floorY + 1)
+                : OptionalInt.empty();
+        }
+
+        return scanTopDown(chunk, x, z);
+    }
+
+    static OptionalInt scanTopDown(Chunk chunk, int x, int z) {
+        final int bottomY = chunk.getBottomY();
+        final BlockPos.Mutable mutablePos = new BlockPos.Mutable(x, 0, z);
+        // Consecutive air blocks directly above the current y.
+        int airAbove = 0;
+
+        for (int sectionIndex = chunk.getSectionArray().length - 1; sectionIndex >= 0; sectionIndex--) {
+            final ChunkSection section = chunk.getSection(sectionIndex);
+            final int sectionBottomY = ChunkSectionPos.getBlockCoord(chunk.sectionIndexToCoord(sectionIndex));
+
+            if (section.isEmpty()) {
+                airAbove += SECTION_HEIGHT;
+                continue;
+            }
+
+            final BlockState uniformState = getUniformState(section);
+            if (uniformState != null) {
+                final int sectionTopY = sectionBottomY + SECTION_HEIGHT - 1;
+                if (!uniformState.isAir() && airAbove >= 2 && sectionTopY > bottomY) {
+                    return OptionalInt.of(sectionTopY + 1);
+                }
+                airAbove = uniformState.isAir() ? airAbove + SECTION_HEIGHT : 0;
+                continue;
+            }
+
+            for (int y = sectionBottomY + SECTION_HEIGHT - 1; y >= sectionBottomY; y--) {
+                if (!chunk.getBlockState(mutablePos.setY(y)).isAir()) {
+                    if (airAbove >= 2 && y > bottomY) {
+                        return OptionalInt.of(y + 1);
+                    }
+                    airAbove = 0;
+                } else {
+                    airAbove++;
+                }
+            }
+        }
+
+        return OptionalInt.empty();
+    }
+
+    private static OptionalInt findBottomUp(Chunk chunk, int x, int z) {
+        if (chunk instanceof WorldChunk worldChunk) {
+            final var world = worldChunk.getWorld();
+            return findBottomUp(
+                chunk, x, z,
+                Math.min(chunk.getTopY(), world.getBottomY() + world.getLogicalHeight()),
+                world.getDimension().hasCeiling()
+            );
+        }
+
+        return findBottomUp(chunk, x, z, chunk.getTopY(), true);
+    }
+
+    /**
+     * @param maxY exclusive upper bound for the floor and the two air blocks above it.
+     * @param hasCeiling whether the highest non-empty section is the dimension's roof rather than open sky.
+     */
+    static OptionalInt findBottomUp(Chunk chunk, int x, int z, int maxY, boolean hasCeiling) {
+        if (maxY <= chunk.getBottomY()) {
+            return OptionalInt.empty();
+        }
+
+        final BlockPos.Mutable mutablePos = new BlockPos.Mutable(x, 0, z);
+        // Consecutive air blocks directly above the last non-air block, and whether that block was solid.
+        int airAbove = 0;
+        int floorY = Integer.MIN_VALUE;
+        boolean floorIsSolid = false;
+
+        final int highestNonEmptySection = chunk.getHighestNonEmptySection();
+        final int lastSectionIndex = Math.min(
+            hasCeiling ? highestNonEmptySection : highestNonEmptySection + 1,
+            chunk.getSectionIndex(maxY - 1)
+        );
+        for (int sectionIndex = 0; sectionIndex <= lastSectionIndex; sectionIndex++) {
+            final ChunkSection section = chunk.getSection(sectionIndex);
+            final int sectionBottomY = ChunkSectionPos.getBlockCoord(chunk.sectionIndexToCoord(sectionIndex));
+
+            final BlockState uniformState = section.isEmpty() ? null : getUniformState(section);
+            if (section.isEmpty() || (uniformState != null && uniformState.isAir())) {
+                airAbove += SECTION_HEIGHT;
+                if (floorIsSolid && airAbove >= 2 && floorY + 3 <= maxY) {
+                    return OptionalInt.of(floorY + 1);
+                }
+                continue;
+            }
+            if (uniformState != null) {
+                floorY = sectionBottomY + SECTION_HEIGHT - 1;
+                floorIsSolid = uniformState.isSolid();
+                airAbove = 0;
+                continue;
+            }
+
+            for (int y = sectionBottomY; y < sectionBottomY + SECTION_HEIGHT; y++) {
+                final BlockState state = chunk.getBlockState(mutablePos.setY(y));
+                if (state.isAir()) {
+                    airAbove++;
+                    if (floorIsSolid && airAbove >= 2 && floorY + 3 <= maxY) {
+                        return OptionalInt.of(floorY + 1);
+                    }
+                } else {
+                    floorY = y;
+                    floorIsSolid = state.isSolid();
+                    airAbove = 0;
+                }
+            }
+        }
+
+        return OptionalInt.empty();
+    }
+
+    /**
+     * @return the single block state that fills the whole section, or null if the section holds more than one.
+     */
+    private static BlockState getUniformState(ChunkSection section) {
+        final var container = section.getBlockStateContainer();
+        final BlockState first = container.get(0, 0, 0);
+        // The palette may still hold states that are no longer present, so this can report "not uniform" for a
+        // uniform section (which only costs a full scan), but never the other way around.
+        return container.hasAny(state -> state != first)
+            ? null
+            : first;
+    }
+}
@@ -3,6 +3,7 @@ package com.fibermc.essentialcommands.commands.helpers;
 import java.util.OptionalInt;
 
 import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkStatus;
 
 @FunctionalInterface
 public interface HeightFinder {
@@ -12,5 +13,12 @@ public interface HeightFinder {
      * @return A Y value corresponding to the player's feet pos
      */
     OptionalInt getY(Chunk chunk, int x, int z);
+
+    /**
+     * The lowest generation status a chunk must have reached for {@link #getY} to give a correct answer.
+     */
+    default ChunkStatus getRequiredChunkStatus() {
+        return ChunkStatus.FULL;
+    }
 }
 
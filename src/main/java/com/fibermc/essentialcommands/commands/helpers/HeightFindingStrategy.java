@@ -2,31 +2,38 @@ package com.fibermc.essentialcommands.commands.helpers;
 
 import java.util.OptionalInt;
 
-import com.fibermc.essentialcommands.commands.utility.TopCommand;
-
-import net.minecraft.block.BlockState;
+import net.minecraft.block.LeavesBlock;
 import net.minecraft.registry.RegistryKey;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.ChunkSectionPos;
 import net.minecraft.util.math.Direction;
+import net.minecraft.world.Heightmap;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkStatus;
 
 public enum HeightFindingStrategy implements HeightFinder {
-    SKY_TO_SURFACE__FIRST_SOLID(TopCommand::getTop),
-    BOTTOM_TO_SKY__FIRST_SAFE_AIR(HeightFindingStrategy::findYBottomUp),
+    SKY_TO_SURFACE__FIRST_SOLID(ChunkColumnHeightFinder.TOP_DOWN),
+    BOTTOM_TO_SKY__FIRST_SAFE_AIR(ChunkColumnHeightFinder.BOTTOM_UP),
+    // Surface heightmaps are populated during the FEATURES generation step, so chunks that are only
+    // being looked at need not be generated any further than that.
+    SURFACE_HEIGHTMAP(HeightFindingStrategy::findYFromSurfaceHeightmap, ChunkStatus.FEATURES),
     ;
 
     private final HeightFinder heightFinder;
+    private final ChunkStatus requiredChunkStatus;
 
     HeightFindingStrategy(HeightFinder heightFinder) {
+        this(heightFinder, ChunkStatus.FULL);
+    }
 
+    HeightFindingStrategy(HeightFinder heightFinder, ChunkStatus requiredChunkStatus) {
         this.heightFinder = heightFinder;
+        this.requiredChunkStatus = requiredChunkStatus;
     }
 
     public static HeightFindingStrategy forWorld(RegistryKey<World> worldRegistryKey) {
         if (worldRegistryKey == World.OVERWORLD || worldRegistryKey == World.END) {
-            return HeightFindingStrategy.SKY_TO_SURFACE__FIRST_SOLID;
+            return HeightFindingStrategy.SURFACE_HEIGHTMAP;
         }
         if (worldRegistryKey == World.NETHER) {
             return HeightFindingStrategy.BOTTOM_TO_SKY__FIRST_SAFE_AIR;
@@ -41,33 +48,26 @@ public enum HeightFindingStrategy implements HeightFinder {
         return heightFinder.getY(chunk, x, z);
     }
 
-    private static OptionalInt findYBottomUp(Chunk chunk, int x, int z) {
-        final int topY = getChunkHighestNonEmptySectionYOffsetOrTopY(chunk);
-        final int bottomY = chunk.getBottomY();
-        if (topY <= bottomY) {
+    @Override
+    public ChunkStatus getRequiredChunkStatus() {
+        return requiredChunkStatus;
+    }
+
+    private static OptionalInt findYFromSurfaceHeightmap(Chunk chunk, int x, int z) {
+        // Y of the highest block that blocks motion or contains fluid, ignoring leaves.
+        final int surfaceY = chunk.sampleHeightmap(Heightmap.Type.MOTION_BLOCKING_NO_LEAVES, x, z);
+        if (surfaceY <= chunk.getBottomY() || surfaceY + 2 >= chunk.getTopY()) {
             return OptionalInt.empty();
         }
 
-        final BlockPos.Mutable mutablePos = new BlockPos.Mutable(x, bottomY, z);
-        BlockState bsFeet1 = chunk.getBlockState(mutablePos); // Block below feet
-        BlockState bsBody2 = chunk.getBlockState(mutablePos.move(Direction.UP)); // Block at feet level
-        BlockState bsHead3; // Block at head level
-
-        while (mutablePos.getY() < topY) {
-            bsHead3 = chunk.getBlockState(mutablePos.move(Direction.UP));
-            if (bsFeet1.isSolid() && bsBody2.isAir() && bsHead3.isAir()) { // If there is a floor block and space for player body+head
-                return OptionalInt.of(mutablePos.getY() - 1);
-            }
-
-            bsFeet1 = bsBody2;
-            bsBody2 = bsHead3;
+        // Nothing above the surface blocks motion, except possibly leaves (e.g. under a tree canopy).
+        final BlockPos.Mutable mutablePos = new BlockPos.Mutable(x, surfaceY + 1, z);
+        if (chunk.getBlockState(mutablePos).getBlock() instanceof LeavesBlock
+            || chunk.getBlockState(mutablePos.move(Direction.UP)).getBlock() instanceof LeavesBlock
+        ) {
+            return OptionalInt.empty();
         }
 
-        return OptionalInt.empty();
-    }
-
-    public static int getChunkHighestNonEmptySectionYOffsetOrTopY(Chunk chunk) {
-        int i = chunk.getHighestNonEmptySection();
-        return i == chunk.getTopY() ? chunk.getBottomY() : ChunkSectionPos.getBlockCoord(chunk.sectionIndexToCoord(i));
+        return OptionalInt.of(surfaceY + 1);
     }
 }
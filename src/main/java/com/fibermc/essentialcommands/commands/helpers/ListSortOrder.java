@@ -0,0 +1,56 @@
+package com.fibermc.essentialcommands.commands.helpers;
+
+import java.util.Comparator;
+import java.util.Locale;
+
+import com.fibermc.essentialcommands.types.NamedMinecraftLocation;
+
+import net.minecraft.server.command.ServerCommandSource;
+
+public enum ListSortOrder {
+    NAME,
+    DISTANCE,
+    MOST_USED;
+
+    /**
+     * @return the name used for this sort order in commands, e.g. {@code most_used}.
+     */
+    public String getArgumentName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return whether the order is the same for every viewer, so that rendered pages can be shared.
+     */
+    public boolean isViewerIndependent() {
+        return this != DISTANCE;
+    }
+
+    /**
+     * @return whether the order changes when locations are used, so that rendered pages must be re-rendered.
+     */
+    public boolean dependsOnUseCounts() {
+        return this == MOST_USED;
+    }
+
+    /**
+     * @param source the viewer. Only used by {@link #DISTANCE}, which puts locations in other dimensions last.
+     */
+    public <T extends NamedMinecraftLocation> Comparator<T> comparator(ServerCommandSource source) {
+        Comparator<T> byName = Comparator.comparing(NamedMinecraftLocation::getName, String.CASE_INSENSITIVE_ORDER);
+        return switch (this) {
+            case NAME -> byName;
+            case DISTANCE -> {
+                var dim = source.getWorld().getRegistryKey();
+                var pos = source.getPosition();
+                yield Comparator.<T>comparingDouble(loc -> loc.dim() == dim
+                        ? loc.pos().squaredDistanceTo(pos)
+                        : Double.POSITIVE_INFINITY)
+                    .thenComparing(byName);
+            }
+            case MOST_USED -> Comparator.<T>comparingInt(NamedMinecraftLocation::getUseCount)
+                .reversed()
+                .thenComparing(byName);
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package com.fibermc.essentialcommands.commands.helpers;
+
+import java.util.Collection;
+
+import com.fibermc.essentialcommands.types.NamedMinecraftLocation;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The locations a viewer can see in a home or warp listing.
+ *
+ * @param entries         the visible locations
+ * @param version         version of the underlying storage, see {@link RenderedPageCache#get}
+ * @param useCountVersion version of the underlying storage's use counts, see {@link RenderedPageCache#get}
+ * @param pageCache       rendered pages of the underlying storage
+ * @param filterKey       identifies which subset of the storage is visible, or null if the viewer sees all of it
+ */
+public record LocationListing<T extends NamedMinecraftLocation>(
+    Collection<T> entries,
+    long version,
+    long useCountVersion,
+    RenderedPageCache pageCache,
+    @Nullable Object filterKey)
+{}
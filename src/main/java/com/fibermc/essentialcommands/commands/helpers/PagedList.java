@@ -0,0 +1,57 @@
+package com.fibermc.essentialcommands.commands.helpers;
+
+import java.util.List;
+import java.util.function.IntFunction;
+
+import com.fibermc.essentialcommands.text.ECText;
+
+import net.minecraft.text.ClickEvent;
+import net.minecraft.text.MutableText;
+import net.minecraft.text.Text;
+
+/**
+ * One page of a list that is too long to send in a single chat message.
+ *
+ * @param entries   the entries on this page
+ * @param page      1-based page number, clamped to {@code [1, pageCount]}
+ * @param pageCount total number of pages (at least 1, even for an empty list)
+ */
+public record PagedList<T>(List<T> entries, int page, int pageCount) {
+    public static <T> PagedList<T> of(List<T> all, int requestedPage, int pageSize) {
+        int pageCount = Math.max(1, (all.size() + pageSize - 1) / pageSize);
+        int page = Math.max(1, Math.min(requestedPage, pageCount));
+        int fromIndex = (page - 1) * pageSize;
+        int toIndex = Math.min(fromIndex + pageSize, all.size());
+        return new PagedList<>(all.subList(fromIndex, toIndex), page, pageCount);
+    }
+
+    public boolean hasMultiplePages() {
+        return pageCount > 1;
+    }
+
+    /**
+     * @param commandForPage builds the command (with leading slash) that displays the given page
+     * @return "Page x of y", with clickable previous/next links where those pages exist.
+     */
+    public Text getNavigationText(ECText ecText, IntFunction<String> commandForPage) {
+        MutableText text = Text.empty();
+        if (page > 1) {
+            text.append(pageLink(ecText.getText("generic.pagination.previous"), commandForPage.apply(page - 1)))
+                .append(" ");
+        }
+        text.append(ecText.getText(
+            "generic.pagination.page",
+            ecText.accent(String.valueOf(page)),
+            ecText.accent(String.valueOf(pageCount))
+        ));
+        if (page < pageCount) {
+            text.append(" ")
+                .append(pageLink(ecText.getText("generic.pagination.next"), commandForPage.apply(page + 1)));
+        }
+        return text;
+    }
+
+    private static MutableText pageLink(MutableText label, String command) {
+        return label.setStyle(label.getStyle().withClickEvent(new ClickEvent(ClickEvent.Action.RUN_COMMAND, command)));
+    }
+}
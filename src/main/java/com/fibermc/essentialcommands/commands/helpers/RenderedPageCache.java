@@ -0,0 +1,84 @@
+package com.fibermc.essentialcommands.commands.helpers;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.fibermc.essentialcommands.text.TextFormatType;
+import com.fibermc.essentialcommands.types.IStyleProvider;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.text.Style;
+import net.minecraft.text.Text;
+
+/**
+ * Rendered pages of a single listing, kept until the listing changes.
+ *
+ * <p>Pages are keyed by everything that affects their content: sort order, page, page size, the command the entries
+ * run, the viewer's styles and, for listings filtered per viewer, which entries the viewer can see. Only the most
+ * recently used pages are kept. Use counts are versioned separately, so that counting a use only re-renders pages
+ * sorted by use.
+ */
+public final class RenderedPageCache {
+    private static final int MAX_PAGES = 64;
+
+    public record Key(
+        ListSortOrder sortOrder,
+        int page,
+        int pageSize,
+        String commandExecText,
+        Style defaultStyle,
+        Style accentStyle,
+        Style errorStyle,
+        @Nullable Object filterKey)
+    {
+        public static Key of(
+            ListSortOrder sortOrder,
+            int page,
+            int pageSize,
+            String commandExecText,
+            IStyleProvider styleProvider,
+            @Nullable Object filterKey)
+        {
+            return new Key(
+                sortOrder,
+                page,
+                pageSize,
+                commandExecText,
+                styleProvider.getStyle(TextFormatType.Default),
+                styleProvider.getStyle(TextFormatType.Accent),
+                styleProvider.getStyle(TextFormatType.Error),
+                filterKey);
+        }
+    }
+
+    private record Page(Text text, long useCountVersion) {}
+
+    private final Map<Key, Page> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Page> eldest) {
+            return size() > MAX_PAGES;
+        }
+    };
+    private long version = -1;
+
+    /**
+     * @param version         the listing's current version. Everything cached for an older version is dropped.
+     * @param useCountVersion the current version of the listing's use counts. Pages in a sort order that
+     *                        {@linkplain ListSortOrder#dependsOnUseCounts() depends on use counts} are re-rendered when
+     *                        it changes.
+     * @return the cached page, or the result of {@code render}, which is cached.
+     */
+    public Text get(long version, long useCountVersion, Key key, Supplier<Text> render) {
+        if (version != this.version) {
+            pages.clear();
+            this.version = version;
+        }
+        var page = pages.get(key);
+        if (page == null || (key.sortOrder().dependsOnUseCounts() && page.useCountVersion() != useCountVersion)) {
+            page = new Page(render.get(), useCountVersion);
+            pages.put(key, page);
+        }
+        return page.text();
+    }
+}
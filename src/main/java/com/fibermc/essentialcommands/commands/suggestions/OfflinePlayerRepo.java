@@ -1,25 +1,74 @@
 package com.fibermc.essentialcommands.commands.suggestions;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
+import com.fibermc.essentialcommands.EssentialCommands;
+import com.fibermc.essentialcommands.mixin.UserCacheAccessor;
+import com.fibermc.essentialcommands.mixin.UserCacheEntryAccessor;
+import com.fibermc.essentialcommands.playerdata.PlayerCatalog;
+import com.fibermc.essentialcommands.scheduler.MainThreadInbox;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.jetbrains.annotations.Nullable;
+
 import com.mojang.authlib.GameProfile;
 import com.mojang.authlib.ProfileLookupCallback;
 
 import net.minecraft.network.packet.c2s.common.SyncedClientOptions;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.Util;
+
+import static com.fibermc.essentialcommands.EssentialCommands.CONFIG;
 
+/**
+ * Resolves player names to game profiles, and loads offline players.
+ *
+ * <p>Names are looked up locally first (online players, the server's user cache, then the player catalog), and only
+ * then, if {@code offline_profile_remote_lookup} is enabled, with the game profile repository. Remote lookups for several names
+ * are sent as one batch, off the server thread. Results, including names that could not be found, are kept in bounded
+ * caches. Names that could not be found are only kept from being looked up remotely again, so players who join under
+ * such a name are found locally right away.
+ */
 public class OfflinePlayerRepo {
+    private static final Duration PROFILE_TTL = Duration.ofHours(1);
+    private static final Duration UNKNOWN_NAME_TTL = Duration.ofMinutes(5);
 
-    private final HashMap<String, GameProfile> gameProfileCache = new HashMap<>();
+    // Keyed by lower case name. Guava caches are safe to use from any thread.
+    private final Cache<String, GameProfile> profileCache;
+    private final Cache<String, Boolean> unknownNameCache;
     private final MinecraftServer server;
 
     public OfflinePlayerRepo(MinecraftServer server) {
         this.server = server;
+        this.profileCache = CacheBuilder.newBuilder()
+            .maximumSize(CONFIG.OFFLINE_PROFILE_CACHE_SIZE)
+            .expireAfterWrite(PROFILE_TTL)
+            .build();
+        this.unknownNameCache = CacheBuilder.newBuilder()
+            .maximumSize(CONFIG.OFFLINE_PROFILE_CACHE_SIZE)
+            .expireAfterWrite(UNKNOWN_NAME_TTL)
+            .build();
     }
 
+    /**
+     * @return a future completed on the server thread, with null if no player with that name was found. If the player
+     * is online, their current entity is returned.
+     */
     public CompletableFuture<ServerPlayerEntity> getOfflinePlayerByNameAsync(String playerName) {
+        var onlinePlayer = server.getPlayerManager().getPlayer(playerName);
+        if (onlinePlayer != null) {
+            return CompletableFuture.completedFuture(onlinePlayer);
+        }
+
+        // getGameProfile completes on the server thread, which is where the player entity must be created and loaded.
         return getGameProfile(playerName)
             .handle(((gameProfile, throwable) -> gameProfile == null
                 ? null
@@ -38,35 +87,117 @@ public class OfflinePlayerRepo {
         return player;
     }
 
+    /**
+     * @return a future completed on the server thread (immediately, if the profile is known locally), with null if no
+     * player with that name was found.
+     */
     public CompletableFuture<GameProfile> getGameProfile(String playerName) {
-        var profile = gameProfileCache.get(playerName);
-        if (profile != null) {
-            CompletableFuture.completedFuture(profile);
+        return getGameProfiles(List.of(playerName))
+            .thenApply(profiles -> profiles.get(playerName));
+    }
+
+    /**
+     * Resolves several names at once, making at most one remote request for all the names not known locally.
+     *
+     * @return a future completed on the server thread (immediately, if every profile is known locally), with the
+     * profiles found, keyed by the names as given. Names that could not be resolved are absent.
+     */
+    public CompletableFuture<Map<String, GameProfile>> getGameProfiles(Collection<String> playerNames) {
+        Map<String, GameProfile> resolved = new HashMap<>();
+        List<String> remoteNames = new ArrayList<>();
+        for (String playerName : playerNames) {
+            var key = cacheKey(playerName);
+            var profile = profileCache.getIfPresent(key);
+            if (profile == null) {
+                profile = findLocalProfile(playerName);
+                if (profile != null) {
+                    profileCache.put(key, profile);
+                    unknownNameCache.invalidate(key);
+                }
+            }
+
+            if (profile != null) {
+                resolved.put(playerName, profile);
+            } else if (unknownNameCache.getIfPresent(key) == null) {
+                remoteNames.add(playerName);
+            }
+        }
+
+        if (remoteNames.isEmpty() || !CONFIG.OFFLINE_PROFILE_REMOTE_LOOKUP) {
+            return CompletableFuture.completedFuture(resolved);
         }
-        return requestGameProfile(playerName)
-            .whenComplete((gameProfile, err) -> {
-                if (gameProfile != null) {
-                    gameProfileCache.put(gameProfile.getName(), gameProfile);
+
+        return MainThreadInbox.getInstance()
+            .completeOnMainThread(CompletableFuture.supplyAsync(
+                () -> requestGameProfiles(remoteNames),
+                Util.getIoWorkerExecutor()))
+            .thenApply(found -> {
+                var userCache = server.getUserCache();
+                for (String playerName : remoteNames) {
+                    var key = cacheKey(playerName);
+                    var profile = found.get(key);
+                    if (profile == null) {
+                        unknownNameCache.put(key, Boolean.TRUE);
+                        continue;
+                    }
+                    profileCache.put(key, profile);
+                    if (userCache != null) {
+                        userCache.add(profile);
+                    }
+                    resolved.put(playerName, profile);
                 }
+                return resolved;
             });
     }
 
-    private CompletableFuture<GameProfile> requestGameProfile(String playerName) {
-        CompletableFuture<GameProfile> out = new CompletableFuture<>();
+    /**
+     * Looks for the profile without leaving the server. Server thread only.
+     */
+    private @Nullable GameProfile findLocalProfile(String playerName) {
+        var onlinePlayer = server.getPlayerManager().getPlayer(playerName);
+        if (onlinePlayer != null) {
+            return onlinePlayer.getGameProfile();
+        }
+
+        // Read the user cache's map directly: UserCache#findByName falls back to a blocking remote lookup.
+        var userCache = server.getUserCache();
+        if (userCache != null) {
+            var entry = ((UserCacheAccessor) userCache).getByName().get(cacheKey(playerName));
+            if (entry != null) {
+                return ((UserCacheEntryAccessor) entry).getProfile();
+            }
+        }
+
+        // The user cache forgets players that haven't joined in a while; the catalog doesn't.
+        return PlayerCatalog.getInstance().getByName(playerName)
+            .map(PlayerCatalog.Entry::toGameProfile)
+            .orElse(null);
+    }
+
+    /**
+     * Blocks until the game profile repository has answered for every name.
+     *
+     * @return the profiles found, keyed by lower case name.
+     */
+    private Map<String, GameProfile> requestGameProfiles(List<String> playerNames) {
+        Map<String, GameProfile> found = new HashMap<>();
         server.getGameProfileRepo().findProfilesByNames(
-            new String[]{playerName},
+            playerNames.toArray(String[]::new),
             new ProfileLookupCallback() {
                 @Override
                 public void onProfileLookupSucceeded(GameProfile profile) {
-                    System.out.println(profile.toString());
-                    out.complete(profile);
+                    found.put(cacheKey(profile.getName()), profile);
                 }
 
                 @Override
                 public void onProfileLookupFailed(String profileName, Exception exception) {
-                    out.complete(null);
+                    EssentialCommands.LOGGER.debug("Could not find game profile for '{}'", profileName, exception);
                 }
             });
-        return out;
+        return found;
+    }
+
+    private static String cacheKey(String playerName) {
+        return playerName.toLowerCase(Locale.ROOT);
     }
 }
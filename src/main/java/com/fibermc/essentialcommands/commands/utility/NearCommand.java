@@ -4,7 +4,10 @@ import java.util.List;
 
 import com.fibermc.essentialcommands.EssentialCommands;
 import com.fibermc.essentialcommands.commands.CommandUtil;
+import com.fibermc.essentialcommands.commands.helpers.PagedList;
 import com.fibermc.essentialcommands.playerdata.PlayerData;
+import com.fibermc.essentialcommands.playerdata.PlayerDataManager;
+import com.fibermc.essentialcommands.playerdata.PlayerSpatialIndex;
 import com.fibermc.essentialcommands.text.ECText;
 import me.drex.vanish.api.VanishAPI;
 
@@ -13,11 +16,9 @@ import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 
-import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
-import net.minecraft.util.math.Vec3d;
 
 import dev.jpcode.eccore.util.TextUtil;
 
@@ -43,24 +44,58 @@ public class NearCommand implements Command<ServerCommandSource> {
             return 0;
         }
 
-        return exec(senderPlayerData, targetPlayer, range);
+        return exec(senderPlayerData, targetPlayer, range, getPage(context));
     }
 
     public static int exec(PlayerData senderPlayerData, ServerPlayerEntity targetPlayer, int range) {
-        Vec3d basePos = targetPlayer.getPos();
-
-        List<Text> players = targetPlayer.getWorld().getPlayers().stream()
-            .filter(player ->
-                targetPlayer.getUuid() != player.getUuid()
-                && basePos.isInRange(player.getPos(), range)
-                && (!EssentialCommands.VANISH_PRESENT || VanishAPI.canSeePlayer((ServerPlayerEntity) player, senderPlayerData.getPlayer()))
-            )
-            .map(PlayerEntity::getDisplayName)
+        return exec(senderPlayerData, targetPlayer, range, 1);
+    }
+
+    public static int exec(PlayerData senderPlayerData, ServerPlayerEntity targetPlayer, int range, int page) {
+        var ecText = ECText.access(senderPlayerData.getPlayer());
+        List<PlayerSpatialIndex.Neighbor> nearbyPlayers = PlayerDataManager.getInstance().getSpatialIndex()
+            .queryRadius(targetPlayer.getWorld().getRegistryKey(), targetPlayer.getPos(), range)
+            .stream()
+            .filter(neighbor -> {
+                var player = neighbor.playerData().getPlayer();
+                return !targetPlayer.getUuid().equals(player.getUuid())
+                    && (!EssentialCommands.VANISH_PRESENT || VanishAPI.canSeePlayer(player, senderPlayerData.getPlayer()));
+            })
+            .toList();
+
+        if (nearbyPlayers.isEmpty()) {
+            senderPlayerData.sendCommandFeedback("cmd.near.feedback.empty");
+            return SINGLE_SUCCESS;
+        }
+
+        var pagedPlayers = PagedList.of(nearbyPlayers, page, Math.max(1, EssentialCommands.CONFIG.LIST_PAGE_SIZE));
+        List<Text> entries = pagedPlayers.entries().stream()
+            .map(neighbor -> (Text) ecText.getText(
+                "cmd.near.feedback.entry",
+                neighbor.playerData().getPlayer().getDisplayName(),
+                ecText.accent(String.valueOf((int) neighbor.distance()))
+            ))
             .toList();
 
-        if (players.isEmpty()) senderPlayerData.sendCommandFeedback("cmd.near.feedback.empty");
-        else senderPlayerData.sendCommandFeedback("cmd.near.feedback.list", TextUtil.join(players, Text.literal(", ")));
+        senderPlayerData.sendCommandFeedback("cmd.near.feedback.list", TextUtil.join(entries, Text.literal(", ")));
+        if (pagedPlayers.hasMultiplePages()) {
+            String baseCommand = targetPlayer != senderPlayerData.getPlayer()
+                ? "/near %d %s".formatted(range, targetPlayer.getGameProfile().getName())
+                : "/near %d".formatted(range);
+            senderPlayerData.sendCommandFeedback(pagedPlayers.getNavigationText(
+                ecText,
+                targetPage -> "%s page %d".formatted(baseCommand, targetPage)
+            ));
+        }
 
         return SINGLE_SUCCESS;
     }
+
+    private static int getPage(CommandContext<ServerCommandSource> context) {
+        try {
+            return IntegerArgumentType.getInteger(context, "page");
+        } catch (IllegalArgumentException e) {
+            return 1;
+        }
+    }
 }
@@ -27,7 +27,7 @@ import dev.jpcode.eccore.config.ConfigOption;
 import dev.jpcode.eccore.config.ConfigUtil;
 import dev.jpcode.eccore.config.Option;
 import dev.jpcode.eccore.config.expression.Expression;
-import dev.jpcode.eccore.config.expression.PatternMatchingExpressionReader;
+import dev.jpcode.eccore.config.expression.ExpressionParser;
 import dev.jpcode.eccore.util.TextUtil;
 
 import static com.fibermc.essentialcommands.EssentialCommands.LOGGER;
@@ -90,7 +90,13 @@ public final class EssentialCommandsConfig extends Config<EssentialCommandsConfi
     @ConfigOption public final Option<Integer> RTP_MIN_RADIUS =         new Option<>("rtp_min_radius", RTP_RADIUS.getValue(), (String s) -> parseIntOrDefault(s, RTP_RADIUS.getValue()));
     @ConfigOption public final Option<Integer> RTP_COOLDOWN =           new Option<>("rtp_cooldown", 30, ConfigUtil::parseInt);
     @ConfigOption public final Option<Integer> RTP_MAX_ATTEMPTS =       new Option<>("rtp_max_attempts", 15, ConfigUtil::parseInt);
-    @ConfigOption public final Option<List<String>> RTP_ENABLED_WORLDS = new Option<>("rtp_enabled_worlds", List.of(World.OVERWORLD.getValue().getPath()), arrayParser(Object::toString));
+    @ConfigOption(snapshot = false) public final Option<List<String>> RTP_ENABLED_WORLDS = new Option<>("rtp_enabled_worlds", List.of(World.OVERWORLD.getValue().getPath()), arrayParser(Object::toString));
+    @ConfigOption public final Option<Integer> RTP_POOL_SIZE =          new Option<>("rtp_pool_size", 5, ConfigUtil::parseInt);
+    @ConfigOption public final Option<Double>  RTP_POOL_REFILL_MAX_MSPT = new Option<>("rtp_pool_refill_max_mspt", 35D, ConfigUtil::parseDouble);
+    @ConfigOption(snapshot = false) public final Option<List<String>> RTP_BIOME_DENY_LIST = new Option<>("rtp_biome_deny_list", List.of("#minecraft:is_ocean", "#minecraft:is_river"), arrayParser(Object::toString));
+    @ConfigOption public final Option<Boolean> RTP_PREFILTER_TERRAIN =  new Option<>("rtp_prefilter_terrain", true, Boolean::parseBoolean);
+    @ConfigOption public final Option<Integer> RTP_MAX_CONCURRENT_SEARCHES = new Option<>("rtp_max_concurrent_searches", 2, ConfigUtil::parseInt);
+    @ConfigOption public final Option<Integer> RTP_MAX_QUEUED_SEARCHES = new Option<>("rtp_max_queued_searches", 20, ConfigUtil::parseInt);
     @ConfigOption public final Option<Boolean> BROADCAST_TO_OPS =       new Option<>("broadcast_to_ops", false, Boolean::parseBoolean);
     @ConfigOption public final Option<Boolean> NICK_REVEAL_ON_HOVER =   new Option<>("nick_reveal_on_hover", true, Boolean::parseBoolean);
     @ConfigOption public final Option<Boolean> GRANT_LOWEST_NUMERIC_BY_DEFAULT = new Option<>("grant_lowest_numeric_by_default", true, Boolean::parseBoolean);
@@ -102,17 +108,35 @@ public final class EssentialCommandsConfig extends Config<EssentialCommandsConfi
     @ConfigOption public final Option<Integer> AUTO_AFK_TICKS = new Option<>("auto_afk_time", durationToTicks(Duration.ofMinutes(15)), ConfigUtil::parseDurationToTicks, ConfigUtil::serializeTicksAsDuration);
     @ConfigOption public final Option<Boolean> REGISTER_TOP_LEVEL_COMMANDS = new Option<>("register_top_level_commands", true, Boolean::parseBoolean);
     @ConfigOption public final Option<List<String>> EXCLUDED_TOP_LEVEL_COMMANDS = new Option<>("excluded_top_level_commands", List.of(), ConfigUtil.arrayParser(Object::toString));
-    @ConfigOption public final Option<Expression<RespawnCondition>> RESPAWN_AT_EC_SPAWN = new Option<>("respawn_at_ec_spawn", Expression.of(RespawnCondition.Never), (str) -> str.isBlank() ? Expression.of(RespawnCondition.Never) : PatternMatchingExpressionReader.parse(str, RespawnCondition::valueOf), Expression::serialize);
+    @ConfigOption public final Option<Expression<RespawnCondition>> RESPAWN_AT_EC_SPAWN = new Option<>("respawn_at_ec_spawn", Expression.of(RespawnCondition.Never).compile(), (str) -> str.isBlank() ? Expression.of(RespawnCondition.Never).compile() : ExpressionParser.parse(str, RespawnCondition::valueOf).compile(), Expression::serialize);
     // TODO @1.0.0: Enable PERSIST_BACK_LOCATION by default
     @ConfigOption public final Option<Boolean> PERSIST_BACK_LOCATION = new Option<>("persist_back_location", false, Boolean::parseBoolean);
+    @ConfigOption public final Option<Integer> BACK_HISTORY_SIZE = new Option<>("back_history_size", 10, ConfigUtil::parseInt);
     @ConfigOption public final Option<Boolean> RECHECK_PLAYER_ABILITY_PERMISSIONS_ON_DIMENSION_CHANGE = new Option<>("recheck_player_ability_permissions_on_dimension_change", false, Boolean::parseBoolean);
     @ConfigOption public final Option<Integer> FLY_MAX_SPEED = new Option<>("fly_max_speed", 5, ConfigUtil::parseInt);
     @ConfigOption public final Option<Integer> NEAR_COMMAND_DEFAULT_RADIUS = new Option<>("near_command_default_radius", 200, ConfigUtil::parseInt);
     @ConfigOption public final Option<Integer> NEAR_COMMAND_MAX_RADIUS = new Option<>("near_command_max_radius", 200, ConfigUtil::parseInt);
+    @ConfigOption public final Option<Integer> LIST_PAGE_SIZE = new Option<>("list_page_size", 10, ConfigUtil::parseInt);
     @ConfigOption public final Option<Boolean> PRINT_TELEPORT_COORDINATES = new Option<>("print_teleport_coordinates", true, Boolean::parseBoolean);
+    @ConfigOption public final Option<Boolean> SAFE_TELEPORT_ENABLED = new Option<>("safe_teleport_enabled", true, Boolean::parseBoolean);
+    // Clamped to 0..8 (SafeDestinationResolver.MAX_SEARCH_RADIUS), since every block in the cube is checked in one tick.
+    @ConfigOption public final Option<Integer> SAFE_TELEPORT_SEARCH_RADIUS = new Option<>("safe_teleport_search_radius", 3, ConfigUtil::parseInt);
+    @ConfigOption public final Option<Integer> BULK_TELEPORT_MAX_PER_TICK = new Option<>("bulk_teleport_max_per_tick", 5, ConfigUtil::parseInt);
+    @ConfigOption public final Option<Double> BULK_TELEPORT_TICK_BUDGET_MS = new Option<>("bulk_teleport_tick_budget_ms", 10D, ConfigUtil::parseDouble);
+    @ConfigOption public final Option<Double> SCHEDULER_LOW_PRIORITY_BUDGET_MS = new Option<>("scheduler_low_priority_budget_ms", 5D, ConfigUtil::parseDouble);
+    @ConfigOption public final Option<Boolean> OFFLINE_PROFILE_REMOTE_LOOKUP = new Option<>("offline_profile_remote_lookup", true, Boolean::parseBoolean);
+    @ConfigOption public final Option<Integer> OFFLINE_PROFILE_CACHE_SIZE = new Option<>("offline_profile_cache_size", 512, ConfigUtil::parseInt);
+    @ConfigOption public final Option<Integer> PLAYER_DATA_JOB_THREADS = new Option<>("player_data_job_threads", 2, ConfigUtil::parseInt);
+    @ConfigOption public final Option<Double> PLAYER_DATA_JOB_FILES_PER_SECOND = new Option<>("player_data_job_files_per_second", 200D, ConfigUtil::parseDouble);
+    @ConfigOption public final Option<Double> PLAYER_DATA_JOB_FILES_PER_SECOND_WITH_PLAYERS_ONLINE = new Option<>("player_data_job_files_per_second_with_players_online", 25D, ConfigUtil::parseDouble);
+    @ConfigOption public final Option<String> DATA_FILE_CODEC = new Option<>("data_file_codec", "gzip", String::toString);
+    @ConfigOption public final Option<Integer> DATA_FILE_GZIP_LEVEL = new Option<>("data_file_gzip_level", -1, ConfigUtil::parseInt);
+    @ConfigOption public final Option<String> STORAGE_BACKEND = new Option<>("storage_backend", "nbt", String::toString);
+    @ConfigOption public final Option<Integer> PLAYER_DATA_SAVE_INTERVAL_TICKS = new Option<>("player_data_save_interval_ticks", 6000, ConfigUtil::parseInt);
+    @ConfigOption public final Option<Integer> PLAYER_DATA_SAVE_BUCKETS = new Option<>("player_data_save_buckets", 60, ConfigUtil::parseInt);
 
     public EssentialCommandsConfig(Path savePath, String displayName, String documentationLink) {
-        super(savePath, displayName, documentationLink);
+        super(savePath, displayName, documentationLink, new EssentialCommandsConfigBinder());
         HOME_LIMIT.changeEvent.register(newValue ->
                 ECPerms.Registry.Group.home_limit_group = ECPerms.makeNumericPermissionGroup("essentialcommands.home.limit", newValue)
         );
@@ -159,7 +183,7 @@ public final class EssentialCommandsConfig extends Config<EssentialCommandsConfi
                 server.getWorldRegistryKeys().stream()
                     .filter(k -> validConfiguredWorldIds.contains(k.getValue()))
                     .forEach(this.validRtpWorldIds::add);
-                EssentialCommands.refreshConfigSnapshot();
+                EssentialCommands.refreshConfigSnapshot(Set.of(RTP_ENABLED_WORLDS));
             });
         });
     }
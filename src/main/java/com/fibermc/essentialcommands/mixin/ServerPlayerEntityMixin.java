@@ -8,7 +8,6 @@ import com.fibermc.essentialcommands.events.PlayerDeathCallback;
 import com.fibermc.essentialcommands.playerdata.*;
 import com.fibermc.essentialcommands.teleportation.QueuedTeleport;
 import com.fibermc.essentialcommands.text.ECText;
-import com.fibermc.essentialcommands.types.MinecraftLocation;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.Unique;
@@ -173,7 +172,7 @@ public abstract class ServerPlayerEntityMixin extends PlayerEntityMixin implemen
     @Inject(method = "teleport(Lnet/minecraft/server/world/ServerWorld;DDDFF)V", at = @At("HEAD"))
     public void onTeleport(ServerWorld targetWorld, double x, double y, double z, float yaw, float pitch, CallbackInfo ci) {
         if (!isSpectator()) {
-            this.ec$getPlayerData().setPreviousLocation(new MinecraftLocation((ServerPlayerEntity) (Object) this));
+            this.ec$getPlayerData().recordBackLocation();
         }
     }
 
@@ -3,7 +3,6 @@ package com.fibermc.essentialcommands.mixin;
 import java.util.Set;
 
 import com.fibermc.essentialcommands.access.ServerPlayerEntityAccess;
-import com.fibermc.essentialcommands.types.MinecraftLocation;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Coerce;
@@ -40,7 +39,7 @@ public class TeleportCommandMixin {
             var targetPlayer = (ServerPlayerEntity)target;
             var targetPlayerData = ((ServerPlayerEntityAccess)target).ec$getPlayerData();
             if (!targetPlayer.isSpectator()) {
-                targetPlayerData.setPreviousLocation(new MinecraftLocation(targetPlayer));
+                targetPlayerData.recordBackLocation();
             }
         }
     }
@@ -0,0 +1,17 @@
+package com.fibermc.essentialcommands.mixin;
+
+import java.util.Map;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+import net.minecraft.util.UserCache;
+
+@Mixin(UserCache.class)
+public interface UserCacheAccessor {
+
+    // Values are UserCache.Entry, which is not visible from here. See UserCacheEntryAccessor.
+    @Accessor("byName")
+    Map<String, Object> getByName();
+
+}
@@ -0,0 +1,14 @@
+package com.fibermc.essentialcommands.mixin;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+import com.mojang.authlib.GameProfile;
+
+@Mixin(targets = "net.minecraft.util.UserCache$Entry")
+public interface UserCacheEntryAccessor {
+
+    @Accessor("profile")
+    GameProfile getProfile();
+
+}
@@ -0,0 +1,33 @@
+package com.fibermc.essentialcommands.mixin;
+
+import com.fibermc.essentialcommands.teleportation.SafeDestinationResolver;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.WorldChunk;
+
+@Mixin(WorldChunk.class)
+public abstract class WorldChunkMixin {
+
+    @Shadow
+    @Final
+    World world;
+
+    @Inject(method = "setBlockState", at = @At("RETURN"))
+    public void invalidateSafeDestinations(BlockPos pos, BlockState state, boolean moved, CallbackInfoReturnable<BlockState> cir) {
+        // A null return value means nothing changed.
+        if (cir.getReturnValue() != null && world instanceof ServerWorld serverWorld) {
+            SafeDestinationResolver.getInstance().invalidateFromAnyThread(
+                serverWorld,
+                ((WorldChunk) (Object) this).getPos().toLong());
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.fibermc.essentialcommands.playerdata;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.fibermc.essentialcommands.types.MinecraftLocation;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtIntArray;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.nbt.NbtLongArray;
+import net.minecraft.nbt.NbtString;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.Identifier;
+import net.minecraft.world.World;
+
+/**
+ * Fixed-capacity ring buffer of a player's most recent {@code /back} locations.
+ *
+ * <p>Entries are stored column-wise in primitive arrays, with dimensions interned to small integer ids, so that
+ * recording a location (which happens on every teleport) doesn't allocate. {@link MinecraftLocation} objects are only
+ * created when an entry is read.
+ *
+ * <p>The dimension ids are shared by every history, and histories are loaded off the server thread (e.g. by player data
+ * jobs and imports), so interning is thread-safe. A single history is not.
+ */
+public final class BackLocationHistory {
+    private static final Map<RegistryKey<World>, Integer> DIMENSION_IDS = new ConcurrentHashMap<>();
+    private static final List<RegistryKey<World>> DIMENSIONS = new CopyOnWriteArrayList<>();
+
+    private final int capacity;
+    private final double[] x;
+    private final double[] y;
+    private final double[] z;
+    private final float[] headYaw;
+    private final float[] pitch;
+    private final int[] dimensionId;
+    // Index the next entry will be written to.
+    private int head;
+    private int size;
+
+    public BackLocationHistory(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.x = new double[this.capacity];
+        this.y = new double[this.capacity];
+        this.z = new double[this.capacity];
+        this.headYaw = new float[this.capacity];
+        this.pitch = new float[this.capacity];
+        this.dimensionId = new int[this.capacity];
+    }
+
+    /**
+     * Records the player's current location as the most recent entry, overwriting the oldest one when full. Nothing is
+     * recorded if the location is the same as the most recent entry: some teleports pass through more than one hook
+     * (e.g. vanilla {@code /tp} to another dimension), and should still only take up one entry.
+     */
+    public void record(ServerPlayerEntity player) {
+        record(player.getWorld().getRegistryKey(), player.getX(), player.getY(), player.getZ(), player.getHeadYaw(), player.getPitch());
+    }
+
+    public void record(MinecraftLocation location) {
+        record(location.dim(), location.pos().x, location.pos().y, location.pos().z, location.headYaw(), location.pitch());
+    }
+
+    private void record(RegistryKey<World> dimension, double x, double y, double z, float headYaw, float pitch) {
+        int dimensionId = internDimension(dimension);
+        if (size > 0) {
+            int newest = Math.floorMod(head - 1, capacity);
+            if (this.dimensionId[newest] == dimensionId
+                && this.x[newest] == x && this.y[newest] == y && this.z[newest] == z
+                && this.headYaw[newest] == headYaw && this.pitch[newest] == pitch
+            ) {
+                return;
+            }
+        }
+
+        this.x[head] = x;
+        this.y[head] = y;
+        this.z[head] = z;
+        this.headYaw[head] = headYaw;
+        this.pitch[head] = pitch;
+        this.dimensionId[head] = dimensionId;
+        head = (head + 1) % capacity;
+        size = Math.min(size + 1, capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param n 1 for the most recent location, 2 for the one before it, and so on.
+     * @return the location, or null if fewer than {@code n} locations are recorded.
+     */
+    public @Nullable MinecraftLocation get(int n) {
+        if (n < 1 || n > size) {
+            return null;
+        }
+        int index = Math.floorMod(head - n, capacity);
+        return new MinecraftLocation(
+            DIMENSIONS.get(dimensionId[index]),
+            x[index], y[index], z[index],
+            headYaw[index], pitch[index]
+        );
+    }
+
+    /**
+     * @return every recorded location, most recent first.
+     */
+    public List<MinecraftLocation> toList() {
+        List<MinecraftLocation> locations = new ArrayList<>(size);
+        for (int n = 1; n <= size; n++) {
+            locations.add(get(n));
+        }
+        return locations;
+    }
+
+    private static final class StorageKey {
+        static final String DIMENSIONS = "dimensions";
+        static final String DIMENSION_INDICES = "dimensionIndices";
+        static final String POSITIONS = "positions";
+        static final String ROTATIONS = "rotations";
+    }
+
+    /**
+     * Writes entries oldest first: a palette of the dimension ids used, one palette index per entry, and the raw bits
+     * of the coordinates and rotations packed into a long and an int array.
+     */
+    public NbtCompound writeNbt(NbtCompound tag) {
+        List<RegistryKey<World>> palette = new ArrayList<>();
+        int[] dimensionIndices = new int[size];
+        long[] positions = new long[size * 3];
+        int[] rotations = new int[size * 2];
+
+        for (int i = 0; i < size; i++) {
+            int index = Math.floorMod(head - size + i, capacity);
+            var dimension = DIMENSIONS.get(dimensionId[index]);
+            int paletteIndex = palette.indexOf(dimension);
+            if (paletteIndex < 0) {
+                paletteIndex = palette.size();
+                palette.add(dimension);
+            }
+            dimensionIndices[i] = paletteIndex;
+            positions[i * 3] = Double.doubleToRawLongBits(x[index]);
+            positions[i * 3 + 1] = Double.doubleToRawLongBits(y[index]);
+            positions[i * 3 + 2] = Double.doubleToRawLongBits(z[index]);
+            rotations[i * 2] = Float.floatToRawIntBits(headYaw[index]);
+            rotations[i * 2 + 1] = Float.floatToRawIntBits(pitch[index]);
+        }
+
+        NbtList paletteNbt = new NbtList();
+        palette.forEach(dimension -> paletteNbt.add(NbtString.of(dimension.getValue().toString())));
+        tag.put(StorageKey.DIMENSIONS, paletteNbt);
+        tag.put(StorageKey.DIMENSION_INDICES, new NbtIntArray(dimensionIndices));
+        tag.put(StorageKey.POSITIONS, new NbtLongArray(positions));
+        tag.put(StorageKey.ROTATIONS, new NbtIntArray(rotations));
+        return tag;
+    }
+
+    /**
+     * Appends the entries in {@code tag} (as written by {@link #writeNbt}) to this history. If there are more entries
+     * than this history can hold, only the most recent ones are kept.
+     */
+    public void loadNbt(NbtCompound tag) {
+        NbtList paletteNbt = tag.getList(StorageKey.DIMENSIONS, NbtElement.STRING_TYPE);
+        int[] dimensionIndices = tag.getIntArray(StorageKey.DIMENSION_INDICES);
+        long[] positions = tag.getLongArray(StorageKey.POSITIONS);
+        int[] rotations = tag.getIntArray(StorageKey.ROTATIONS);
+
+        int entryCount = Math.min(dimensionIndices.length, Math.min(positions.length / 3, rotations.length / 2));
+        for (int i = Math.max(0, entryCount - capacity); i < entryCount; i++) {
+            var dimensionIdentifier = Identifier.tryParse(paletteNbt.getString(dimensionIndices[i]));
+            if (dimensionIdentifier == null) {
+                continue;
+            }
+            record(
+                RegistryKey.of(RegistryKeys.WORLD, dimensionIdentifier),
+                Double.longBitsToDouble(positions[i * 3]),
+                Double.longBitsToDouble(positions[i * 3 + 1]),
+                Double.longBitsToDouble(positions[i * 3 + 2]),
+                Float.intBitsToFloat(rotations[i * 2]),
+                Float.intBitsToFloat(rotations[i * 2 + 1])
+            );
+        }
+    }
+
+    private static int internDimension(RegistryKey<World> dimension) {
+        Integer id = DIMENSION_IDS.get(dimension);
+        return id != null
+            ? id
+            : internNewDimension(dimension);
+    }
+
+    private static synchronized int internNewDimension(RegistryKey<World> dimension) {
+        Integer id = DIMENSION_IDS.get(dimension);
+        if (id == null) {
+            id = DIMENSIONS.size();
+            // Added to the list first, so that any thread that can see the id can also resolve it.
+            DIMENSIONS.add(dimension);
+            DIMENSION_IDS.put(dimension, id);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,512 @@
+package com.fibermc.essentialcommands.playerdata;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import com.fibermc.essentialcommands.EssentialCommands;
+import com.fibermc.essentialcommands.scheduler.MainThreadInbox;
+import com.fibermc.essentialcommands.scheduler.TickScheduler;
+import com.fibermc.essentialcommands.storage.StorageManager;
+import com.fibermc.essentialcommands.types.NamedMinecraftLocation;
+import com.fibermc.essentialcommands.util.DataFileCodec;
+import com.fibermc.essentialcommands.util.FileUtil;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtDouble;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.Util;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+
+/**
+ * Every player's homes, online or not, indexed by dimension and 128x128 block region, so that moderators can ask which
+ * homes are near a spot without reading every player data record.
+ *
+ * <p>The index is saved to {@code essentialcommands/home_index.dat}, along with the modification time of each player
+ * data record it was read from. On server start it is loaded and brought up to date in the background: only player
+ * data records that are new or changed since are read. While running, it is kept up to date by
+ * {@link PlayerData#addHome} and {@link PlayerData#removeHome}, and saved periodically off the server thread. Saves
+ * run one at a time, and the server waits for the last one before saving on shutdown.
+ */
+public final class HomeIndex {
+    private static final int REGION_SHIFT = 7;
+    private static final String INDEX_FILE_NAME = "home_index.dat";
+    private static final int SAVE_INTERVAL_TICKS = 20 * 60 * 5;
+
+    private static HomeIndex instance;
+
+    public record IndexedHome(UUID owner, String name, RegistryKey<World> dim, Vec3d pos) {}
+
+    public record Result(IndexedHome home, double distance) {}
+
+    /**
+     * The homes read from one player data record.
+     *
+     * @param fileModified modification time of the record when it was read, or 0 if the homes changed since
+     */
+    private record OwnerEntry(long fileModified, List<IndexedHome> homes) {}
+
+    private final Map<RegistryKey<World>, Long2ObjectMap<List<IndexedHome>>> homesByRegion = new HashMap<>();
+    private final Map<UUID, Map<String, IndexedHome>> homesByOwner = new HashMap<>();
+    private final Map<UUID, Long> fileModifiedByOwner = new HashMap<>();
+    // Owners whose homes changed while the index was being built, whose build results are out of date, and what was
+    // removed from them in that time.
+    private final Set<UUID> changedDuringBuild = new HashSet<>();
+    private final Map<UUID, Set<String>> removedDuringBuild = new HashMap<>();
+    private final Set<UUID> ownersRemovedDuringBuild = new HashSet<>();
+    private boolean clearedDuringBuild;
+    private boolean building;
+    private boolean dirty;
+    // Each save runs after the previous one, so that an older snapshot never overwrites a newer one.
+    private CompletableFuture<Void> pendingSave = CompletableFuture.completedFuture(null);
+
+    private HomeIndex() {}
+
+    public static HomeIndex getInstance() {
+        if (instance == null) {
+            instance = new HomeIndex();
+        }
+        return instance;
+    }
+
+    public static void init() {
+        getInstance();
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> {
+            instance.build(server);
+            TickScheduler.getInstance().scheduleRepeating(
+                "home-index-save",
+                TickScheduler.Priority.LOW,
+                SAVE_INTERVAL_TICKS,
+                SAVE_INTERVAL_TICKS,
+                instance::saveAsyncIfDirty);
+        });
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> {
+            // Wait for the last periodic save, so that it can't finish after (and overwrite) this one.
+            instance.pendingSave.join();
+            if (instance.dirty && !instance.building) {
+                writeIndexFile(server, instance.toNbt());
+            }
+            instance.clear();
+        });
+    }
+
+    public boolean isBuilding() {
+        return building;
+    }
+
+    public int size() {
+        return homesByOwner.values().stream().mapToInt(Map::size).sum();
+    }
+
+    // Updates
+
+    public void put(UUID owner, NamedMinecraftLocation home) {
+        remove(owner, home.getName());
+        add(new IndexedHome(owner, home.getName(), home.dim(), home.pos()));
+        markChanged(owner);
+    }
+
+    public void remove(UUID owner, String homeName) {
+        var ownerHomes = homesByOwner.get(owner);
+        if (ownerHomes == null) {
+            return;
+        }
+        var home = ownerHomes.remove(homeName);
+        if (home == null) {
+            return;
+        }
+        if (ownerHomes.isEmpty()) {
+            homesByOwner.remove(owner);
+        }
+        if (building) {
+            removedDuringBuild.computeIfAbsent(owner, k -> new HashSet<>()).add(homeName);
+        }
+        var regions = homesByRegion.get(home.dim());
+        long regionKey = regionKey(home.pos().x, home.pos().z);
+        var regionHomes = regions.get(regionKey);
+        regionHomes.remove(home);
+        if (regionHomes.isEmpty()) {
+            regions.remove(regionKey);
+        }
+        markChanged(owner);
+    }
+
+    /**
+     * Drops all of a player's homes, e.g. after their player data record was deleted.
+     */
+    public void removeOwner(UUID owner) {
+        var ownerHomes = homesByOwner.get(owner);
+        if (ownerHomes != null) {
+            for (String homeName : List.copyOf(ownerHomes.keySet())) {
+                remove(owner, homeName);
+            }
+        }
+        fileModifiedByOwner.remove(owner);
+        if (building) {
+            changedDuringBuild.add(owner);
+            ownersRemovedDuringBuild.add(owner);
+        }
+        dirty = true;
+    }
+
+    /**
+     * Drops every indexed home, e.g. after all player data was deleted.
+     */
+    public void clear() {
+        homesByRegion.clear();
+        homesByOwner.clear();
+        fileModifiedByOwner.clear();
+        clearBuildChanges();
+        // Everything the build read is gone now.
+        clearedDuringBuild = building;
+        dirty = true;
+    }
+
+    private void clearBuildChanges() {
+        changedDuringBuild.clear();
+        removedDuringBuild.clear();
+        ownersRemovedDuringBuild.clear();
+    }
+
+    private void add(IndexedHome home) {
+        homesByOwner.computeIfAbsent(home.owner(), k -> new HashMap<>()).put(home.name(), home);
+        homesByRegion.computeIfAbsent(home.dim(), k -> new Long2ObjectOpenHashMap<>())
+            .computeIfAbsent(regionKey(home.pos().x, home.pos().z), k -> new ArrayList<>())
+            .add(home);
+    }
+
+    private void replaceOwner(UUID owner, OwnerEntry entry) {
+        var ownerHomes = homesByOwner.get(owner);
+        if (ownerHomes != null) {
+            for (String homeName : List.copyOf(ownerHomes.keySet())) {
+                remove(owner, homeName);
+            }
+        }
+        entry.homes().forEach(this::add);
+        fileModifiedByOwner.put(owner, entry.fileModified());
+    }
+
+    private void markChanged(UUID owner) {
+        // The player data record no longer matches what was indexed from it, until it is saved. Forget its
+        // modification time, so that it is read again on the next start.
+        fileModifiedByOwner.put(owner, 0L);
+        if (building) {
+            changedDuringBuild.add(owner);
+        }
+        dirty = true;
+    }
+
+    // Queries
+
+    /**
+     * @return homes within {@code radius} blocks (horizontally) of {@code center}, nearest first.
+     */
+    public List<Result> queryRadius(RegistryKey<World> dim, Vec3d center, double radius) {
+        double radiusSquared = radius * radius;
+        List<Result> results = new ArrayList<>();
+        forEachInBox(dim, center.x - radius, center.z - radius, center.x + radius, center.z + radius, home -> {
+            double dx = home.pos().x - center.x;
+            double dz = home.pos().z - center.z;
+            double distanceSquared = dx * dx + dz * dz;
+            if (distanceSquared <= radiusSquared) {
+                results.add(new Result(home, Math.sqrt(distanceSquared)));
+            }
+        });
+        results.sort(Comparator.comparingDouble(Result::distance));
+        return results;
+    }
+
+    /**
+     * @return homes inside the column box spanned by the two corners (inclusive, in either order), sorted by distance
+     * from its center.
+     */
+    public List<Result> queryBox(RegistryKey<World> dim, int x1, int z1, int x2, int z2) {
+        int minX = Math.min(x1, x2);
+        int minZ = Math.min(z1, z2);
+        int maxX = Math.max(x1, x2) + 1;
+        int maxZ = Math.max(z1, z2) + 1;
+        double centerX = (minX + maxX) / 2D;
+        double centerZ = (minZ + maxZ) / 2D;
+
+        List<Result> results = new ArrayList<>();
+        forEachInBox(dim, minX, minZ, maxX, maxZ, home -> {
+            var pos = home.pos();
+            if (pos.x >= minX && pos.x < maxX && pos.z >= minZ && pos.z < maxZ) {
+                results.add(new Result(home, Math.sqrt(MathHelper.squaredHypot(pos.x - centerX, pos.z - centerZ))));
+            }
+        });
+        results.sort(Comparator.comparingDouble(Result::distance));
+        return results;
+    }
+
+    private void forEachInBox(
+        RegistryKey<World> dim,
+        double minX,
+        double minZ,
+        double maxX,
+        double maxZ,
+        Consumer<IndexedHome> consumer)
+    {
+        var regions = homesByRegion.get(dim);
+        if (regions == null) {
+            return;
+        }
+        int minRegionX = MathHelper.floor(minX) >> REGION_SHIFT;
+        int minRegionZ = MathHelper.floor(minZ) >> REGION_SHIFT;
+        int maxRegionX = MathHelper.floor(maxX) >> REGION_SHIFT;
+        int maxRegionZ = MathHelper.floor(maxZ) >> REGION_SHIFT;
+
+        // Huge boxes would touch mostly empty regions, so walk the populated ones instead.
+        long boxRegionCount = (long) (maxRegionX - minRegionX + 1) * (maxRegionZ - minRegionZ + 1);
+        if (boxRegionCount > regions.size()) {
+            for (var entry : regions.long2ObjectEntrySet()) {
+                int regionX = ChunkPos.getPackedX(entry.getLongKey());
+                int regionZ = ChunkPos.getPackedZ(entry.getLongKey());
+                if (regionX >= minRegionX && regionX <= maxRegionX && regionZ >= minRegionZ && regionZ <= maxRegionZ) {
+                    entry.getValue().forEach(consumer);
+                }
+            }
+            return;
+        }
+
+        for (int regionX = minRegionX; regionX <= maxRegionX; regionX++) {
+            for (int regionZ = minRegionZ; regionZ <= maxRegionZ; regionZ++) {
+                var regionHomes = regions.get(ChunkPos.toLong(regionX, regionZ));
+                if (regionHomes != null) {
+                    regionHomes.forEach(consumer);
+                }
+            }
+        }
+    }
+
+    private static long regionKey(double x, double z) {
+        return ChunkPos.toLong(MathHelper.floor(x) >> REGION_SHIFT, MathHelper.floor(z) >> REGION_SHIFT);
+    }
+
+    // Building
+
+    /**
+     * Loads the saved index and reads any player data records changed since, off the server thread. Until that is done,
+     * queries only see homes changed since the server started.
+     */
+    private void build(MinecraftServer server) {
+        building = true;
+        clearedDuringBuild = false;
+        clearBuildChanges();
+        long startNanos = System.nanoTime();
+
+        CompletableFuture.supplyAsync(() -> readAll(server), Util.getIoWorkerExecutor())
+            .whenCompleteAsync((owners, throwable) -> {
+                building = false;
+                if (throwable != null) {
+                    EssentialCommands.LOGGER.error("Failed to build the home index", throwable);
+                    return;
+                }
+                if (clearedDuringBuild) {
+                    EssentialCommands.LOGGER.info("Player data was cleared while the home index was being built");
+                    return;
+                }
+                owners.forEach((owner, entry) -> {
+                    if (changedDuringBuild.contains(owner)) {
+                        mergeChangedOwner(owner, entry);
+                    } else {
+                        replaceOwner(owner, entry);
+                    }
+                });
+                clearBuildChanges();
+                dirty = true;
+                EssentialCommands.LOGGER.info(
+                    "Indexed {} homes of {} players in {} ms",
+                    size(),
+                    owners.size(),
+                    (System.nanoTime() - startNanos) / 1_000_000);
+            }, MainThreadInbox.getInstance());
+    }
+
+    /**
+     * Indexes the homes of an owner whose homes changed while the index was being built, so that only those changes
+     * are indexed so far. Online players' homes are indexed from their loaded data. Otherwise, the homes read from the
+     * record are added, except for those removed or replaced since.
+     */
+    private void mergeChangedOwner(UUID owner, OwnerEntry entry) {
+        var playerData = PlayerDataManager.getInstance().getByUuid(owner);
+        if (playerData != null) {
+            replaceOwner(owner, new OwnerEntry(
+                0L,
+                playerData.getHomeEntries().stream()
+                    .map(home -> new IndexedHome(owner, home.getKey(), home.getValue().dim(), home.getValue().pos()))
+                    .toList()));
+            return;
+        }
+        if (ownersRemovedDuringBuild.contains(owner)) {
+            return;
+        }
+
+        var removedNames = removedDuringBuild.getOrDefault(owner, Set.of());
+        for (IndexedHome home : entry.homes()) {
+            var ownerHomes = homesByOwner.get(owner);
+            if (!removedNames.contains(home.name()) && (ownerHomes == null || !ownerHomes.containsKey(home.name()))) {
+                add(home);
+            }
+        }
+    }
+
+    /**
+     * Runs on an IO worker thread.
+     */
+    private static Map<UUID, OwnerEntry> readAll(MinecraftServer server) {
+        Map<UUID, OwnerEntry> saved = readIndexFile(server);
+        Map<UUID, OwnerEntry> owners = new HashMap<>();
+
+        var backend = StorageManager.getInstance().getBackend();
+        Map<UUID, Long> modifiedTimes;
+        try {
+            modifiedTimes = backend.getPlayerDataModifiedTimes();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        modifiedTimes.forEach((owner, modified) -> {
+            var savedEntry = saved.get(owner);
+            if (savedEntry != null && savedEntry.fileModified() == modified) {
+                owners.put(owner, savedEntry);
+                return;
+            }
+
+            try {
+                var tag = backend.loadPlayerData(owner);
+                if (tag == null) {
+                    return;
+                }
+                var homes = PlayerData.readHomes(tag);
+                owners.put(owner, new OwnerEntry(
+                    modified,
+                    homes.values().stream()
+                        .map(home -> new IndexedHome(owner, home.getName(), home.dim(), home.pos()))
+                        .toList()));
+            } catch (IOException | RuntimeException e) {
+                EssentialCommands.LOGGER.warn("Could not read homes of '{}' for the home index", owner, e);
+            }
+        });
+        return owners;
+    }
+
+    // Persistence
+
+    private static final class StorageKey {
+        static final String OWNERS = "owners";
+        static final String OWNER = "owner";
+        static final String FILE_MODIFIED = "fileModified";
+        static final String HOMES = "homes";
+        static final String NAME = "name";
+        static final String DIMENSION = "dim";
+        static final String POS = "pos";
+    }
+
+    private NbtCompound toNbt() {
+        NbtList ownersNbt = new NbtList();
+        homesByOwner.forEach((owner, homes) -> {
+            NbtList homesNbt = new NbtList();
+            for (IndexedHome home : homes.values()) {
+                NbtCompound homeNbt = new NbtCompound();
+                homeNbt.putString(StorageKey.NAME, home.name());
+                homeNbt.putString(StorageKey.DIMENSION, home.dim().getValue().toString());
+                NbtList posNbt = new NbtList();
+                posNbt.add(NbtDouble.of(home.pos().x));
+                posNbt.add(NbtDouble.of(home.pos().y));
+                posNbt.add(NbtDouble.of(home.pos().z));
+                homeNbt.put(StorageKey.POS, posNbt);
+                homesNbt.add(homeNbt);
+            }
+
+            NbtCompound ownerNbt = new NbtCompound();
+            ownerNbt.putUuid(StorageKey.OWNER, owner);
+            ownerNbt.putLong(StorageKey.FILE_MODIFIED, fileModifiedByOwner.getOrDefault(owner, 0L));
+            ownerNbt.put(StorageKey.HOMES, homesNbt);
+            ownersNbt.add(ownerNbt);
+        });
+
+        NbtCompound tag = new NbtCompound();
+        tag.put(StorageKey.OWNERS, ownersNbt);
+        return tag;
+    }
+
+    private static Map<UUID, OwnerEntry> readIndexFile(MinecraftServer server) {
+        Map<UUID, OwnerEntry> owners = new HashMap<>();
+        Path indexFile;
+        try {
+            indexFile = FileUtil.getOrCreateWorldDirectory(server, "essentialcommands").resolve(INDEX_FILE_NAME);
+            if (!Files.exists(indexFile)) {
+                return owners;
+            }
+
+            NbtList ownersNbt = DataFileCodec.readFile(indexFile)
+                .getList(StorageKey.OWNERS, NbtElement.COMPOUND_TYPE);
+            for (int i = 0; i < ownersNbt.size(); i++) {
+                NbtCompound ownerNbt = ownersNbt.getCompound(i);
+                UUID owner = ownerNbt.getUuid(StorageKey.OWNER);
+                NbtList homesNbt = ownerNbt.getList(StorageKey.HOMES, NbtElement.COMPOUND_TYPE);
+                List<IndexedHome> homes = new ArrayList<>(homesNbt.size());
+                for (int j = 0; j < homesNbt.size(); j++) {
+                    NbtCompound homeNbt = homesNbt.getCompound(j);
+                    var dimension = Identifier.tryParse(homeNbt.getString(StorageKey.DIMENSION));
+                    NbtList posNbt = homeNbt.getList(StorageKey.POS, NbtElement.DOUBLE_TYPE);
+                    if (dimension == null || posNbt.size() != 3) {
+                        continue;
+                    }
+                    homes.add(new IndexedHome(
+                        owner,
+                        homeNbt.getString(StorageKey.NAME),
+                        RegistryKey.of(RegistryKeys.WORLD, dimension),
+                        new Vec3d(posNbt.getDouble(0), posNbt.getDouble(1), posNbt.getDouble(2))));
+                }
+                owners.put(owner, new OwnerEntry(ownerNbt.getLong(StorageKey.FILE_MODIFIED), homes));
+            }
+        } catch (IOException | RuntimeException e) {
+            // Everything will be read from the player data records instead.
+            EssentialCommands.LOGGER.warn("Could not read the saved home index, rebuilding it", e);
+            owners.clear();
+        }
+        return owners;
+    }
+
+    private void saveAsyncIfDirty(MinecraftServer server) {
+        if (!dirty || building) {
+            return;
+        }
+        dirty = false;
+        var tag = toNbt();
+        pendingSave = pendingSave.thenRunAsync(() -> writeIndexFile(server, tag), Util.getIoWorkerExecutor());
+    }
+
+    private static void writeIndexFile(MinecraftServer server, NbtCompound tag) {
+        try {
+            var indexFile = FileUtil.getOrCreateWorldDirectory(server, "essentialcommands").resolve(INDEX_FILE_NAME);
+            DataFileCodec.writeFile(indexFile, tag);
+        } catch (IOException | RuntimeException e) {
+            EssentialCommands.LOGGER.error("Failed to save the home index", e);
+        }
+    }
+}
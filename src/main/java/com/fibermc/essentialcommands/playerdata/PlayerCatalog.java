@@ -0,0 +1,446 @@
+package com.fibermc.essentialcommands.playerdata;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import com.fibermc.essentialcommands.EssentialCommands;
+import com.fibermc.essentialcommands.events.PlayerConnectCallback;
+import com.fibermc.essentialcommands.events.PlayerLeaveCallback;
+import com.fibermc.essentialcommands.scheduler.MainThreadInbox;
+import com.fibermc.essentialcommands.storage.StorageManager;
+import com.fibermc.essentialcommands.util.FileUtil;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import org.jetbrains.annotations.Nullable;
+
+import com.mojang.authlib.GameProfile;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.Util;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+
+/**
+ * One fixed-size record per player who has ever joined: UUID, last known name, plain text nickname, last seen time and
+ * home count. Lets offline-aware features (name lookups and suggestions, {@code /realname}, inactivity listings) work
+ * without opening individual player data records.
+ *
+ * <p>Records live in {@code essentialcommands/player_catalog.bin}, which is memory-mapped, so updates are plain writes
+ * to the mapping and the OS takes care of writing them back. Only the UUID and name lookup tables are kept on the heap.
+ * Records are updated on join, leave, nickname change and home changes.
+ *
+ * <p>The first time the catalog is created, players who joined before are imported from the player data directory in
+ * the background.
+ */
+public final class PlayerCatalog {
+    private static final String FILE_NAME = "player_catalog.bin";
+    private static final int MAGIC = 0x45435043; // "ECPC"
+    private static final int FORMAT_VERSION = 1;
+    private static final int INITIAL_CAPACITY = 256;
+
+    // Header: magic, format version, record count, reserved.
+    private static final int HEADER_SIZE = 16;
+    private static final int HEADER_RECORD_COUNT = 8;
+
+    // Record layout.
+    private static final int RECORD_SIZE = 128;
+    private static final int UUID_MOST = 0;
+    private static final int UUID_LEAST = 8;
+    private static final int LAST_SEEN = 16;
+    private static final int HOME_COUNT = 24;
+    private static final int NAME_LENGTH = 28;
+    private static final int NICKNAME_LENGTH = 29;
+    private static final int NAME = 30;
+    private static final int NAME_MAX_BYTES = 16;
+    private static final int NICKNAME = NAME + NAME_MAX_BYTES;
+    private static final int NICKNAME_MAX_BYTES = RECORD_SIZE - NICKNAME;
+
+    private static PlayerCatalog instance;
+
+    /**
+     * @param nickname        plain text nickname, or null if none is set
+     * @param lastSeenEpochMs when the player last left (or joined, if they are online)
+     */
+    public record Entry(UUID uuid, String name, @Nullable String nickname, long lastSeenEpochMs, int homeCount) {
+        public GameProfile toGameProfile() {
+            return new GameProfile(uuid, name);
+        }
+    }
+
+    private final Object2IntMap<UUID> slotByUuid = new Object2IntOpenHashMap<>();
+    private final Object2IntMap<String> slotByName = new Object2IntOpenHashMap<>();
+    private @Nullable FileChannel channel;
+    private @Nullable MappedByteBuffer buffer;
+    private int capacity;
+    private int recordCount;
+
+    private PlayerCatalog() {
+        slotByUuid.defaultReturnValue(-1);
+        slotByName.defaultReturnValue(-1);
+    }
+
+    public static PlayerCatalog getInstance() {
+        if (instance == null) {
+            instance = new PlayerCatalog();
+        }
+        return instance;
+    }
+
+    public static void init() {
+        getInstance();
+        ServerLifecycleEvents.SERVER_STARTING.register(server -> instance.open(server));
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> instance.close());
+        // Registered after PlayerDataManager's listeners, so player data is already loaded.
+        PlayerConnectCallback.EVENT.register((connection, player) -> instance.update(player));
+        PlayerLeaveCallback.EVENT.register(player -> instance.update(player));
+    }
+
+    // Updates
+
+    /**
+     * Updates the player's record (creating it if needed) from their current name and player data, and marks them as
+     * seen now.
+     */
+    public void update(ServerPlayerEntity player) {
+        var playerData = PlayerData.access(player);
+        write(
+            player.getUuid(),
+            player.getGameProfile().getName(),
+            playerData.getNickname().map(nickname -> nickname.getString()).orElse(null),
+            System.currentTimeMillis(),
+            playerData.getHomeNames().size());
+    }
+
+    public void updateNickname(UUID uuid, @Nullable String nickname) {
+        int slot = slotByUuid.getInt(uuid);
+        if (slot >= 0) {
+            putString(recordOffset(slot), NICKNAME, NICKNAME_LENGTH, NICKNAME_MAX_BYTES, nickname);
+        }
+    }
+
+    public void updateHomeCount(UUID uuid, int homeCount) {
+        int slot = slotByUuid.getInt(uuid);
+        if (slot >= 0) {
+            buffer.putInt(recordOffset(slot) + HOME_COUNT, homeCount);
+        }
+    }
+
+    /**
+     * Forgets a player, e.g. after their player data was purged. The last record is moved into the freed slot.
+     */
+    public void remove(UUID uuid) {
+        int slot = slotByUuid.removeInt(uuid);
+        if (slot < 0) {
+            return;
+        }
+        int offset = recordOffset(slot);
+        // Names aren't unique over time, so the name may already point at another player's slot.
+        slotByName.remove(readName(offset).toLowerCase(Locale.ROOT), slot);
+
+        int lastSlot = recordCount - 1;
+        if (slot != lastSlot) {
+            int lastOffset = recordOffset(lastSlot);
+            byte[] lastRecord = new byte[RECORD_SIZE];
+            buffer.get(lastOffset, lastRecord);
+            buffer.put(offset, lastRecord);
+            slotByUuid.put(new UUID(buffer.getLong(offset + UUID_MOST), buffer.getLong(offset + UUID_LEAST)), slot);
+            slotByName.replace(readName(offset).toLowerCase(Locale.ROOT), lastSlot, slot);
+        }
+        recordCount = lastSlot;
+        buffer.putInt(HEADER_RECORD_COUNT, recordCount);
+    }
+
+    private void write(UUID uuid, String name, @Nullable String nickname, long lastSeenEpochMs, int homeCount) {
+        if (buffer == null) {
+            return;
+        }
+        int slot = slotByUuid.getInt(uuid);
+        if (slot < 0) {
+            slot = allocateSlot();
+            slotByUuid.put(uuid, slot);
+        } else {
+            // Only if no other player has taken the old name since.
+            slotByName.remove(readName(recordOffset(slot)).toLowerCase(Locale.ROOT), slot);
+        }
+        slotByName.put(name.toLowerCase(Locale.ROOT), slot);
+
+        int offset = recordOffset(slot);
+        buffer.putLong(offset + UUID_MOST, uuid.getMostSignificantBits());
+        buffer.putLong(offset + UUID_LEAST, uuid.getLeastSignificantBits());
+        buffer.putLong(offset + LAST_SEEN, lastSeenEpochMs);
+        buffer.putInt(offset + HOME_COUNT, homeCount);
+        putString(offset, NAME, NAME_LENGTH, NAME_MAX_BYTES, name);
+        putString(offset, NICKNAME, NICKNAME_LENGTH, NICKNAME_MAX_BYTES, nickname);
+    }
+
+    private int allocateSlot() {
+        if (recordCount == capacity) {
+            try {
+                remap(capacity * 2);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to grow the player catalog", e);
+            }
+        }
+        int slot = recordCount++;
+        buffer.putInt(HEADER_RECORD_COUNT, recordCount);
+        return slot;
+    }
+
+    // Queries
+
+    public Optional<Entry> get(UUID uuid) {
+        int slot = slotByUuid.getInt(uuid);
+        return slot < 0 ? Optional.empty() : Optional.of(readEntry(slot));
+    }
+
+    /**
+     * @param name case-insensitive
+     */
+    public Optional<Entry> getByName(String name) {
+        int slot = slotByName.getInt(name.toLowerCase(Locale.ROOT));
+        return slot < 0 ? Optional.empty() : Optional.of(readEntry(slot));
+    }
+
+    /**
+     * @return players whose plain text nickname equals {@code nickname}, ignoring case.
+     */
+    public List<Entry> findByNickname(String nickname) {
+        List<Entry> matches = new ArrayList<>();
+        for (int slot = 0; slot < recordCount; slot++) {
+            var entryNickname = readString(recordOffset(slot), NICKNAME, NICKNAME_LENGTH);
+            if (entryNickname != null && entryNickname.equalsIgnoreCase(nickname)) {
+                matches.add(readEntry(slot));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * @return players not seen since {@code epochMs}, least recently seen first.
+     */
+    public List<Entry> getNotSeenSince(long epochMs) {
+        List<Entry> entries = new ArrayList<>();
+        for (int slot = 0; slot < recordCount; slot++) {
+            if (buffer.getLong(recordOffset(slot) + LAST_SEEN) < epochMs) {
+                entries.add(readEntry(slot));
+            }
+        }
+        entries.sort((a, b) -> Long.compare(a.lastSeenEpochMs(), b.lastSeenEpochMs()));
+        return entries;
+    }
+
+    /**
+     * @return every player's last seen time, as a copy that is safe to hand to other threads.
+     */
+    public Map<UUID, Long> getLastSeenTimes() {
+        Map<UUID, Long> lastSeenTimes = new HashMap<>(recordCount);
+        for (int slot = 0; slot < recordCount; slot++) {
+            int offset = recordOffset(slot);
+            lastSeenTimes.put(
+                new UUID(buffer.getLong(offset + UUID_MOST), buffer.getLong(offset + UUID_LEAST)),
+                buffer.getLong(offset + LAST_SEEN));
+        }
+        return lastSeenTimes;
+    }
+
+    public List<String> getNames() {
+        List<String> names = new ArrayList<>(recordCount);
+        for (int slot = 0; slot < recordCount; slot++) {
+            names.add(readName(recordOffset(slot)));
+        }
+        return names;
+    }
+
+    public int size() {
+        return recordCount;
+    }
+
+    private Entry readEntry(int slot) {
+        int offset = recordOffset(slot);
+        return new Entry(
+            new UUID(buffer.getLong(offset + UUID_MOST), buffer.getLong(offset + UUID_LEAST)),
+            readName(offset),
+            readString(offset, NICKNAME, NICKNAME_LENGTH),
+            buffer.getLong(offset + LAST_SEEN),
+            buffer.getInt(offset + HOME_COUNT));
+    }
+
+    private String readName(int offset) {
+        var name = readString(offset, NAME, NAME_LENGTH);
+        return name != null ? name : "";
+    }
+
+    // Record encoding
+
+    private static int recordOffset(int slot) {
+        return HEADER_SIZE + slot * RECORD_SIZE;
+    }
+
+    /**
+     * Writes {@code value} as UTF-8, cut to {@code maxBytes} without splitting a character. A length of 0xFF marks null.
+     */
+    private void putString(int offset, int fieldOffset, int lengthOffset, int maxBytes, @Nullable String value) {
+        if (value == null) {
+            buffer.put(offset + lengthOffset, (byte) 0xFF);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, maxBytes);
+        // Don't end on a UTF-8 continuation byte.
+        while (length < bytes.length && length > 0 && (bytes[length] & 0xC0) == 0x80) {
+            length--;
+        }
+        buffer.put(offset + fieldOffset, bytes, 0, length);
+        buffer.put(offset + lengthOffset, (byte) length);
+    }
+
+    private @Nullable String readString(int offset, int fieldOffset, int lengthOffset) {
+        int length = buffer.get(offset + lengthOffset) & 0xFF;
+        if (length == 0xFF) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(offset + fieldOffset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // File handling
+
+    private void open(MinecraftServer server) {
+        slotByUuid.clear();
+        slotByName.clear();
+        try {
+            Path path = FileUtil.getOrCreateWorldDirectory(server, "essentialcommands").resolve(FILE_NAME);
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+            long fileSize = channel.size();
+            boolean isNew = fileSize < HEADER_SIZE;
+            if (!isNew) {
+                capacity = (int) ((fileSize - HEADER_SIZE) / RECORD_SIZE);
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+                if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+                    EssentialCommands.LOGGER.warn("Unrecognized player catalog format, rebuilding it");
+                    isNew = true;
+                }
+            }
+
+            if (isNew) {
+                channel.truncate(0);
+                capacity = 0;
+                remap(INITIAL_CAPACITY);
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, FORMAT_VERSION);
+                buffer.putInt(HEADER_RECORD_COUNT, 0);
+                recordCount = 0;
+                importPlayerData(server);
+                return;
+            }
+
+            recordCount = Math.min(buffer.getInt(HEADER_RECORD_COUNT), capacity);
+            for (int slot = 0; slot < recordCount; slot++) {
+                int offset = recordOffset(slot);
+                slotByUuid.put(new UUID(buffer.getLong(offset + UUID_MOST), buffer.getLong(offset + UUID_LEAST)), slot);
+                slotByName.put(readName(offset).toLowerCase(Locale.ROOT), slot);
+            }
+        } catch (IOException e) {
+            EssentialCommands.LOGGER.error("Failed to open the player catalog, offline player lookups will not use it", e);
+            close();
+        }
+    }
+
+    private void remap(int newCapacity) throws IOException {
+        if (buffer != null) {
+            buffer.force();
+        }
+        // Mapping past the end of the file grows it.
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) newCapacity * RECORD_SIZE);
+        capacity = newCapacity;
+    }
+
+    private void close() {
+        if (buffer != null) {
+            buffer.force();
+            buffer = null;
+        }
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                EssentialCommands.LOGGER.error("Failed to close the player catalog", e);
+            }
+            channel = null;
+        }
+        slotByUuid.clear();
+        slotByName.clear();
+        capacity = 0;
+        recordCount = 0;
+    }
+
+    private record ImportedPlayer(UUID uuid, @Nullable String nickname, long lastSeenEpochMs, int homeCount) {}
+
+    /**
+     * Adds players that joined before the catalog existed. Player data is read on an IO worker; names come from
+     * the server's user cache, and players not in it are skipped until they next join.
+     */
+    private void importPlayerData(MinecraftServer server) {
+        CompletableFuture.supplyAsync(() -> {
+            List<ImportedPlayer> players = new ArrayList<>();
+            var backend = StorageManager.getInstance().getBackend();
+            Map<UUID, Long> modifiedTimes;
+            try {
+                modifiedTimes = backend.getPlayerDataModifiedTimes();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            modifiedTimes.forEach((uuid, modified) -> {
+                try {
+                    var tag = backend.loadPlayerData(uuid);
+                    if (tag == null) {
+                        return;
+                    }
+                    players.add(new ImportedPlayer(
+                        uuid,
+                        PlayerData.readPlainNickname(tag, server.getRegistryManager()),
+                        modified,
+                        PlayerData.readHomes(tag).size()));
+                } catch (IOException | RuntimeException e) {
+                    EssentialCommands.LOGGER.warn("Could not import '{}' into the player catalog", uuid, e);
+                }
+            });
+            return players;
+        }, Util.getIoWorkerExecutor()).whenCompleteAsync((players, throwable) -> {
+            if (throwable != null) {
+                EssentialCommands.LOGGER.error("Failed to import player data into the player catalog", throwable);
+                return;
+            }
+            var userCache = server.getUserCache();
+            int importedCount = 0;
+            for (ImportedPlayer player : players) {
+                // Players that joined meanwhile are already up to date.
+                if (slotByUuid.containsKey(player.uuid()) || userCache == null) {
+                    continue;
+                }
+                var profile = userCache.getByUuid(player.uuid());
+                if (profile.isEmpty()) {
+                    continue;
+                }
+                write(player.uuid(), profile.get().getName(), player.nickname(), player.lastSeenEpochMs(), player.homeCount());
+                importedCount++;
+            }
+            EssentialCommands.LOGGER.info("Imported {} players into the player catalog", importedCount);
+        }, MainThreadInbox.getInstance());
+    }
+}
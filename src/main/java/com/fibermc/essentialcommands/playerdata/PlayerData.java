@@ -1,6 +1,5 @@
 package com.fibermc.essentialcommands.playerdata;
 
-import java.io.File;
 import java.util.*;
 
 import com.fibermc.essentialcommands.ECAbilitySources;
@@ -10,7 +9,9 @@ import com.fibermc.essentialcommands.access.ServerPlayerEntityAccess;
 import com.fibermc.essentialcommands.commands.CommandUtil;
 import com.fibermc.essentialcommands.commands.InvulnCommand;
 import com.fibermc.essentialcommands.commands.helpers.IFeedbackReceiver;
+import com.fibermc.essentialcommands.commands.helpers.LocationListing;
 import com.fibermc.essentialcommands.events.PlayerActCallback;
+import com.fibermc.essentialcommands.storage.StorageManager;
 import com.fibermc.essentialcommands.teleportation.OutgoingTeleportRequests;
 import com.fibermc.essentialcommands.teleportation.TeleportRequest;
 import com.fibermc.essentialcommands.text.ECText;
@@ -22,6 +23,7 @@ import com.fibermc.essentialcommands.util.NicknameTextUtil;
 import io.github.ladysnake.pal.Pal;
 import io.github.ladysnake.pal.VanillaAbilities;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
@@ -29,6 +31,8 @@ import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import net.minecraft.entity.player.PlayerAbilities;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtLong;
+import net.minecraft.nbt.NbtString;
 import net.minecraft.registry.RegistryWrapper;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.network.ServerPlayerEntity;
@@ -51,7 +55,6 @@ public class PlayerData extends PersistentState implements IServerPlayerEntityDa
     // ServerPlayerEntity
     private ServerPlayerEntity player;
     private UUID pUuid;
-    private final File saveFile;
 
     // Target of tpAsk
     private final OutgoingTeleportRequests outgoingTeleportRequests = new OutgoingTeleportRequests();
@@ -62,7 +65,7 @@ public class PlayerData extends PersistentState implements IServerPlayerEntityDa
 
     // HOMES
     NamedLocationStorage homes;
-    private MinecraftLocation previousLocation;
+    private BackLocationHistory backLocations = new BackLocationHistory(CONFIG.BACK_HISTORY_SIZE);
     private int tpCooldown;
 
     // Nickname
@@ -72,6 +75,13 @@ public class PlayerData extends PersistentState implements IServerPlayerEntityDa
     // RTP Cooldown
     private int timeUsedRtp;
 
+    // Sections as last serialized by writeNbt, reused until they change. Null when the section must be re-encoded.
+    // The elements are never modified once cached, since saved tags may still be referencing them.
+    private @Nullable NbtCompound homesNbt;
+    private @Nullable NbtString nicknameNbt;
+    private @Nullable NbtCompound backLocationsNbt;
+    private @Nullable NbtLong timeUsedRtpNbt;
+
     private boolean afk;
     private Vec3d lastTickPos;
     private boolean isInCombat;
@@ -79,12 +89,11 @@ public class PlayerData extends PersistentState implements IServerPlayerEntityDa
     private int lastMovedTick;
     private boolean hasMovedThisTick;
 
-    public PlayerData(ServerPlayerEntity player, File saveFile) {
+    public PlayerData(ServerPlayerEntity player) {
         this.player = player;
         this.lastTickPos = player.getPos();
         this.lastActionTick = player.server.getTicks();
         this.pUuid = player.getUuid();
-        this.saveFile = saveFile;
         incomingTeleportRequests = new LinkedHashMap<>();
         homes = new NamedLocationStorage();
         playerActEvent.register((packet) -> {
@@ -104,11 +113,9 @@ public class PlayerData extends PersistentState implements IServerPlayerEntityDa
      * </p>
      *
      * @param playerUuid UUID of the player whose data we want to grab or modify.
-     * @param saveFile   The save file for this PlayerData instance.
      */
-    public PlayerData(UUID playerUuid, File saveFile) {
+    public PlayerData(UUID playerUuid) {
         this.pUuid = playerUuid;
-        this.saveFile = saveFile;
         incomingTeleportRequests = new LinkedHashMap<>();
         homes = new NamedLocationStorage();
     }
@@ -150,7 +157,9 @@ public class PlayerData extends PersistentState implements IServerPlayerEntityDa
         int playerMaxHomes = ECPerms.getHighestNumericPermission(this.player.getCommandSource(), ECPerms.Registry.Group.home_limit_group);
         if (this.homes.size() < playerMaxHomes) {
             homes.putCommand(homeName, minecraftLocation);
-            this.markDirty();
+            HomeIndex.getInstance().put(pUuid, homes.get(homeName));
+            PlayerCatalog.getInstance().updateHomeCount(pUuid, homes.size());
+            this.markHomesDirty();
         } else {
             var ecText = ECText.access(this.player);
             var homeNameText = ecText.accent(homeName);
@@ -195,6 +204,28 @@ public class PlayerData extends PersistentState implements IServerPlayerEntityDa
         return homes.keySet();
     }
 
+    /**
+     * Adds homes imported from elsewhere (e.g. EssentialsX), keeping existing homes of the same name. Not limited by
+     * the player's home limit.
+     *
+     * @return the number of homes added.
+     */
+    public int mergeHomes(Collection<NamedMinecraftLocation> importedHomes) {
+        int addedCount = 0;
+        for (NamedMinecraftLocation home : importedHomes) {
+            if (!homes.containsKey(home.getName())) {
+                homes.put(home.getName(), home);
+                HomeIndex.getInstance().put(pUuid, home);
+                addedCount++;
+            }
+        }
+        if (addedCount > 0) {
+            PlayerCatalog.getInstance().updateHomeCount(pUuid, homes.size());
+            this.markHomesDirty();
+        }
+        return addedCount;
+    }
+
     public Set<Map.Entry<String, NamedMinecraftLocation>> getHomeEntries() {
         return homes.entrySet();
     }
@@ -203,6 +234,18 @@ public class PlayerData extends PersistentState implements IServerPlayerEntityDa
         return homes.get(homeName);
     }
 
+    public LocationListing<NamedMinecraftLocation> getHomeListing() {
+        return new LocationListing<>(homes.values(), homes.getVersion(), homes.getUseCountVersion(), homes.getPageCache(), null);
+    }
+
+    /**
+     * Counts a teleport to the specified home, for sorting home listings by use.
+     */
+    public void recordHomeUse(String homeName) {
+        homes.recordUse(homeName);
+        this.markHomesDirty();
+    }
+
     public final Event<PlayerActCallback> playerActEvent = EventFactory.createArrayBacked(
         PlayerActCallback.class,
         (listeners) -> (packet) -> {
@@ -260,6 +303,7 @@ public class PlayerData extends PersistentState implements IServerPlayerEntityDa
         hasMovedThisTick = !this.lastTickPos.equals(currentPos);
         if (hasMovedThisTick) {
             lastMovedTick = ticks;
+            PlayerDataManager.getInstance().getSpatialIndex().update(this);
         }
 
         if (this.afk) {
@@ -317,18 +361,44 @@ public class PlayerData extends PersistentState implements IServerPlayerEntityDa
         static final String NICKNAME = "nickname";
         static final String TIME_USED_RTP_EPOCH_MS = "timeUsedRtpEpochMs";
         static final String PREVIOUS_LOCATION = "previousLocation";
+        static final String BACK_LOCATIONS = "backLocations";
     }
 
-    public void fromNbt(NbtCompound tag, RegistryWrapper.WrapperLookup wrapperLookup) {
-        NbtCompound dataTag = tag.getCompound("data");
-        this.pUuid = dataTag.getUuid(StorageKey.PLAYER_UUID);
-
+    /**
+     * Reads just the homes from the contents of a player data file. Safe to call from any thread.
+     */
+    public static NamedLocationStorage readHomes(NbtCompound tag) {
         NamedLocationStorage homes = new NamedLocationStorage();
-        NbtElement homesTag = dataTag.get(StorageKey.HOMES);
+        NbtElement homesTag = tag.getCompound("data").get(StorageKey.HOMES);
         if (homesTag != null) {
             homes.loadNbt(homesTag);
         }
-        this.homes = homes;
+        return homes;
+    }
+
+    /**
+     * Reads just the nickname, as plain text, from the contents of a player data file. Safe to call from any thread.
+     *
+     * @return null if the player has no nickname, or it could not be parsed.
+     */
+    public static @Nullable String readPlainNickname(NbtCompound tag, RegistryWrapper.WrapperLookup wrapperLookup) {
+        String nick = tag.getCompound("data").getString(StorageKey.NICKNAME);
+        if (nick.isEmpty() || Objects.equals(nick, "null")) {
+            return null;
+        }
+        try {
+            var nickname = Text.Serialization.fromJson(nick, wrapperLookup);
+            return nickname == null ? null : nickname.getString();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    public void fromNbt(NbtCompound tag, RegistryWrapper.WrapperLookup wrapperLookup) {
+        NbtCompound dataTag = tag.getCompound("data");
+        this.pUuid = dataTag.getUuid(StorageKey.PLAYER_UUID);
+
+        this.homes = readHomes(tag);
 
         if (dataTag.contains(StorageKey.NICKNAME)) {
             String nick = dataTag.getString(StorageKey.NICKNAME);
@@ -346,10 +416,21 @@ public class PlayerData extends PersistentState implements IServerPlayerEntityDa
             this.timeUsedRtp = TimeUtil.epochTimeMsToTicks(dataTag.getLong(StorageKey.TIME_USED_RTP_EPOCH_MS));
         }
 
-        if (CONFIG.PERSIST_BACK_LOCATION && dataTag.contains(StorageKey.PREVIOUS_LOCATION)) {
-            this.previousLocation = MinecraftLocation.fromNbt(dataTag.getCompound(StorageKey.PREVIOUS_LOCATION));
+        this.backLocations = new BackLocationHistory(CONFIG.BACK_HISTORY_SIZE);
+        if (CONFIG.PERSIST_BACK_LOCATION) {
+            if (dataTag.contains(StorageKey.BACK_LOCATIONS)) {
+                this.backLocations.loadNbt(dataTag.getCompound(StorageKey.BACK_LOCATIONS));
+            } else if (dataTag.contains(StorageKey.PREVIOUS_LOCATION)) {
+                // Data saved before multi-level /back
+                this.backLocations.record(MinecraftLocation.fromNbt(dataTag.getCompound(StorageKey.PREVIOUS_LOCATION)));
+            }
         }
 
+        this.homesNbt = null;
+        this.nicknameNbt = null;
+        this.backLocationsNbt = null;
+        this.timeUsedRtpNbt = null;
+
         if (this.player != null) {
             updatePlayerEntity(this.player);
         }
@@ -360,30 +441,47 @@ public class PlayerData extends PersistentState implements IServerPlayerEntityDa
     public NbtCompound writeNbt(NbtCompound tag, RegistryWrapper.WrapperLookup wrapperLookup) {
         tag.putUuid(StorageKey.PLAYER_UUID, pUuid);
 
-        NbtCompound homesNbt = new NbtCompound();
-        homes.writeNbt(homesNbt);
+        if (homesNbt == null) {
+            homesNbt = homes.writeNbt(new NbtCompound());
+        }
         tag.put(StorageKey.HOMES, homesNbt);
 
         if (nickname != null) {
-            tag.putString(StorageKey.NICKNAME, Text.Serialization.toJsonString(nickname, wrapperLookup));
+            if (nicknameNbt == null) {
+                nicknameNbt = NbtString.of(Text.Serialization.toJsonString(nickname, wrapperLookup));
+            }
+            tag.put(StorageKey.NICKNAME, nicknameNbt);
         }
 
-        tag.putLong(StorageKey.TIME_USED_RTP_EPOCH_MS, TimeUtil.tickTimeToEpochMs(timeUsedRtp));
+        if (timeUsedRtpNbt == null) {
+            timeUsedRtpNbt = NbtLong.of(TimeUtil.tickTimeToEpochMs(timeUsedRtp));
+        }
+        tag.put(StorageKey.TIME_USED_RTP_EPOCH_MS, timeUsedRtpNbt);
 
-        if (CONFIG.PERSIST_BACK_LOCATION && previousLocation != null) {
-            tag.put(StorageKey.PREVIOUS_LOCATION, previousLocation.asNbt());
+        if (CONFIG.PERSIST_BACK_LOCATION && !backLocations.isEmpty()) {
+            if (backLocationsNbt == null) {
+                backLocationsNbt = backLocations.writeNbt(new NbtCompound());
+            }
+            tag.put(StorageKey.BACK_LOCATIONS, backLocationsNbt);
         }
 
         return tag;
     }
 
-    public void setPreviousLocation(MinecraftLocation location) {
-        this.previousLocation = location;
-        this.markDirty();
+    /**
+     * Records the player's current location as their most recent {@code /back} location.
+     */
+    public void recordBackLocation() {
+        this.backLocations.record(this.player);
+        this.backLocationsNbt = null;
+        // Back locations are only saved when they are persisted, so there is nothing to write otherwise.
+        if (CONFIG.PERSIST_BACK_LOCATION) {
+            this.markDirty();
+        }
     }
 
-    public MinecraftLocation getPreviousLocation() {
-        return this.previousLocation;
+    public BackLocationHistory getBackLocations() {
+        return this.backLocations;
     }
 
     /**
@@ -396,7 +494,9 @@ public class PlayerData extends PersistentState implements IServerPlayerEntityDa
     public boolean removeHome(String homeName) {
         MinecraftLocation old = this.homes.remove(homeName);
         if (old != null) {
-            this.markDirty();
+            HomeIndex.getInstance().remove(pUuid, homeName);
+            PlayerCatalog.getInstance().updateHomeCount(pUuid, homes.size());
+            this.markHomesDirty();
             return true;
         }
         return false;
@@ -505,8 +605,10 @@ public class PlayerData extends PersistentState implements IServerPlayerEntityDa
             this.nickname = nickname;
         }
 
+        this.nicknameNbt = null;
         reloadFullNickname();
         PlayerDataManager.getInstance().markNicknameDirty(this);
+        PlayerCatalog.getInstance().updateNickname(pUuid, this.nickname != null ? this.nickname.getString() : null);
         this.markDirty();
         // Return codes based on fail/success
         //  ex: caused by profanity filter.
@@ -514,11 +616,20 @@ public class PlayerData extends PersistentState implements IServerPlayerEntityDa
     }
 
     public void save(RegistryWrapper.WrapperLookup wrapperLookup) {
-        super.save(saveFile, wrapperLookup);
+        StorageManager.getInstance().save(this, wrapperLookup, (backend, tag) -> backend.savePlayerData(pUuid, tag));
     }
 
     public void setTimeUsedRtp(int i) {
         this.timeUsedRtp = i;
+        this.timeUsedRtpNbt = null;
+        this.markDirty();
+    }
+
+    /**
+     * Marks the homes as changed, so that they are re-encoded on the next save.
+     */
+    void markHomesDirty() {
+        this.homesNbt = null;
         this.markDirty();
     }
 
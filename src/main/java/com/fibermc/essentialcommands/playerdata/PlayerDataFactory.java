@@ -1,109 +1,137 @@
 package com.fibermc.essentialcommands.playerdata;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
 
 import com.fibermc.essentialcommands.EssentialCommands;
+import com.fibermc.essentialcommands.access.ServerPlayerEntityAccess;
+import com.fibermc.essentialcommands.storage.StorageManager;
 import com.fibermc.essentialcommands.types.NamedLocationStorage;
-import com.fibermc.essentialcommands.util.FileUtil;
+import com.google.common.util.concurrent.Striped;
 import org.apache.logging.log4j.Level;
 
-import net.minecraft.nbt.NbtCompound;
-import net.minecraft.nbt.NbtIo;
-import net.minecraft.nbt.NbtSizeTracker;
 import net.minecraft.registry.DynamicRegistryManager;
-import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 
 public final class PlayerDataFactory {
-    private PlayerDataFactory() {}
+    // Held while a record is loaded for a player, or written in the background (see withRecordLock).
+    private static final Striped<Lock> RECORD_LOCKS = Striped.lock(64);
+    // Players who have connected, from the moment their data is read until they leave. Offline copies of players (see
+    // OfflinePlayerRepo#getOfflinePlayer) never leave, so they aren't tracked.
+    private static final Set<UUID> LOADED_PLAYERS = ConcurrentHashMap.newKeySet();
 
-    private static PlayerData create(ServerPlayerEntity player, File playerDataFile) {
-        PlayerData pData = new PlayerData(player, playerDataFile);
+    private PlayerDataFactory() {}
 
-        boolean fileExisted = false;
+    @FunctionalInterface
+    public interface RecordAction<T> {
+        T run(boolean isLoaded) throws IOException;
+    }
 
+    /**
+     * Runs {@code action} while the player's record can't be loaded, passing whether it is loaded already. Background
+     * writers use this so that a player who joins can't read a record that is about to be rewritten, and later
+     * overwrite the rewrite when their data is saved. Blocks the player's join for as long as {@code action} runs, so it
+     * should only do the reads and writes of that one record.
+     */
+    public static <T> T withRecordLock(UUID playerUuid, RecordAction<T> action) throws IOException {
+        Lock lock = RECORD_LOCKS.get(playerUuid);
+        lock.lock();
         try {
-            fileExisted = !playerDataFile.createNewFile();
-        } catch (IOException ex) {
-            ex.printStackTrace();
+            return action.run(LOADED_PLAYERS.contains(playerUuid));
+        } finally {
+            lock.unlock();
         }
+    }
 
-        if (fileExisted && playerDataFile.length() != 0) {
-            try {
-                pData.fromNbt(
-                    NbtIo.readCompressed(playerDataFile.toPath(), NbtSizeTracker.ofUnlimitedBytes()),
-                    DynamicRegistryManager.EMPTY);
-            } catch (IOException e) {
-                EssentialCommands.log(Level.WARN,
-                    "Failed to load essential_commands player data for {%s}", player.getName().getString());
-                e.printStackTrace();
-            }
-        } else {
-            pData.markDirty();
-            pData.save(DynamicRegistryManager.EMPTY);
+    /**
+     * Marks the player as loaded, and loads their data if it hasn't been already, with their record locked. Called when
+     * the player connects.
+     */
+    static PlayerData markLoaded(ServerPlayerEntity player) {
+        Lock lock = RECORD_LOCKS.get(player.getUuid());
+        lock.lock();
+        try {
+            LOADED_PLAYERS.add(player.getUuid());
+            return ((ServerPlayerEntityAccess) player).ec$getPlayerData();
+        } finally {
+            lock.unlock();
         }
-
-        return pData;
     }
 
     /**
-     * This is exclusively used with EssentialsXParser
+     * Called once the player's data has been saved for the last time before they leave.
      */
-    public static PlayerData create(NamedLocationStorage homes, File saveFile) {
-        String fileName = saveFile.getName();
-        UUID playerUuid = UUID.fromString(fileName.substring(0, fileName.indexOf(".dat")));
-        PlayerData pData = new PlayerData(playerUuid, saveFile);
-        if (Files.exists(saveFile.toPath()) && saveFile.length() != 0) {
-            try {
-                NbtCompound nbtCompound3 = NbtIo.readCompressed(saveFile.toPath(), NbtSizeTracker.ofUnlimitedBytes());
-                pData.fromNbt(nbtCompound3, DynamicRegistryManager.EMPTY);
-                // If a EC data already existed, the homes we just initialized the pData with (from paramater) just got overwritten.
-                // Now, add them back if their keys do not already exist in the set we just loaded from EC save file.
-                pData.homes.putAll(homes);
-                //Testing:
-
-            } catch (IOException e) {
-                EssentialCommands.log(Level.WARN, "Failed to load essential_commands player data for {"
-                    + playerUuid
-                    + "}");
-                e.printStackTrace();
-            }
-        } else {
-            try {
-                saveFile.createNewFile();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
+    static void markUnloaded(UUID playerUuid) {
+        Lock lock = RECORD_LOCKS.get(playerUuid);
+        lock.lock();
+        try {
+            LOADED_PLAYERS.remove(playerUuid);
+        } finally {
+            lock.unlock();
         }
-
-        pData.markDirty();
-        return pData;
     }
 
     public static PlayerData create(ServerPlayerEntity player) {
+        // Locked so that a record being rewritten isn't read half way. The locks are reentrant, so this also works when
+        // called from markLoaded.
+        Lock lock = RECORD_LOCKS.get(player.getUuid());
+        lock.lock();
         try {
-            return create(player, getPlayerDataFile(player));
-        } catch (IOException ex) {
+            return load(player);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static PlayerData load(ServerPlayerEntity player) {
+        PlayerData pData = new PlayerData(player);
+
+        try {
+            var tag = StorageManager.getInstance().getBackend().loadPlayerData(player.getUuid());
+            if (tag != null) {
+                pData.fromNbt(tag, DynamicRegistryManager.EMPTY);
+                return pData;
+            }
+        } catch (IOException e) {
             EssentialCommands.log(
                 Level.ERROR,
-                "Failed to create player data file for player with id '{}'. Player data may fail to save, or other unexpected behavior may occur.",
-                player.getUuidAsString());
-            EssentialCommands.LOGGER.error(ex);
+                "Failed to load essential_commands player data for player with id '{}'. Player data may fail to save, or other unexpected behavior may occur.",
+                player.getUuidAsString(),
+                e);
+            return pData;
         }
-        return new PlayerData(player, null);
-    }
 
-    public static Path getPlayerDataDirectoryPath(MinecraftServer server) throws IOException {
-        return FileUtil.getOrCreateWorldDirectory(server, "modplayerdata");
+        pData.markDirty();
+        pData.save(DynamicRegistryManager.EMPTY);
+        return pData;
     }
 
-    private static File getPlayerDataFile(ServerPlayerEntity player) throws IOException {
-        return getPlayerDataDirectoryPath(player.getServer())
-            .resolve(player.getUuidAsString() + ".dat")
-            .toFile();
+    /**
+     * This is exclusively used with EssentialsXParser
+     *
+     * <p>Loads the player's data, if there is any, and adds {@code homes} to it. Existing homes are kept; imported
+     * homes with the same name as one are dropped from {@code homes}, so that afterwards it holds just the homes that
+     * were added.
+     *
+     * <p>May be called off the server thread, as long as the player's data isn't loaded: the only shared state it
+     * touches is the storage backend and the {@link BackLocationHistory} dimension palette, which are both thread-safe.
+     *
+     * @throws IOException if the player's data exists but couldn't be read. Saving the result would then overwrite it.
+     */
+    public static PlayerData create(NamedLocationStorage homes, UUID playerUuid) throws IOException {
+        PlayerData pData = new PlayerData(playerUuid);
+        var tag = StorageManager.getInstance().getBackend().loadPlayerData(playerUuid);
+        if (tag != null) {
+            pData.fromNbt(tag, DynamicRegistryManager.EMPTY);
+        }
+
+        homes.keySet().removeIf(pData.homes::containsKey);
+        homes.values().forEach(home -> pData.homes.put(home.getName(), home));
+
+        pData.markHomesDirty();
+        return pData;
     }
 }
@@ -0,0 +1,479 @@
+package com.fibermc.essentialcommands.playerdata;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fibermc.essentialcommands.EssentialCommands;
+import com.fibermc.essentialcommands.scheduler.MainThreadInbox;
+import com.fibermc.essentialcommands.scheduler.TickScheduler;
+import com.fibermc.essentialcommands.storage.StorageBackend;
+import com.fibermc.essentialcommands.storage.StorageManager;
+import com.fibermc.essentialcommands.text.ECText;
+import com.google.common.util.concurrent.RateLimiter;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.command.ServerCommandSource;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+
+import static com.fibermc.essentialcommands.EssentialCommands.CONFIG;
+
+/**
+ * Runs maintenance over every player data record in the background: purging inactive players, resetting nicknames or
+ * homes, and verifying (and optionally repairing) records.
+ *
+ * <p>Records are processed by up to {@code player_data_job_threads} threads per job. All jobs share one rate limit, of
+ * {@code player_data_job_files_per_second}, lowered to {@code player_data_job_files_per_second_with_players_online}
+ * while anyone is online, so that jobs don't compete with the server for disk time when it matters. A rate of 0 or
+ * less means unlimited.
+ *
+ * <p>Records of players that are online are never written by a job, and players can't load their record while a job
+ * is writing it ({@link PlayerDataFactory#withRecordLock}). Resets of online players are applied to their loaded data
+ * instead, when the job finishes. Players who left since their record came up are processed again, once, before the
+ * job is done. Index updates ({@link HomeIndex}, {@link PlayerCatalog}) are handed back to the server thread as
+ * records are processed.
+ */
+public final class PlayerDataJobManager {
+    private static final int RATE_UPDATE_INTERVAL_TICKS = 20;
+    private static final int FINISHED_JOBS_KEPT = 10;
+
+    private static PlayerDataJobManager instance;
+
+    private final AtomicInteger nextJobId = new AtomicInteger(1);
+    private final List<Job> runningJobs = new ArrayList<>();
+    private final Deque<Job> finishedJobs = new ArrayDeque<>();
+    private final RateLimiter rateLimiter = RateLimiter.create(toPermitsPerSecond(CONFIG.PLAYER_DATA_JOB_FILES_PER_SECOND));
+
+    // Thread count is bounded per job below, not by the pool itself, so that the limit can be changed with a config
+    // reload.
+    private final ExecutorService workerExecutor = Executors.newCachedThreadPool(runnable -> {
+        var thread = new Thread(runnable, "Player Data Job Thread");
+        thread.setDaemon(true);
+        thread.setUncaughtExceptionHandler((t, throwable) ->
+            EssentialCommands.LOGGER.error("Exception in player data job thread", throwable));
+        return thread;
+    });
+
+    public enum Kind {
+        PURGE_INACTIVE,
+        RESET_NICKNAMES,
+        RESET_HOMES,
+        VERIFY,
+        REPAIR;
+
+        public String getArgumentName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public enum State {
+        LISTING,
+        RUNNING,
+        CANCELLED,
+        DONE,
+        FAILED;
+
+        public String getDisplayName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private enum Outcome {
+        UNCHANGED,
+        CHANGED,
+        // The player was online, so the change is applied in memory, or the record processed again, at the end instead.
+        SKIPPED_ONLINE,
+    }
+
+    public static final class Job {
+        private final int id;
+        private final Kind kind;
+        private final String description;
+        private final ServerCommandSource source;
+        private final long startedAtMs = System.currentTimeMillis();
+        // Only set for PURGE_INACTIVE.
+        private final long cutoffEpochMs;
+        private final Map<UUID, Long> lastSeenTimes;
+        private final ConcurrentLinkedQueue<UUID> remainingPlayers = new ConcurrentLinkedQueue<>();
+        private final Set<UUID> skippedOnline = ConcurrentHashMap.newKeySet();
+        // Players who were skipped, and had left by the end of the job, so were processed again. Server thread only.
+        private final Set<UUID> requeuedPlayers = new HashSet<>();
+        private final AtomicInteger processedCount = new AtomicInteger();
+        private final AtomicInteger changedCount = new AtomicInteger();
+        private final AtomicInteger failedCount = new AtomicInteger();
+        private volatile Map<UUID, Long> modifiedTimes = Map.of();
+        private volatile int recordCount;
+        private volatile State state = State.LISTING;
+        private volatile boolean cancelRequested;
+        // Listing and processing of records, completed when the workers are done.
+        private volatile CompletableFuture<Void> work = CompletableFuture.completedFuture(null);
+        private long finishedAtMs;
+
+        private Job(int id, Kind kind, String description, ServerCommandSource source, long cutoffEpochMs, Map<UUID, Long> lastSeenTimes) {
+            this.id = id;
+            this.kind = kind;
+            this.description = description;
+            this.source = source;
+            this.cutoffEpochMs = cutoffEpochMs;
+            this.lastSeenTimes = lastSeenTimes;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        public int getRecordCount() {
+            return recordCount;
+        }
+
+        public int getProcessedCount() {
+            return processedCount.get();
+        }
+
+        public int getChangedCount() {
+            return changedCount.get();
+        }
+
+        public int getFailedCount() {
+            return failedCount.get();
+        }
+
+        public long getElapsedMs() {
+            return (state == State.LISTING || state == State.RUNNING ? System.currentTimeMillis() : finishedAtMs)
+                - startedAtMs;
+        }
+    }
+
+    private PlayerDataJobManager() {}
+
+    public static PlayerDataJobManager getInstance() {
+        if (instance == null) {
+            instance = new PlayerDataJobManager();
+        }
+        return instance;
+    }
+
+    public static void init() {
+        getInstance();
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> TickScheduler.getInstance().scheduleRepeating(
+            "player-data-job-rate",
+            TickScheduler.Priority.LOW,
+            RATE_UPDATE_INTERVAL_TICKS,
+            RATE_UPDATE_INTERVAL_TICKS,
+            instance::updateRate));
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> instance.stopAndWait());
+    }
+
+    /**
+     * Cancels running jobs and waits for their workers to stop, so that nothing is written after the storage backend is
+     * closed. Index updates from records that were processed are then applied, before the indexes are saved.
+     */
+    private void stopAndWait() {
+        runningJobs.forEach(job -> job.cancelRequested = true);
+        for (Job job : runningJobs) {
+            try {
+                job.work.join();
+            } catch (RuntimeException e) {
+                // Already logged when the job finishes.
+            }
+        }
+        MainThreadInbox.getInstance().drain();
+        runningJobs.clear();
+        finishedJobs.clear();
+    }
+
+    private void updateRate(MinecraftServer server) {
+        double permitsPerSecond = toPermitsPerSecond(server.getCurrentPlayerCount() > 0
+            ? CONFIG.PLAYER_DATA_JOB_FILES_PER_SECOND_WITH_PLAYERS_ONLINE
+            : CONFIG.PLAYER_DATA_JOB_FILES_PER_SECOND);
+        if (rateLimiter.getRate() != permitsPerSecond) {
+            rateLimiter.setRate(permitsPerSecond);
+        }
+    }
+
+    /**
+     * @return {@code filesPerSecond}, or an unlimited rate if it isn't positive (which {@link RateLimiter} rejects).
+     */
+    private static double toPermitsPerSecond(double filesPerSecond) {
+        return filesPerSecond > 0 ? filesPerSecond : Double.MAX_VALUE;
+    }
+
+    // Jobs
+
+    /**
+     * Starts a job. Server thread only.
+     *
+     * @param inactiveDays for {@link Kind#PURGE_INACTIVE}, how long a player must not have been seen to be purged.
+     *                     Players missing from the {@link PlayerCatalog} are judged by their record's modification
+     *                     time.
+     */
+    public Job start(ServerCommandSource source, Kind kind, int inactiveDays) {
+        boolean isPurge = kind == Kind.PURGE_INACTIVE;
+        var job = new Job(
+            nextJobId.getAndIncrement(),
+            kind,
+            isPurge ? "%s %dd".formatted(kind.getArgumentName(), inactiveDays) : kind.getArgumentName(),
+            source,
+            isPurge ? System.currentTimeMillis() - inactiveDays * 24L * 60 * 60 * 1000 : 0,
+            isPurge ? PlayerCatalog.getInstance().getLastSeenTimes() : Map.of());
+        runningJobs.add(job);
+
+        job.work = CompletableFuture.runAsync(() -> {
+            try {
+                job.modifiedTimes = StorageManager.getInstance().getBackend().getPlayerDataModifiedTimes();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            job.remainingPlayers.addAll(job.modifiedTimes.keySet());
+            job.recordCount = job.modifiedTimes.size();
+            job.state = State.RUNNING;
+            runWorkers(job);
+        }, workerExecutor);
+        job.work.whenCompleteAsync((ignored, throwable) -> finish(job, throwable), MainThreadInbox.getInstance());
+
+        return job;
+    }
+
+    /**
+     * Processes the job's remaining players, then finishes it on the server thread.
+     */
+    private void resume(Job job) {
+        job.work = CompletableFuture.runAsync(() -> runWorkers(job), workerExecutor);
+        job.work.whenCompleteAsync((ignored, throwable) -> finish(job, throwable), MainThreadInbox.getInstance());
+    }
+
+    /**
+     * @return false if there is no running job with that id.
+     */
+    public boolean cancel(int jobId) {
+        for (Job job : runningJobs) {
+            if (job.id == jobId) {
+                job.cancelRequested = true;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return running jobs, then recently finished ones, most recent first.
+     */
+    public List<Job> getJobs() {
+        List<Job> jobs = new ArrayList<>(runningJobs);
+        jobs.addAll(finishedJobs);
+        return jobs;
+    }
+
+    private void runWorkers(Job job) {
+        int threadCount = Math.max(1, Math.min(CONFIG.PLAYER_DATA_JOB_THREADS, job.remainingPlayers.size()));
+        CompletableFuture<?>[] workers = new CompletableFuture<?>[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            workers[i] = CompletableFuture.runAsync(() -> runWorker(job), workerExecutor);
+        }
+        CompletableFuture.allOf(workers).join();
+    }
+
+    private void runWorker(Job job) {
+        var backend = StorageManager.getInstance().getBackend();
+        UUID uuid;
+        while (!job.cancelRequested && (uuid = job.remainingPlayers.poll()) != null) {
+            rateLimiter.acquire();
+            final UUID playerUuid = uuid;
+            try {
+                var outcome = PlayerDataFactory.withRecordLock(playerUuid, isOnline -> process(backend, job, playerUuid, isOnline));
+                if (outcome == Outcome.SKIPPED_ONLINE) {
+                    // Counted as processed once it is dealt with at the end.
+                    job.skippedOnline.add(playerUuid);
+                    continue;
+                }
+                if (outcome == Outcome.CHANGED) {
+                    job.changedCount.incrementAndGet();
+                }
+            } catch (IOException | RuntimeException e) {
+                job.failedCount.incrementAndGet();
+                EssentialCommands.LOGGER.warn("Player data job #{} failed on '{}'", job.id, playerUuid, e);
+            }
+            job.processedCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Runs with the record locked, so that the player can't load it until it has been written. Online players' records
+     * are rewritten when they are saved, so they are never touched.
+     */
+    private Outcome process(StorageBackend backend, Job job, UUID uuid, boolean isOnline) throws IOException {
+        return switch (job.kind) {
+            case PURGE_INACTIVE -> {
+                Long lastSeen = job.lastSeenTimes.get(uuid);
+                long lastSeenEpochMs = lastSeen != null ? lastSeen : job.modifiedTimes.getOrDefault(uuid, 0L);
+                if (isOnline || lastSeenEpochMs >= job.cutoffEpochMs) {
+                    yield Outcome.UNCHANGED;
+                }
+                backend.deletePlayerData(uuid);
+                MainThreadInbox.getInstance().execute(() -> {
+                    HomeIndex.getInstance().removeOwner(uuid);
+                    PlayerCatalog.getInstance().remove(uuid);
+                });
+                yield Outcome.CHANGED;
+            }
+            case RESET_NICKNAMES, RESET_HOMES -> {
+                if (isOnline) {
+                    yield Outcome.SKIPPED_ONLINE;
+                }
+                var tag = backend.loadPlayerData(uuid);
+                String key = job.kind == Kind.RESET_NICKNAMES ? "nickname" : "homes";
+                if (tag == null || !tag.getCompound("data").contains(key)) {
+                    yield Outcome.UNCHANGED;
+                }
+                tag.getCompound("data").remove(key);
+                backend.savePlayerData(uuid, tag);
+                MainThreadInbox.getInstance().execute(job.kind == Kind.RESET_NICKNAMES
+                    ? () -> PlayerCatalog.getInstance().updateNickname(uuid, null)
+                    : () -> {
+                        HomeIndex.getInstance().removeOwner(uuid);
+                        PlayerCatalog.getInstance().updateHomeCount(uuid, 0);
+                    });
+                yield Outcome.CHANGED;
+            }
+            case VERIFY, REPAIR -> verify(backend, job, uuid, isOnline);
+        };
+    }
+
+    /**
+     * A record is corrupt if it can't be read at all, and damaged if it doesn't hold its owner's UUID. Repairing sets
+     * corrupt records aside ({@link StorageBackend#quarantinePlayerData}), so the player starts over, and rewrites
+     * damaged ones with the UUID they are stored under.
+     */
+    private Outcome verify(StorageBackend backend, Job job, UUID uuid, boolean isOnline) throws IOException {
+        NbtCompound tag;
+        try {
+            tag = backend.loadPlayerData(uuid);
+        } catch (IOException | RuntimeException e) {
+            EssentialCommands.LOGGER.warn("Player data of '{}' is corrupt", uuid, e);
+            if (job.kind != Kind.REPAIR || isOnline) {
+                job.failedCount.incrementAndGet();
+                return Outcome.UNCHANGED;
+            }
+            backend.quarantinePlayerData(uuid);
+            MainThreadInbox.getInstance().execute(() -> HomeIndex.getInstance().removeOwner(uuid));
+            return Outcome.CHANGED;
+        }
+        // Deleted since the job started.
+        if (tag == null) {
+            return Outcome.UNCHANGED;
+        }
+
+        var dataTag = tag.getCompound("data");
+        if (dataTag.containsUuid("playerUuid") && dataTag.getUuid("playerUuid").equals(uuid)) {
+            return Outcome.UNCHANGED;
+        }
+        EssentialCommands.LOGGER.warn("Player data of '{}' does not hold its player's UUID", uuid);
+        if (job.kind != Kind.REPAIR || isOnline) {
+            job.failedCount.incrementAndGet();
+            return Outcome.UNCHANGED;
+        }
+        dataTag.putUuid("playerUuid", uuid);
+        tag.put("data", dataTag);
+        backend.savePlayerData(uuid, tag);
+        return Outcome.CHANGED;
+    }
+
+    private void finish(Job job, @Nullable Throwable throwable) {
+        if (throwable == null && !job.cancelRequested && !job.skippedOnline.isEmpty()) {
+            // Players who are still online are reset in memory. Those who left since their record came up have been
+            // saved, so their records are processed again instead.
+            for (UUID uuid : List.copyOf(job.skippedOnline)) {
+                var playerData = PlayerDataManager.getInstance().getByUuid(uuid);
+                if (playerData == null) {
+                    if (job.requeuedPlayers.add(uuid)) {
+                        job.remainingPlayers.add(uuid);
+                    } else {
+                        // Skipped again after being processed again: give up on it rather than retry forever.
+                        EssentialCommands.LOGGER.warn("Player data job #{} skipped '{}' twice, giving up on it", job.id, uuid);
+                        job.failedCount.incrementAndGet();
+                        job.processedCount.incrementAndGet();
+                    }
+                } else {
+                    if (resetLoaded(job.kind, playerData)) {
+                        job.changedCount.incrementAndGet();
+                    }
+                    job.processedCount.incrementAndGet();
+                }
+                job.skippedOnline.remove(uuid);
+            }
+            if (!job.remainingPlayers.isEmpty()) {
+                resume(job);
+                return;
+            }
+        }
+
+        if (throwable != null) {
+            EssentialCommands.LOGGER.error("Player data job #{} failed", job.id, throwable);
+            job.state = State.FAILED;
+        } else {
+            job.state = job.cancelRequested ? State.CANCELLED : State.DONE;
+        }
+        job.finishedAtMs = System.currentTimeMillis();
+
+        runningJobs.remove(job);
+        finishedJobs.addFirst(job);
+        while (finishedJobs.size() > FINISHED_JOBS_KEPT) {
+            finishedJobs.removeLast();
+        }
+
+        var ecText = ECText.access(job.source.getPlayer());
+        var message = ecText.getText(
+            "cmd.jobs.finished",
+            ecText.accent("#" + job.id),
+            ecText.accent(job.description),
+            ecText.accent(job.state.getDisplayName()),
+            ecText.accent(String.valueOf(job.getProcessedCount())),
+            ecText.accent(String.valueOf(job.recordCount)),
+            ecText.accent(String.valueOf(job.getChangedCount())),
+            ecText.accent(String.valueOf(job.getFailedCount())));
+        job.source.sendFeedback(() -> message, true);
+    }
+
+    /**
+     * @return whether anything was reset.
+     */
+    private static boolean resetLoaded(Kind kind, PlayerData playerData) {
+        if (kind == Kind.RESET_NICKNAMES) {
+            if (playerData.getNickname().isEmpty()) {
+                return false;
+            }
+            playerData.setNickname(null);
+            return true;
+        }
+        if (kind == Kind.RESET_HOMES) {
+            var homeNames = List.copyOf(playerData.getHomeNames());
+            homeNames.forEach(playerData::removeHome);
+            return !homeNames.isEmpty();
+        }
+        return false;
+    }
+}
@@ -13,6 +13,8 @@ import com.fibermc.essentialcommands.events.PlayerConnectCallback;
 import com.fibermc.essentialcommands.events.PlayerDataManagerTickCallback;
 import com.fibermc.essentialcommands.events.PlayerDeathCallback;
 import com.fibermc.essentialcommands.events.PlayerLeaveCallback;
+import com.fibermc.essentialcommands.scheduler.MainThreadInbox;
+import com.fibermc.essentialcommands.scheduler.TickScheduler;
 import com.fibermc.essentialcommands.types.MinecraftLocation;
 import com.fibermc.essentialcommands.types.RespawnCondition;
 import org.jetbrains.annotations.NotNull;
@@ -21,13 +23,16 @@ import org.jetbrains.annotations.Nullable;
 import net.minecraft.entity.damage.DamageSource;
 import net.minecraft.network.ClientConnection;
 import net.minecraft.network.packet.s2c.play.PlayerListS2CPacket;
+import net.minecraft.registry.RegistryKey;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.PlayerManager;
 import net.minecraft.server.network.ServerPlayNetworkHandler;
 import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.world.World;
 
 import net.fabricmc.fabric.api.event.Event;
 import net.fabricmc.fabric.api.event.EventFactory;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.fabricmc.fabric.api.networking.v1.PacketSender;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
@@ -41,15 +46,16 @@ public class PlayerDataManager {
     private final ConcurrentHashMap<UUID, PlayerData> dataMap;
     private final List<PlayerData> changedNicknames;
     private final List<String> changedTeams;
-    private final List<ServerTask> nextTickTasks;
+    private final PlayerSpatialIndex spatialIndex;
     private static PlayerDataManager instance;
+    private static final int NICKNAME_REFRESH_INTERVAL_TICKS = 20 * 5;
 
     public PlayerDataManager() {
         instance = this;
         this.changedNicknames = new ArrayList<>();
         this.changedTeams = new ArrayList<>();
-        this.nextTickTasks = new ArrayList<>();
         this.dataMap = new ConcurrentHashMap<>();
+        this.spatialIndex = new PlayerSpatialIndex();
     }
 
     public static void init() {
@@ -58,6 +64,12 @@ public class PlayerDataManager {
         PlayerDeathCallback.EVENT.register(PlayerDataManager::handleSetPreviousLocationForDeath);
         ServerTickEvents.END_SERVER_TICK.register((MinecraftServer server) -> PlayerDataManager.getInstance().tick(server));
         ServerPlayConnectionEvents.JOIN.register(PlayerDataManager::handleSendMotdForGameJoin);
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> TickScheduler.getInstance().scheduleRepeating(
+            "nickname-refresh",
+            TickScheduler.Priority.LOW,
+            NICKNAME_REFRESH_INTERVAL_TICKS,
+            NICKNAME_REFRESH_INTERVAL_TICKS,
+            getInstance()::refreshChangedNicknames));
     }
 
     public static final Event<PlayerDataManagerTickCallback> TICK_EVENT = EventFactory.createArrayBacked(
@@ -104,54 +116,50 @@ public class PlayerDataManager {
         });
     }
 
-    public void tick(MinecraftServer server) {
-        if (CONFIG.NICKNAMES_IN_PLAYER_LIST && server.getTicks() % (20 * 5) == 0) {
-            if (this.changedNicknames.size() + this.changedTeams.size() > 0) {
-                PlayerManager serverPlayerManager = server.getPlayerManager();
+    private void refreshChangedNicknames(MinecraftServer server) {
+        if (CONFIG.NICKNAMES_IN_PLAYER_LIST && this.changedNicknames.size() + this.changedTeams.size() > 0) {
+            PlayerManager serverPlayerManager = server.getPlayerManager();
 
-                Set<ServerPlayerEntity> allChangedNicknamePlayers = Stream.concat(
-                    changedNicknames.stream().map(PlayerData::getPlayer),
-                    changedTeams.stream().map(serverPlayerManager::getPlayer)
-                ).filter(Objects::nonNull).collect(Collectors.toSet());
+            Set<ServerPlayerEntity> allChangedNicknamePlayers = Stream.concat(
+                changedNicknames.stream().map(PlayerData::getPlayer),
+                changedTeams.stream().map(serverPlayerManager::getPlayer)
+            ).filter(Objects::nonNull).collect(Collectors.toSet());
 
-                server.getPlayerManager().sendToAll(new PlayerListS2CPacket(
-                    EnumSet.of(PlayerListS2CPacket.Action.UPDATE_DISPLAY_NAME),
-                    allChangedNicknamePlayers
-                ));
+            server.getPlayerManager().sendToAll(new PlayerListS2CPacket(
+                EnumSet.of(PlayerListS2CPacket.Action.UPDATE_DISPLAY_NAME),
+                allChangedNicknamePlayers
+            ));
 
-                changedNicknames.forEach(playerData -> playerData.save(server.getRegistryManager()));
+            changedNicknames.forEach(playerData -> playerData.save(server.getRegistryManager()));
 
-                this.changedNicknames.clear();
-                this.changedTeams.clear();
-            }
+            this.changedNicknames.clear();
+            this.changedTeams.clear();
         }
+    }
 
-        if (!nextTickTasks.isEmpty()) {
-            for (ServerTask nextTickTask : nextTickTasks) {
-                nextTickTask.task().accept(server);
-            }
-            nextTickTasks.clear();
-        }
+    public void tick(MinecraftServer server) {
+        MainThreadInbox.getInstance().drain();
+        TickScheduler.getInstance().tick(server);
 
         TICK_EVENT.invoker().onTick(this, server);
 
         getAllPlayerData().forEach(PlayerData::onTickEnd);
     }
 
+    /**
+     * Runs {@code task} on the next tick. See {@link TickScheduler} for delayed, repeating or low-priority tasks.
+     */
     public void scheduleTask(Runnable task) {
-        this.nextTickTasks.add(ServerTask.of(null, task));
+        scheduleTask(server -> task.run());
     }
 
     public void scheduleTask(Consumer<MinecraftServer> task) {
-        this.nextTickTasks.add(ServerTask.of(null, task));
+        TickScheduler.getInstance().schedule(null, TickScheduler.Priority.NORMAL, 0, task);
     }
 
     public void scheduleTask(@NotNull String id, Consumer<MinecraftServer> task) {
         // When id provided, avoid duplicates on id
-        if (nextTickTasks.stream().anyMatch(existingTask -> id.equals(existingTask.id()))) {
-            return;
-        }
-        this.nextTickTasks.add(ServerTask.of(id, task));
+        TickScheduler.getInstance().schedule(id, TickScheduler.Priority.NORMAL, 0, task);
     }
 
     // EVENTS
@@ -165,7 +173,7 @@ public class PlayerDataManager {
     }
 
     private static void handleUnloadPlayerDataForLeave(ServerPlayerEntity player) {
-        // Auto-saving should be handled by WorldSaveHandlerMixin. (PlayerData saves when MC server saves players)
+        PlayerDataSaveScheduler.getInstance().save(player);
         getInstance().unloadPlayerData(player);
     }
 
@@ -176,12 +184,48 @@ public class PlayerDataManager {
         PlayerData playerData = oldPlayerAccess.ec$getPlayerData();
         playerData.updatePlayerEntity(newPlayerEntity);
         newPlayerAccess.ec$setPlayerData(playerData);
+        getInstance().spatialIndex.update(playerData);
 
         PlayerProfile profile = oldPlayerAccess.ec$getProfile();
         profile.updatePlayerEntity(newPlayerEntity);
         newPlayerAccess.ec$setProfile(profile);
     }
 
+    /**
+     * Answers {@link RespawnCondition}s for the player being respawned. Reused across respawns, which all happen on the
+     * server thread.
+     */
+    private static final class RespawnConditionContext implements ExpressionEvaluationContext<RespawnCondition> {
+        private @Nullable ServerPlayerEntity oldPlayerEntity;
+        private @Nullable RegistryKey<World> spawnDim;
+
+        private void set(@Nullable ServerPlayerEntity oldPlayerEntity, @Nullable RegistryKey<World> spawnDim) {
+            this.oldPlayerEntity = oldPlayerEntity;
+            this.spawnDim = spawnDim;
+        }
+
+        private boolean isSameWorld() {
+            return oldPlayerEntity != null && oldPlayerEntity.getWorld().getRegistryKey() == spawnDim;
+        }
+
+        private boolean hasNoBed() {
+            return oldPlayerEntity != null && oldPlayerEntity.getSpawnPointPosition() == null;
+        }
+
+        @Override
+        public boolean matches(RespawnCondition condition) {
+            return switch (condition) {
+                case Never -> false;
+                case Always -> true;
+                case SameWorld -> isSameWorld();
+                case NoBed -> hasNoBed();
+                case FirstJoin -> oldPlayerEntity == null;
+            };
+        }
+    }
+
+    private static final RespawnConditionContext RESPAWN_CONDITION_CONTEXT = new RespawnConditionContext();
+
     /**
      * @param oldPlayerEntity null if first spawn
      */
@@ -197,29 +241,11 @@ public class PlayerDataManager {
 
         var spawnLoc = spawnLocOpt.get();
 
-        ExpressionEvaluationContext<RespawnCondition> ctx = new ExpressionEvaluationContext<>() {
-            private boolean isSameWorld() {
-                return oldPlayerEntity.getWorld().getRegistryKey() == spawnLoc.dim();
-            }
-
-            private boolean hasNoBed() {
-                var vanillaPlayerSpawnPoint = oldPlayerEntity.getSpawnPointPosition();
-                return vanillaPlayerSpawnPoint == null;
-            }
+        RESPAWN_CONDITION_CONTEXT.set(oldPlayerEntity, spawnLoc.dim());
+        boolean respawnAtEcSpawn = CONFIG.RESPAWN_AT_EC_SPAWN.matches(RESPAWN_CONDITION_CONTEXT);
+        RESPAWN_CONDITION_CONTEXT.set(null, null);
 
-            @Override
-            public boolean matches(RespawnCondition condition) {
-                return switch (condition) {
-                    case Never -> false;
-                    case Always -> true;
-                    case SameWorld -> isSameWorld();
-                    case NoBed -> hasNoBed();
-                    case FirstJoin -> oldPlayerEntity == null;
-                };
-            }
-        };
-
-        if (CONFIG.RESPAWN_AT_EC_SPAWN.matches(ctx)) {
+        if (respawnAtEcSpawn) {
             // respawn at spawn loc
             // This event handler executes just before the player is truly respawned, so we can just
             // modify the entity's location to achieve this.
@@ -230,14 +256,15 @@ public class PlayerDataManager {
     private static void handleSetPreviousLocationForDeath(ServerPlayerEntity playerEntity, DamageSource damageSource) {
         PlayerData pData = ((ServerPlayerEntityAccess) playerEntity).ec$getPlayerData();
         if (CONFIG.ALLOW_BACK_ON_DEATH) {
-            pData.setPreviousLocation(new MinecraftLocation(pData.getPlayer()));
+            pData.recordBackLocation();
         }
     }
 
     // SET / ADD
     private PlayerData loadPlayerData(ServerPlayerEntity player) {
-        PlayerData playerData = ((ServerPlayerEntityAccess) player).ec$getPlayerData();
+        PlayerData playerData = PlayerDataFactory.markLoaded(player);
         dataMap.put(player.getUuid(), playerData);
+        spatialIndex.update(playerData);
         return playerData;
     }
 
@@ -247,13 +274,24 @@ public class PlayerDataManager {
 
     // SAVE / LOAD
     private void unloadPlayerData(ServerPlayerEntity player) {
-        this.dataMap.remove(player.getUuid());
+        var playerData = this.dataMap.remove(player.getUuid());
+        if (playerData != null) {
+            spatialIndex.remove(playerData);
+        }
+        PlayerDataFactory.markUnloaded(player.getUuid());
     }
 
     public Collection<PlayerData> getAllPlayerData() {
         return dataMap.values();
     }
 
+    /**
+     * @return the index of online players by position, for proximity queries.
+     */
+    public PlayerSpatialIndex getSpatialIndex() {
+        return spatialIndex;
+    }
+
     @Nullable
     public PlayerData getByUuid(UUID uuid) {
         return dataMap.get(uuid);
@@ -0,0 +1,88 @@
+package com.fibermc.essentialcommands.playerdata;
+
+import java.util.UUID;
+
+import com.fibermc.essentialcommands.access.ServerPlayerEntityAccess;
+import com.fibermc.essentialcommands.scheduler.TickScheduler;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+
+import static com.fibermc.essentialcommands.EssentialCommands.CONFIG;
+
+/**
+ * Saves the dirty player data and profiles of online players, independently of vanilla's autosave.
+ *
+ * <p>Players are split into {@code player_data_save_buckets} buckets by UUID. One bucket is saved every
+ * {@code player_data_save_interval_ticks / player_data_save_buckets} ticks, round-robin, so saves are spread across
+ * the interval instead of all landing on one tick, and a dirty record is saved at most one interval after it changes.
+ * Players are also saved as they leave (which covers shutdown), and anything still dirty when the server stops is
+ * saved then.
+ */
+public final class PlayerDataSaveScheduler {
+    private static final String TASK_ID = "player-data-save";
+
+    private static PlayerDataSaveScheduler instance;
+
+    private int bucketCount = 1;
+    private int nextBucket;
+
+    private PlayerDataSaveScheduler() {}
+
+    public static PlayerDataSaveScheduler getInstance() {
+        if (instance == null) {
+            instance = new PlayerDataSaveScheduler();
+        }
+        return instance;
+    }
+
+    public static void init() {
+        getInstance();
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> instance.start());
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> instance.saveAll(server));
+    }
+
+    private void start() {
+        bucketCount = Math.max(1, CONFIG.PLAYER_DATA_SAVE_BUCKETS);
+        nextBucket = 0;
+        int bucketIntervalTicks = Math.max(1, CONFIG.PLAYER_DATA_SAVE_INTERVAL_TICKS / bucketCount);
+        // NORMAL rather than LOW, so that a busy tick can't push saves past the interval.
+        TickScheduler.getInstance().scheduleRepeating(
+            TASK_ID,
+            TickScheduler.Priority.NORMAL,
+            bucketIntervalTicks,
+            bucketIntervalTicks,
+            this::saveNextBucket);
+    }
+
+    private void saveNextBucket(MinecraftServer server) {
+        int bucket = nextBucket;
+        nextBucket = (nextBucket + 1) % bucketCount;
+
+        for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
+            if (getBucket(player.getUuid()) == bucket) {
+                save(player);
+            }
+        }
+    }
+
+    private int getBucket(UUID playerUuid) {
+        return Math.floorMod(playerUuid.hashCode(), bucketCount);
+    }
+
+    /**
+     * Saves {@code player}'s data and profile, if they have changed since they were last saved.
+     */
+    public void save(ServerPlayerEntity player) {
+        var playerAccess = (ServerPlayerEntityAccess) player;
+        var registries = player.getServerWorld().getRegistryManager();
+        playerAccess.ec$getPlayerData().save(registries);
+        playerAccess.ec$getProfile().save(registries);
+    }
+
+    public void saveAll(MinecraftServer server) {
+        server.getPlayerManager().getPlayerList().forEach(this::save);
+    }
+}
@@ -1,11 +1,11 @@
 package com.fibermc.essentialcommands.playerdata;
 
-import java.io.File;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.Map;
 import java.util.Optional;
 
 import com.fibermc.essentialcommands.access.ServerPlayerEntityAccess;
+import com.fibermc.essentialcommands.storage.StorageManager;
 import com.fibermc.essentialcommands.types.IStyleProvider;
 import com.fibermc.essentialcommands.types.ProfileOption;
 import org.jetbrains.annotations.NotNull;
@@ -29,12 +29,10 @@ import dev.jpcode.eccore.config.ConfigUtil;
 public class PlayerProfile extends PersistentState implements IServerPlayerEntityData, IStyleProvider {
 
     private ServerPlayerEntity player;
-    private final File saveFile;
     private ProfileOptions profileOptions;
 
-    public PlayerProfile(@NotNull ServerPlayerEntity player, File saveFile) {
+    public PlayerProfile(@NotNull ServerPlayerEntity player) {
         this.player = player;
-        this.saveFile = saveFile;
         this.profileOptions = new ProfileOptions();
     }
 
@@ -139,7 +137,10 @@ public class PlayerProfile extends PersistentState implements IServerPlayerEntit
     }
 
     public void save(RegistryWrapper.WrapperLookup wrapperLookup) {
-        super.save(saveFile, wrapperLookup);
+        StorageManager.getInstance().save(
+            this,
+            wrapperLookup,
+            (backend, tag) -> backend.savePlayerProfile(player.getUuid(), tag));
     }
 
     @Override
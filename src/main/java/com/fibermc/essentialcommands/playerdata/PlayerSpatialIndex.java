@@ -0,0 +1,160 @@
+package com.fibermc.essentialcommands.playerdata;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+
+/**
+ * Per-dimension spatial hash of online players, bucketed into square columns of {@link #CELL_SIZE} blocks.
+ *
+ * <p>Kept up to date from {@link PlayerData#onTickEnd()}, which already tracks whether a player moved during the tick.
+ * Queries only visit the cells that overlap the search area, so their cost depends on how many players are nearby
+ * rather than on how many players are online. Server thread only.
+ */
+public final class PlayerSpatialIndex {
+    private static final int CELL_SHIFT = 6;
+    public static final int CELL_SIZE = 1 << CELL_SHIFT;
+
+    public record Neighbor(PlayerData playerData, double distance) {}
+
+    private record CellRef(RegistryKey<World> dimension, long cellKey) {}
+
+    private final Map<RegistryKey<World>, Long2ObjectMap<List<PlayerData>>> cellsByDimension = new HashMap<>();
+    private final Map<UUID, CellRef> playerCells = new HashMap<>();
+
+    /**
+     * Moves the player to the cell matching their current position, if it changed.
+     */
+    public void update(PlayerData playerData) {
+        var player = playerData.getPlayer();
+        var cellRef = new CellRef(
+            player.getWorld().getRegistryKey(),
+            ChunkPos.toLong(toCellCoord(player.getX()), toCellCoord(player.getZ()))
+        );
+
+        var previousCellRef = playerCells.put(player.getUuid(), cellRef);
+        if (cellRef.equals(previousCellRef)) {
+            return;
+        }
+        if (previousCellRef != null) {
+            removeFromCell(previousCellRef, playerData);
+        }
+        cellsByDimension
+            .computeIfAbsent(cellRef.dimension(), k -> new Long2ObjectOpenHashMap<>())
+            .computeIfAbsent(cellRef.cellKey(), k -> new ArrayList<>(4))
+            .add(playerData);
+    }
+
+    public void remove(PlayerData playerData) {
+        var previousCellRef = playerCells.remove(playerData.getPlayer().getUuid());
+        if (previousCellRef != null) {
+            removeFromCell(previousCellRef, playerData);
+        }
+    }
+
+    /**
+     * @return players within {@code radius} blocks (3D distance) of {@code center}, nearest first.
+     */
+    public List<Neighbor> queryRadius(RegistryKey<World> dimension, Vec3d center, double radius) {
+        var cells = cellsByDimension.get(dimension);
+        List<Neighbor> result = new ArrayList<>();
+        if (cells == null) {
+            return result;
+        }
+
+        int minCellX = toCellCoord(center.x - radius);
+        int maxCellX = toCellCoord(center.x + radius);
+        int minCellZ = toCellCoord(center.z - radius);
+        int maxCellZ = toCellCoord(center.z + radius);
+        double radiusSquared = radius * radius;
+
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+                collectWithin(cells.get(ChunkPos.toLong(cellX, cellZ)), center, radiusSquared, result);
+            }
+        }
+
+        result.sort(Comparator.comparingDouble(Neighbor::distance));
+        return result;
+    }
+
+    /**
+     * @return up to {@code k} players nearest to {@code center} and no further than {@code maxRadius}, nearest first.
+     */
+    public List<Neighbor> queryNearest(RegistryKey<World> dimension, Vec3d center, int k, double maxRadius) {
+        var cells = cellsByDimension.get(dimension);
+        List<Neighbor> result = new ArrayList<>();
+        if (cells == null || k <= 0) {
+            return result;
+        }
+
+        int centerCellX = toCellCoord(center.x);
+        int centerCellZ = toCellCoord(center.z);
+        int maxRing = MathHelper.ceil(maxRadius / CELL_SIZE) + 1;
+        double maxRadiusSquared = maxRadius * maxRadius;
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int cellX = centerCellX - ring; cellX <= centerCellX + ring; cellX++) {
+                boolean isEdgeColumn = cellX == centerCellX - ring || cellX == centerCellX + ring;
+                int step = isEdgeColumn ? 1 : ring * 2;
+                for (int cellZ = centerCellZ - ring; cellZ <= centerCellZ + ring; cellZ += Math.max(step, 1)) {
+                    collectWithin(cells.get(ChunkPos.toLong(cellX, cellZ)), center, maxRadiusSquared, result);
+                }
+            }
+
+            // Every cell in later rings is at least `ring * CELL_SIZE` blocks away, so once we have k players that
+            // are closer than that, no later ring can improve on them.
+            if (result.size() >= k) {
+                result.sort(Comparator.comparingDouble(Neighbor::distance));
+                if (result.get(k - 1).distance() <= (double) ring * CELL_SIZE) {
+                    break;
+                }
+            }
+        }
+
+        result.sort(Comparator.comparingDouble(Neighbor::distance));
+        return result.size() > k ? new ArrayList<>(result.subList(0, k)) : result;
+    }
+
+    private static void collectWithin(List<PlayerData> cell, Vec3d center, double radiusSquared, List<Neighbor> out) {
+        if (cell == null) {
+            return;
+        }
+        for (PlayerData playerData : cell) {
+            double distanceSquared = playerData.getPlayer().getPos().squaredDistanceTo(center);
+            if (distanceSquared <= radiusSquared) {
+                out.add(new Neighbor(playerData, Math.sqrt(distanceSquared)));
+            }
+        }
+    }
+
+    private void removeFromCell(CellRef cellRef, PlayerData playerData) {
+        var cells = cellsByDimension.get(cellRef.dimension());
+        if (cells == null) {
+            return;
+        }
+        var cell = cells.get(cellRef.cellKey());
+        if (cell != null) {
+            cell.remove(playerData);
+            if (cell.isEmpty()) {
+                cells.remove(cellRef.cellKey());
+            }
+        }
+    }
+
+    private static int toCellCoord(double blockCoord) {
+        return MathHelper.floor(blockCoord) >> CELL_SHIFT;
+    }
+}
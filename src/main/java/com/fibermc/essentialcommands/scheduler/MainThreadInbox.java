@@ -0,0 +1,94 @@
+package com.fibermc.essentialcommands.scheduler;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import com.fibermc.essentialcommands.EssentialCommands;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+
+/**
+ * Hands work from background threads (RTP searches, profile lookups, chunk loads, ...) back to the server thread.
+ *
+ * <p>Any thread may submit; submissions are queued on a lock-free queue and run, in order, at the start of the next
+ * {@link com.fibermc.essentialcommands.playerdata.PlayerDataManager#tick}. Also usable as an {@link Executor}, e.g. for
+ * {@link CompletableFuture#thenApplyAsync(java.util.function.Function, Executor)}.
+ */
+public final class MainThreadInbox implements Executor {
+    // Created eagerly, since the first caller may be a background thread.
+    private static final MainThreadInbox INSTANCE = new MainThreadInbox();
+
+    private final ConcurrentLinkedQueue<Runnable> pending = new ConcurrentLinkedQueue<>();
+
+    private MainThreadInbox() {}
+
+    public static MainThreadInbox getInstance() {
+        return INSTANCE;
+    }
+
+    public static void init() {
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> INSTANCE.pending.clear());
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        pending.add(task);
+    }
+
+    /**
+     * @return a future completed on the server thread with the result of {@code task}, or with the exception it threw.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        pending.add(() -> {
+            try {
+                result.complete(task.get());
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    public CompletableFuture<Void> submit(Runnable task) {
+        return submit(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * @return a future that completes on the server thread, with the same result as {@code future}.
+     */
+    public <T> CompletableFuture<T> completeOnMainThread(CompletableFuture<T> future) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        future.whenComplete((value, throwable) -> pending.add(() -> {
+            if (throwable != null) {
+                result.completeExceptionally(throwable);
+            } else {
+                result.complete(value);
+            }
+        }));
+        return result;
+    }
+
+    /**
+     * Runs everything submitted before the drain started. Anything submitted while draining, including by the tasks
+     * themselves, waits for the next drain, so a task that resubmits itself runs once per tick. Server thread only.
+     */
+    public void drain() {
+        // Marks the end of the tasks to run now. The queue is unbounded, so counting it up front would be O(n).
+        Runnable end = () -> {};
+        pending.add(end);
+        Runnable task;
+        while ((task = pending.poll()) != null && task != end) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                EssentialCommands.LOGGER.error("Exception in task submitted to the main thread", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.fibermc.essentialcommands.scheduler;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+import com.fibermc.essentialcommands.EssentialCommands;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.server.MinecraftServer;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+
+import static com.fibermc.essentialcommands.EssentialCommands.CONFIG;
+
+/**
+ * Runs delayed and repeating tasks on the server thread, ordered by the tick they are due.
+ *
+ * <p>{@link Priority#HIGH} and {@link Priority#NORMAL} tasks run in full as soon as they are due. Due
+ * {@link Priority#LOW} tasks are run afterwards, until {@code scheduler_low_priority_budget_ms} has been spent (at
+ * least one runs each tick), and the rest carry over to the next tick.
+ *
+ * <p>Tasks may have an id. Scheduling a task with the id of one that is still pending does nothing, and pending tasks
+ * can be cancelled by id. Run time is recorded per id (tasks without one are grouped together).
+ */
+public final class TickScheduler {
+    private static final String ANONYMOUS_TASK_NAME = "<anonymous>";
+
+    private static TickScheduler instance;
+
+    public enum Priority {
+        HIGH,
+        NORMAL,
+        LOW,
+    }
+
+    public static final class ScheduledTask {
+        private final @Nullable String id;
+        private final Priority priority;
+        private final int intervalTicks;
+        private final Consumer<MinecraftServer> task;
+        private long dueTick;
+        private long sequence;
+        private boolean cancelled;
+
+        private ScheduledTask(@Nullable String id, Priority priority, int intervalTicks, Consumer<MinecraftServer> task) {
+            this.id = id;
+            this.priority = priority;
+            this.intervalTicks = intervalTicks;
+            this.task = task;
+        }
+
+        public @Nullable String id() {
+            return id;
+        }
+
+        public boolean isRepeating() {
+            return intervalTicks > 0;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    public static final class TaskTiming {
+        private long runCount;
+        private long totalNanos;
+        private long maxNanos;
+
+        private void record(long nanos) {
+            runCount++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        public long getRunCount() {
+            return runCount;
+        }
+
+        public double getTotalMs() {
+            return totalNanos / 1_000_000D;
+        }
+
+        public double getAverageMs() {
+            return runCount == 0 ? 0 : totalNanos / 1_000_000D / runCount;
+        }
+
+        public double getMaxMs() {
+            return maxNanos / 1_000_000D;
+        }
+    }
+
+    private final PriorityQueue<ScheduledTask> pendingTasks = new PriorityQueue<>(
+        Comparator.<ScheduledTask>comparingLong(task -> task.dueTick)
+            .thenComparing(task -> task.priority)
+            .thenComparingLong(task -> task.sequence));
+    private final Map<String, ScheduledTask> pendingTasksById = new HashMap<>();
+    private final ArrayDeque<ScheduledTask> lowPriorityBacklog = new ArrayDeque<>();
+    private final Map<String, TaskTiming> timings = new HashMap<>();
+    private long currentTick;
+    private long nextSequence;
+
+    private TickScheduler() {}
+
+    public static TickScheduler getInstance() {
+        if (instance == null) {
+            instance = new TickScheduler();
+        }
+        return instance;
+    }
+
+    public static void init() {
+        getInstance();
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> instance.clear());
+    }
+
+    /**
+     * Runs {@code task} once, {@code delayTicks} ticks from now (0 meaning the next time the scheduler runs).
+     *
+     * @return the scheduled task, or the already pending task with the same id.
+     */
+    public ScheduledTask schedule(@Nullable String id, Priority priority, int delayTicks, Consumer<MinecraftServer> task) {
+        return add(new ScheduledTask(id, priority, 0, task), delayTicks);
+    }
+
+    /**
+     * Runs {@code task} every {@code intervalTicks} ticks, starting {@code initialDelayTicks} ticks from now, until it is
+     * cancelled.
+     *
+     * @return the scheduled task, or the already pending task with the same id.
+     */
+    public ScheduledTask scheduleRepeating(
+        @Nullable String id,
+        Priority priority,
+        int initialDelayTicks,
+        int intervalTicks,
+        Consumer<MinecraftServer> task)
+    {
+        if (intervalTicks <= 0) {
+            throw new IllegalArgumentException("intervalTicks must be positive, got " + intervalTicks);
+        }
+        return add(new ScheduledTask(id, priority, intervalTicks, task), initialDelayTicks);
+    }
+
+    private ScheduledTask add(ScheduledTask task, int delayTicks) {
+        if (task.id != null) {
+            var existing = pendingTasksById.putIfAbsent(task.id, task);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        enqueue(task, currentTick + Math.max(0, delayTicks));
+        return task;
+    }
+
+    private void enqueue(ScheduledTask task, long dueTick) {
+        task.dueTick = dueTick;
+        task.sequence = nextSequence++;
+        pendingTasks.add(task);
+    }
+
+    /**
+     * @return whether a pending task with the specified id was cancelled.
+     */
+    public boolean cancel(String id) {
+        var task = pendingTasksById.remove(id);
+        if (task == null) {
+            return false;
+        }
+        // Left in the queue, and skipped when it comes due.
+        task.cancelled = true;
+        return true;
+    }
+
+    public boolean isPending(String id) {
+        return pendingTasksById.containsKey(id);
+    }
+
+    public void tick(MinecraftServer server) {
+        currentTick = server.getTicks();
+
+        // Collect first, so that tasks scheduled by the tasks we run wait until the next tick.
+        List<ScheduledTask> dueTasks = new ArrayList<>();
+        while (!pendingTasks.isEmpty() && pendingTasks.peek().dueTick <= currentTick) {
+            var task = pendingTasks.poll();
+            if (task.cancelled) {
+                continue;
+            }
+            if (task.priority == Priority.LOW) {
+                lowPriorityBacklog.add(task);
+            } else {
+                dueTasks.add(task);
+            }
+        }
+
+        for (ScheduledTask task : dueTasks) {
+            run(task, server);
+        }
+
+        final long deadlineNanos = System.nanoTime() + (long) (CONFIG.SCHEDULER_LOW_PRIORITY_BUDGET_MS * 1_000_000);
+        boolean ranLowPriorityTask = false;
+        while (!lowPriorityBacklog.isEmpty() && (!ranLowPriorityTask || System.nanoTime() < deadlineNanos)) {
+            var task = lowPriorityBacklog.poll();
+            if (task.cancelled) {
+                continue;
+            }
+            run(task, server);
+            ranLowPriorityTask = true;
+        }
+    }
+
+    private void run(ScheduledTask task, MinecraftServer server) {
+        long startNanos = System.nanoTime();
+        try {
+            task.task.accept(server);
+        } catch (RuntimeException e) {
+            EssentialCommands.LOGGER.error("Exception in scheduled task '{}'", task.id != null ? task.id : ANONYMOUS_TASK_NAME, e);
+        }
+        timings.computeIfAbsent(task.id != null ? task.id : ANONYMOUS_TASK_NAME, k -> new TaskTiming())
+            .record(System.nanoTime() - startNanos);
+
+        if (task.cancelled) {
+            return;
+        }
+        if (task.isRepeating()) {
+            enqueue(task, currentTick + task.intervalTicks);
+        } else if (task.id != null) {
+            pendingTasksById.remove(task.id, task);
+        }
+    }
+
+    public int getPendingCount() {
+        return pendingTasks.size();
+    }
+
+    public int getLowPriorityBacklogSize() {
+        return lowPriorityBacklog.size();
+    }
+
+    /**
+     * @return run time statistics per task id, since the server started.
+     */
+    public Map<String, TaskTiming> getTimings() {
+        return timings;
+    }
+
+    private void clear() {
+        pendingTasks.clear();
+        pendingTasksById.clear();
+        lowPriorityBacklog.clear();
+        timings.clear();
+        currentTick = 0;
+    }
+}
@@ -0,0 +1,556 @@
+package com.fibermc.essentialcommands.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.fibermc.essentialcommands.EssentialCommands;
+import com.fibermc.essentialcommands.playerdata.PlayerData;
+import com.fibermc.essentialcommands.types.WarpStorage;
+import com.fibermc.essentialcommands.util.DataFileCodec;
+import com.fibermc.essentialcommands.util.FileUtil;
+import org.h2.Driver;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtSizeTracker;
+import net.minecraft.registry.RegistryWrapper;
+import net.minecraft.server.MinecraftServer;
+
+/**
+ * An embedded H2 database, {@code essentialcommands/storage.mv.db} in the world directory.
+ *
+ * <p>Each record is kept whole, as uncompressed NBT, next to indexed columns projected from it: players' nicknames
+ * and home counts, each home's dimension and position, and each warp's dimension and position. Admins can query these
+ * with standard SQL tools; the database runs in H2's auto-server mode, so it can be opened while the server is up.
+ *
+ * <p>Writes are queued and flushed in one transaction every {@value #FLUSH_INTERVAL_MS} ms, with batched prepared
+ * statements. Only the latest queued write of each record is kept, and reads see queued writes. If the transaction
+ * fails, its records are written one at a time instead; those the database rejects (e.g. a home name too long for its
+ * column) are logged and dropped, and other failures are retried on the next flush.
+ */
+public final class H2StorageBackend implements StorageBackend {
+    public static final String NAME = "h2";
+
+    private static final String DATABASE_DIR = "essentialcommands";
+    private static final String DATABASE_NAME = "storage";
+    private static final long FLUSH_INTERVAL_MS = 1000;
+    private static final int WORLD_DATA_ID = 0;
+    // Metadata entry written once existing records have been imported.
+    private static final String IMPORTED_FROM = "imported_from";
+
+    private static final String[] SCHEMA = {
+        """
+        CREATE TABLE IF NOT EXISTS players (
+            uuid UUID PRIMARY KEY,
+            nickname VARCHAR(1024),
+            home_count INT NOT NULL,
+            updated_at BIGINT NOT NULL,
+            data VARBINARY NOT NULL
+        )""",
+        "CREATE INDEX IF NOT EXISTS players_nickname ON players (nickname)",
+        """
+        CREATE TABLE IF NOT EXISTS homes (
+            owner UUID NOT NULL,
+            name VARCHAR(255) NOT NULL,
+            dimension VARCHAR(255) NOT NULL,
+            x DOUBLE PRECISION NOT NULL,
+            y DOUBLE PRECISION NOT NULL,
+            z DOUBLE PRECISION NOT NULL,
+            PRIMARY KEY (owner, name)
+        )""",
+        "CREATE INDEX IF NOT EXISTS homes_dimension ON homes (dimension)",
+        """
+        CREATE TABLE IF NOT EXISTS quarantined_players (
+            uuid UUID NOT NULL,
+            quarantined_at BIGINT NOT NULL,
+            data VARBINARY NOT NULL
+        )""",
+        """
+        CREATE TABLE IF NOT EXISTS player_profiles (
+            uuid UUID PRIMARY KEY,
+            data VARBINARY NOT NULL
+        )""",
+        """
+        CREATE TABLE IF NOT EXISTS world_data (
+            id INT PRIMARY KEY,
+            data VARBINARY NOT NULL
+        )""",
+        """
+        CREATE TABLE IF NOT EXISTS warps (
+            name VARCHAR(255) PRIMARY KEY,
+            dimension VARCHAR(255) NOT NULL,
+            x DOUBLE PRECISION NOT NULL,
+            y DOUBLE PRECISION NOT NULL,
+            z DOUBLE PRECISION NOT NULL,
+            permission VARCHAR(255)
+        )""",
+        "CREATE INDEX IF NOT EXISTS warps_dimension ON warps (dimension)",
+        """
+        CREATE TABLE IF NOT EXISTS metadata (
+            name VARCHAR(255) PRIMARY KEY,
+            data VARCHAR(1024) NOT NULL
+        )""",
+    };
+
+    /**
+     * A queued player data write; a null tag deletes the record.
+     */
+    private record PendingPlayerData(@Nullable NbtCompound tag, long modifiedEpochMs) {}
+
+    private final Connection connection;
+    private final RegistryWrapper.WrapperLookup wrapperLookup;
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "EC Storage Writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<UUID, PendingPlayerData> pendingPlayerData = new ConcurrentHashMap<>();
+    private final Map<UUID, NbtCompound> pendingPlayerProfiles = new ConcurrentHashMap<>();
+    private final AtomicReference<NbtCompound> pendingWorldData = new AtomicReference<>();
+
+    public H2StorageBackend(MinecraftServer server) throws IOException {
+        Path databasePath = FileUtil.getOrCreateWorldDirectory(server, DATABASE_DIR).resolve(DATABASE_NAME);
+        this.wrapperLookup = server.getRegistryManager();
+        try {
+            // The driver is used directly, since DriverManager can't see drivers nested in a mod jar.
+            this.connection = new Driver().connect(
+                "jdbc:h2:file:" + databasePath.toAbsolutePath() + ";AUTO_SERVER=TRUE",
+                new Properties());
+            try (Statement statement = connection.createStatement()) {
+                for (String sql : SCHEMA) {
+                    statement.execute(sql);
+                }
+            }
+            connection.setAutoCommit(false);
+        } catch (SQLException e) {
+            throw new IOException("Could not open the storage database at '%s'".formatted(databasePath), e);
+        }
+
+        writer.scheduleWithFixedDelay(this::flushOrLog, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * @return whether {@link #markImported} has been called for this database.
+     */
+    public boolean isImported() throws IOException {
+        synchronized (connection) {
+            try (PreparedStatement select = connection.prepareStatement("SELECT 1 FROM metadata WHERE name = ?")) {
+                select.setString(1, IMPORTED_FROM);
+                try (ResultSet results = select.executeQuery()) {
+                    return results.next();
+                }
+            } catch (SQLException e) {
+                throw new IOException(e);
+            }
+        }
+    }
+
+    /**
+     * Writes everything queued, then records that the records of {@code sourceBackendName} have been imported. The
+     * marker is committed last, so an import that is interrupted is run again when the database is next opened.
+     */
+    public void markImported(String sourceBackendName) throws IOException {
+        flush();
+        synchronized (connection) {
+            try (PreparedStatement merge = connection.prepareStatement("MERGE INTO metadata (name, data) KEY (name) VALUES (?, ?)")) {
+                merge.setString(1, IMPORTED_FROM);
+                merge.setString(2, sourceBackendName);
+                merge.executeUpdate();
+                connection.commit();
+            } catch (SQLException e) {
+                rollback();
+                throw new IOException(e);
+            }
+        }
+    }
+
+    // Player data
+
+    @Override
+    public @Nullable NbtCompound loadPlayerData(UUID playerUuid) throws IOException {
+        var pending = pendingPlayerData.get(playerUuid);
+        if (pending != null) {
+            return pending.tag() == null ? null : pending.tag().copy();
+        }
+        return selectRecord("SELECT data FROM players WHERE uuid = ?", playerUuid);
+    }
+
+    @Override
+    public void savePlayerData(UUID playerUuid, NbtCompound tag) {
+        pendingPlayerData.put(playerUuid, new PendingPlayerData(tag, System.currentTimeMillis()));
+    }
+
+    @Override
+    public void deletePlayerData(UUID playerUuid) {
+        pendingPlayerData.put(playerUuid, new PendingPlayerData(null, System.currentTimeMillis()));
+    }
+
+    @Override
+    public void quarantinePlayerData(UUID playerUuid) throws IOException {
+        synchronized (connection) {
+            try {
+                try (PreparedStatement insert = connection.prepareStatement("""
+                    INSERT INTO quarantined_players (uuid, quarantined_at, data)
+                    SELECT uuid, ?, data FROM players WHERE uuid = ?""")
+                ) {
+                    insert.setLong(1, System.currentTimeMillis());
+                    insert.setObject(2, playerUuid);
+                    insert.executeUpdate();
+                }
+                deletePlayer(playerUuid);
+                connection.commit();
+            } catch (SQLException e) {
+                rollback();
+                throw new IOException(e);
+            }
+        }
+    }
+
+    @Override
+    public Map<UUID, Long> getPlayerDataModifiedTimes() throws IOException {
+        Map<UUID, Long> modifiedTimes = new HashMap<>();
+        synchronized (connection) {
+            try (
+                PreparedStatement select = connection.prepareStatement("SELECT uuid, updated_at FROM players");
+                ResultSet results = select.executeQuery()
+            ) {
+                while (results.next()) {
+                    modifiedTimes.put(results.getObject(1, UUID.class), results.getLong(2));
+                }
+            } catch (SQLException e) {
+                throw new IOException(e);
+            }
+        }
+        pendingPlayerData.forEach((playerUuid, pending) -> {
+            if (pending.tag() == null) {
+                modifiedTimes.remove(playerUuid);
+            } else {
+                modifiedTimes.put(playerUuid, pending.modifiedEpochMs());
+            }
+        });
+        return modifiedTimes;
+    }
+
+    // Player profiles
+
+    @Override
+    public @Nullable NbtCompound loadPlayerProfile(UUID playerUuid) throws IOException {
+        var pending = pendingPlayerProfiles.get(playerUuid);
+        if (pending != null) {
+            return pending.copy();
+        }
+        return selectRecord("SELECT data FROM player_profiles WHERE uuid = ?", playerUuid);
+    }
+
+    @Override
+    public void savePlayerProfile(UUID playerUuid, NbtCompound tag) {
+        pendingPlayerProfiles.put(playerUuid, tag);
+    }
+
+    @Override
+    public Set<UUID> getPlayerProfileIds() throws IOException {
+        Set<UUID> playerUuids = new HashSet<>(pendingPlayerProfiles.keySet());
+        synchronized (connection) {
+            try (
+                PreparedStatement select = connection.prepareStatement("SELECT uuid FROM player_profiles");
+                ResultSet results = select.executeQuery()
+            ) {
+                while (results.next()) {
+                    playerUuids.add(results.getObject(1, UUID.class));
+                }
+            } catch (SQLException e) {
+                throw new IOException(e);
+            }
+        }
+        return playerUuids;
+    }
+
+    // World data
+
+    @Override
+    public @Nullable NbtCompound loadWorldData() throws IOException {
+        var pending = pendingWorldData.get();
+        if (pending != null) {
+            return pending.copy();
+        }
+        return selectRecord("SELECT data FROM world_data WHERE id = ?", WORLD_DATA_ID);
+    }
+
+    @Override
+    public void saveWorldData(NbtCompound tag) {
+        pendingWorldData.set(tag);
+    }
+
+    // Writing
+
+    @Override
+    public void flush() throws IOException {
+        var playerData = Map.copyOf(pendingPlayerData);
+        var playerProfiles = Map.copyOf(pendingPlayerProfiles);
+        var worldData = pendingWorldData.get();
+        if (playerData.isEmpty() && playerProfiles.isEmpty() && worldData == null) {
+            return;
+        }
+
+        synchronized (connection) {
+            try {
+                writePlayerData(playerData);
+                writePlayerProfiles(playerProfiles);
+                if (worldData != null) {
+                    writeWorldData(worldData);
+                }
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                rollback();
+                // Otherwise one bad record would hold back, and keep pending, every record queued with it.
+                writeSeparately(playerData, playerProfiles, worldData);
+            }
+        }
+
+        // Writes queued meanwhile are kept for the next flush.
+        playerData.forEach(pendingPlayerData::remove);
+        playerProfiles.forEach(pendingPlayerProfiles::remove);
+        pendingWorldData.compareAndSet(worldData, null);
+    }
+
+    private void writeSeparately(
+        Map<UUID, PendingPlayerData> playerData,
+        Map<UUID, NbtCompound> playerProfiles,
+        @Nullable NbtCompound worldData
+    ) throws IOException {
+        for (var entry : playerData.entrySet()) {
+            writeOrDrop(
+                "player data for '%s'".formatted(entry.getKey()),
+                () -> writePlayerData(Map.of(entry.getKey(), entry.getValue())));
+        }
+        for (var entry : playerProfiles.entrySet()) {
+            writeOrDrop(
+                "player profile for '%s'".formatted(entry.getKey()),
+                () -> writePlayerProfiles(Map.of(entry.getKey(), entry.getValue())));
+        }
+        if (worldData != null) {
+            writeOrDrop("world data", () -> writeWorldData(worldData));
+        }
+    }
+
+    @FunctionalInterface
+    private interface RecordWrite {
+        void write() throws SQLException, IOException;
+    }
+
+    /**
+     * Writes and commits a single record, or logs and drops it if the database rejects it.
+     *
+     * @throws IOException if writing failed for another reason.
+     */
+    private void writeOrDrop(String description, RecordWrite write) throws IOException {
+        try {
+            write.write();
+            connection.commit();
+        } catch (SQLException e) {
+            rollback();
+            if (!isRejectedRecord(e)) {
+                throw new IOException(e);
+            }
+            EssentialCommands.LOGGER.error("The storage database rejected the {}, it will not be saved", description, e);
+        } catch (RuntimeException e) {
+            // The record couldn't be projected into columns.
+            rollback();
+            EssentialCommands.LOGGER.error("Could not write the {} to the storage database, it will not be saved", description, e);
+        }
+    }
+
+    /**
+     * @return whether {@code e} is a data exception (SQLSTATE class 22, e.g. a value too long for its column) or an
+     * integrity constraint violation (class 23), which retrying won't fix.
+     */
+    private static boolean isRejectedRecord(SQLException e) {
+        String sqlState = e.getSQLState();
+        return sqlState != null && (sqlState.startsWith("22") || sqlState.startsWith("23"));
+    }
+
+    private void flushOrLog() {
+        try {
+            flush();
+        } catch (IOException | RuntimeException e) {
+            EssentialCommands.LOGGER.error("Could not write to the storage database, will retry", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(FLUSH_INTERVAL_MS * 10, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            flush();
+        } finally {
+            synchronized (connection) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    throw new IOException(e);
+                }
+            }
+        }
+    }
+
+    private void writePlayerData(Map<UUID, PendingPlayerData> playerData) throws SQLException, IOException {
+        try (
+            PreparedStatement mergePlayer = connection.prepareStatement("""
+                MERGE INTO players (uuid, nickname, home_count, updated_at, data) KEY (uuid)
+                VALUES (?, ?, ?, ?, ?)""");
+            PreparedStatement deletePlayer = connection.prepareStatement("DELETE FROM players WHERE uuid = ?");
+            PreparedStatement deleteHomes = connection.prepareStatement("DELETE FROM homes WHERE owner = ?");
+            PreparedStatement insertHome = connection.prepareStatement(
+                "INSERT INTO homes (owner, name, dimension, x, y, z) VALUES (?, ?, ?, ?, ?, ?)")
+        ) {
+            for (var entry : playerData.entrySet()) {
+                UUID playerUuid = entry.getKey();
+                NbtCompound tag = entry.getValue().tag();
+                deleteHomes.setObject(1, playerUuid);
+                deleteHomes.addBatch();
+                if (tag == null) {
+                    deletePlayer.setObject(1, playerUuid);
+                    deletePlayer.addBatch();
+                    continue;
+                }
+
+                var homes = PlayerData.readHomes(tag);
+                mergePlayer.setObject(1, playerUuid);
+                mergePlayer.setString(2, PlayerData.readPlainNickname(tag, wrapperLookup));
+                mergePlayer.setInt(3, homes.size());
+                mergePlayer.setLong(4, entry.getValue().modifiedEpochMs());
+                mergePlayer.setBytes(5, encode(tag));
+                mergePlayer.addBatch();
+                for (var home : homes.values()) {
+                    insertHome.setObject(1, playerUuid);
+                    insertHome.setString(2, home.getName());
+                    insertHome.setString(3, home.dim().getValue().toString());
+                    insertHome.setDouble(4, home.pos().x);
+                    insertHome.setDouble(5, home.pos().y);
+                    insertHome.setDouble(6, home.pos().z);
+                    insertHome.addBatch();
+                }
+            }
+            // Homes are replaced wholesale, so they are deleted before being reinserted.
+            deleteHomes.executeBatch();
+            deletePlayer.executeBatch();
+            mergePlayer.executeBatch();
+            insertHome.executeBatch();
+        }
+    }
+
+    private void writePlayerProfiles(Map<UUID, NbtCompound> playerProfiles) throws SQLException, IOException {
+        try (PreparedStatement merge = connection.prepareStatement(
+            "MERGE INTO player_profiles (uuid, data) KEY (uuid) VALUES (?, ?)")
+        ) {
+            for (var entry : playerProfiles.entrySet()) {
+                merge.setObject(1, entry.getKey());
+                merge.setBytes(2, encode(entry.getValue()));
+                merge.addBatch();
+            }
+            merge.executeBatch();
+        }
+    }
+
+    private void writeWorldData(NbtCompound tag) throws SQLException, IOException {
+        try (
+            PreparedStatement merge = connection.prepareStatement("MERGE INTO world_data (id, data) KEY (id) VALUES (?, ?)");
+            PreparedStatement deleteWarps = connection.prepareStatement("DELETE FROM warps");
+            PreparedStatement insertWarp = connection.prepareStatement(
+                "INSERT INTO warps (name, dimension, x, y, z, permission) VALUES (?, ?, ?, ?, ?, ?)")
+        ) {
+            merge.setInt(1, WORLD_DATA_ID);
+            merge.setBytes(2, encode(tag));
+            merge.executeUpdate();
+
+            deleteWarps.executeUpdate();
+            var warps = new WarpStorage();
+            warps.loadNbt(tag.getCompound("data").getCompound("warps"));
+            for (var warp : warps.values()) {
+                insertWarp.setString(1, warp.getName());
+                insertWarp.setString(2, warp.dim().getValue().toString());
+                insertWarp.setDouble(3, warp.pos().x);
+                insertWarp.setDouble(4, warp.pos().y);
+                insertWarp.setDouble(5, warp.pos().z);
+                insertWarp.setString(6, warp.getPermissionString());
+                insertWarp.addBatch();
+            }
+            insertWarp.executeBatch();
+        }
+    }
+
+    private void deletePlayer(UUID playerUuid) throws SQLException {
+        try (
+            PreparedStatement deletePlayer = connection.prepareStatement("DELETE FROM players WHERE uuid = ?");
+            PreparedStatement deleteHomes = connection.prepareStatement("DELETE FROM homes WHERE owner = ?")
+        ) {
+            deletePlayer.setObject(1, playerUuid);
+            deletePlayer.executeUpdate();
+            deleteHomes.setObject(1, playerUuid);
+            deleteHomes.executeUpdate();
+        }
+    }
+
+    // Reading
+
+    private @Nullable NbtCompound selectRecord(String sql, Object key) throws IOException {
+        byte[] data;
+        synchronized (connection) {
+            try (PreparedStatement select = connection.prepareStatement(sql)) {
+                select.setObject(1, key);
+                try (ResultSet results = select.executeQuery()) {
+                    if (!results.next()) {
+                        return null;
+                    }
+                    data = results.getBytes(1);
+                }
+            } catch (SQLException e) {
+                throw new IOException(e);
+            }
+        }
+        return DataFileCodec.NONE.read(new ByteArrayInputStream(data), NbtSizeTracker.ofUnlimitedBytes());
+    }
+
+    private static byte[] encode(NbtCompound tag) throws IOException {
+        var out = new ByteArrayOutputStream();
+        DataFileCodec.NONE.write(tag, out);
+        return out.toByteArray();
+    }
+
+    private void rollback() {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            EssentialCommands.LOGGER.warn("Could not roll back a storage database transaction", e);
+        }
+    }
+}
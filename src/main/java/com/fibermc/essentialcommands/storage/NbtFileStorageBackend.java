@@ -0,0 +1,155 @@
+package com.fibermc.essentialcommands.storage;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.fibermc.essentialcommands.util.DataFileCodec;
+import com.fibermc.essentialcommands.util.FileUtil;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.server.MinecraftServer;
+
+/**
+ * One {@link DataFileCodec} file per record, in the world directory: {@code modplayerdata/<uuid>.dat},
+ * {@code ec_player_profiles/<uuid>.dat} and {@code essentialcommands/world_data.dat}. The default backend.
+ *
+ * <p>Files are written to a temporary sibling and moved into place, so a crash mid-write never leaves a truncated
+ * record, and concurrent writes of the same record never interfere: the last one to be moved into place wins.
+ */
+public final class NbtFileStorageBackend implements StorageBackend {
+    public static final String NAME = "nbt";
+
+    private static final String PLAYER_DATA_DIR = "modplayerdata";
+    private static final String PLAYER_PROFILE_DIR = "ec_player_profiles";
+    private static final String WORLD_DATA_DIR = "essentialcommands";
+    private static final String WORLD_DATA_FILE_NAME = "world_data.dat";
+    private static final String CORRUPT_DIR = "corrupt";
+    private static final String FILE_EXTENSION = ".dat";
+
+    private final Path playerDataDir;
+    private final Path playerProfileDir;
+    private final Path worldDataFile;
+
+    public NbtFileStorageBackend(MinecraftServer server) throws IOException {
+        this.playerDataDir = FileUtil.getOrCreateWorldDirectory(server, PLAYER_DATA_DIR);
+        this.playerProfileDir = FileUtil.getOrCreateWorldDirectory(server, PLAYER_PROFILE_DIR);
+        this.worldDataFile = FileUtil.getOrCreateWorldDirectory(server, WORLD_DATA_DIR).resolve(WORLD_DATA_FILE_NAME);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    // Player data
+
+    @Override
+    public @Nullable NbtCompound loadPlayerData(UUID playerUuid) throws IOException {
+        return read(getRecordPath(playerDataDir, playerUuid));
+    }
+
+    @Override
+    public void savePlayerData(UUID playerUuid, NbtCompound tag) throws IOException {
+        write(getRecordPath(playerDataDir, playerUuid), tag);
+    }
+
+    @Override
+    public void deletePlayerData(UUID playerUuid) throws IOException {
+        Files.deleteIfExists(getRecordPath(playerDataDir, playerUuid));
+    }
+
+    @Override
+    public void quarantinePlayerData(UUID playerUuid) throws IOException {
+        Path file = getRecordPath(playerDataDir, playerUuid);
+        Path corruptDir = Files.createDirectories(playerDataDir.resolve(CORRUPT_DIR));
+        Files.move(file, corruptDir.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public Map<UUID, Long> getPlayerDataModifiedTimes() throws IOException {
+        return listRecords(playerDataDir);
+    }
+
+    // Player profiles
+
+    @Override
+    public @Nullable NbtCompound loadPlayerProfile(UUID playerUuid) throws IOException {
+        return read(getRecordPath(playerProfileDir, playerUuid));
+    }
+
+    @Override
+    public void savePlayerProfile(UUID playerUuid, NbtCompound tag) throws IOException {
+        write(getRecordPath(playerProfileDir, playerUuid), tag);
+    }
+
+    @Override
+    public Set<UUID> getPlayerProfileIds() throws IOException {
+        return listRecords(playerProfileDir).keySet();
+    }
+
+    // World data
+
+    @Override
+    public @Nullable NbtCompound loadWorldData() throws IOException {
+        return read(worldDataFile);
+    }
+
+    @Override
+    public void saveWorldData(NbtCompound tag) throws IOException {
+        write(worldDataFile, tag);
+    }
+
+    @Override
+    public void close() {}
+
+    private static Path getRecordPath(Path dir, UUID playerUuid) {
+        return dir.resolve(playerUuid + FILE_EXTENSION);
+    }
+
+    /**
+     * @return the UUID and modification time of each record file in {@code dir}.
+     */
+    private static Map<UUID, Long> listRecords(Path dir) throws IOException {
+        Map<UUID, Long> modifiedTimes = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + FILE_EXTENSION)) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                try {
+                    var playerUuid = UUID.fromString(fileName.substring(0, fileName.length() - FILE_EXTENSION.length()));
+                    modifiedTimes.put(playerUuid, Files.getLastModifiedTime(file).toMillis());
+                } catch (IllegalArgumentException e) {
+                    // Files that aren't named after a player aren't records.
+                }
+            }
+        }
+        return modifiedTimes;
+    }
+
+    private static @Nullable NbtCompound read(Path file) throws IOException {
+        // Empty files were created, but never written, by older versions.
+        if (!Files.exists(file) || Files.size(file) == 0) {
+            return null;
+        }
+        return DataFileCodec.readFile(file);
+    }
+
+    private static void write(Path file, NbtCompound tag) throws IOException {
+        // A unique temporary file per write, since the same record may be written from several threads at once.
+        Path tempFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            DataFileCodec.writeFile(tempFile, tag);
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+}
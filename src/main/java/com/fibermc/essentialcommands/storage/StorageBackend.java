@@ -0,0 +1,67 @@
+package com.fibermc.essentialcommands.storage;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.nbt.NbtCompound;
+
+/**
+ * Where player data, player profiles and world data (warps, spawn) are kept.
+ *
+ * <p>Records are the same compounds vanilla persistent state files hold: a {@code data} compound and a
+ * {@code DataVersion}. Implementations must be safe to call from any thread; background jobs read and rewrite player
+ * data off the server thread.
+ */
+public interface StorageBackend {
+    String getName();
+
+    // Player data
+
+    /**
+     * @return the player's record, or null if they have none.
+     * @throws IOException if the record exists but can't be read.
+     */
+    @Nullable NbtCompound loadPlayerData(UUID playerUuid) throws IOException;
+
+    void savePlayerData(UUID playerUuid, NbtCompound tag) throws IOException;
+
+    void deletePlayerData(UUID playerUuid) throws IOException;
+
+    /**
+     * Sets aside a record that can't be read, so that the player starts over without it being lost.
+     */
+    void quarantinePlayerData(UUID playerUuid) throws IOException;
+
+    /**
+     * @return every player with a record, and when it was last written (epoch ms).
+     */
+    Map<UUID, Long> getPlayerDataModifiedTimes() throws IOException;
+
+    // Player profiles
+
+    @Nullable NbtCompound loadPlayerProfile(UUID playerUuid) throws IOException;
+
+    void savePlayerProfile(UUID playerUuid, NbtCompound tag) throws IOException;
+
+    Set<UUID> getPlayerProfileIds() throws IOException;
+
+    // World data
+
+    @Nullable NbtCompound loadWorldData() throws IOException;
+
+    void saveWorldData(NbtCompound tag) throws IOException;
+
+    /**
+     * Writes out any writes the backend has queued.
+     */
+    default void flush() throws IOException {}
+
+    /**
+     * Finishes pending writes and releases the backend. Called once the server has stopped.
+     */
+    void close() throws IOException;
+}
@@ -0,0 +1,152 @@
+package com.fibermc.essentialcommands.storage;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.UUID;
+
+import com.fibermc.essentialcommands.EssentialCommands;
+
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtHelper;
+import net.minecraft.registry.RegistryWrapper;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.PersistentState;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+
+import static com.fibermc.essentialcommands.EssentialCommands.CONFIG;
+
+/**
+ * Holds the {@link StorageBackend} selected by {@code storage_backend}, opened when the server starts.
+ */
+public final class StorageManager {
+    private static final int IMPORT_FLUSH_INTERVAL = 1000;
+
+    private static StorageManager instance;
+
+    private StorageBackend backend;
+
+    private StorageManager() {}
+
+    public static StorageManager getInstance() {
+        if (instance == null) {
+            instance = new StorageManager();
+        }
+        return instance;
+    }
+
+    public static void init() {
+        getInstance();
+        // Players are saved as they are disconnected, after SERVER_STOPPING.
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> getInstance().close());
+    }
+
+    /**
+     * Opens the configured backend. Must run before anything is loaded from it.
+     */
+    public void open(MinecraftServer server) {
+        try {
+            backend = switch (CONFIG.STORAGE_BACKEND.toLowerCase(Locale.ROOT)) {
+                case NbtFileStorageBackend.NAME -> new NbtFileStorageBackend(server);
+                case H2StorageBackend.NAME -> openH2(server);
+                default -> {
+                    EssentialCommands.LOGGER.warn("Unknown storage_backend '{}', using nbt", CONFIG.STORAGE_BACKEND);
+                    yield new NbtFileStorageBackend(server);
+                }
+            };
+        } catch (IOException e) {
+            throw new RuntimeException("Could not open Essential Commands storage", e);
+        }
+        EssentialCommands.LOGGER.info("Using the '{}' storage backend", backend.getName());
+    }
+
+    private static StorageBackend openH2(MinecraftServer server) throws IOException {
+        var h2 = new H2StorageBackend(server);
+        if (!h2.isImported()) {
+            var source = new NbtFileStorageBackend(server);
+            importRecords(source, h2);
+            h2.markImported(source.getName());
+        }
+        return h2;
+    }
+
+    /**
+     * Copies every record from {@code source}, so that switching backends keeps existing data. Unreadable records are
+     * skipped. Records already in {@code target} are overwritten, so an interrupted import can simply be run again.
+     */
+    private static void importRecords(StorageBackend source, StorageBackend target) throws IOException {
+        int playerCount = 0;
+        for (UUID playerUuid : source.getPlayerDataModifiedTimes().keySet()) {
+            try {
+                var tag = source.loadPlayerData(playerUuid);
+                if (tag != null) {
+                    target.savePlayerData(playerUuid, tag);
+                }
+            } catch (IOException | RuntimeException e) {
+                EssentialCommands.LOGGER.warn("Could not import player data for '{}'", playerUuid, e);
+            }
+            if (++playerCount % IMPORT_FLUSH_INTERVAL == 0) {
+                target.flush();
+            }
+        }
+        for (UUID playerUuid : source.getPlayerProfileIds()) {
+            try {
+                var tag = source.loadPlayerProfile(playerUuid);
+                if (tag != null) {
+                    target.savePlayerProfile(playerUuid, tag);
+                }
+            } catch (IOException | RuntimeException e) {
+                EssentialCommands.LOGGER.warn("Could not import player profile for '{}'", playerUuid, e);
+            }
+        }
+        var worldData = source.loadWorldData();
+        if (worldData != null) {
+            target.saveWorldData(worldData);
+        }
+        target.flush();
+        EssentialCommands.LOGGER.info(
+            "Imported {} players from the '{}' storage backend into '{}'",
+            playerCount,
+            source.getName(),
+            target.getName());
+    }
+
+    private void close() {
+        if (backend == null) {
+            return;
+        }
+        try {
+            backend.close();
+        } catch (IOException e) {
+            EssentialCommands.LOGGER.error("Could not close the '{}' storage backend", backend.getName(), e);
+        }
+        backend = null;
+    }
+
+    public StorageBackend getBackend() {
+        return backend;
+    }
+
+    @FunctionalInterface
+    public interface RecordWriter {
+        void write(StorageBackend backend, NbtCompound tag) throws IOException;
+    }
+
+    /**
+     * Like {@link PersistentState#save}, but writes to the storage backend with {@code writer}.
+     */
+    public void save(PersistentState state, RegistryWrapper.WrapperLookup wrapperLookup, RecordWriter writer) {
+        if (!state.isDirty()) {
+            return;
+        }
+        NbtCompound tag = new NbtCompound();
+        tag.put("data", state.writeNbt(new NbtCompound(), wrapperLookup));
+        NbtHelper.putDataVersion(tag);
+        try {
+            writer.write(backend, tag);
+        } catch (IOException e) {
+            EssentialCommands.LOGGER.error("Could not save {}", state.getClass().getSimpleName(), e);
+        }
+        state.setDirty(false);
+    }
+}
@@ -0,0 +1,219 @@
+package com.fibermc.essentialcommands.teleportation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+import com.fibermc.essentialcommands.playerdata.PlayerData;
+import com.fibermc.essentialcommands.playerdata.PlayerDataManager;
+import com.fibermc.essentialcommands.text.ECText;
+import com.fibermc.essentialcommands.types.MinecraftLocation;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ChunkTicketType;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.text.MutableText;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+
+import static com.fibermc.essentialcommands.EssentialCommands.CONFIG;
+
+/**
+ * Teleports many players to one destination without doing all of the work in a single tick.
+ *
+ * <p>A job first keeps the destination chunks loaded with a chunk ticket, and waits for them to finish loading. It then
+ * hands players to {@link PlayerTeleporter#requestTeleport(QueuedTeleport)} a few at a time, limited per tick by both
+ * {@code bulk_teleport_max_per_tick} and {@code bulk_teleport_tick_budget_ms} (shared by all running jobs). At least one
+ * player is moved per tick, even if either limit is 0 or less. Going
+ * through the normal request path means teleport delays and interrupt rules apply as they would for individual
+ * teleports, and saved destinations are checked by {@link SafeDestinationResolver} just like single teleports to them.
+ * The resolver caches its result, so the check is only done once per job.
+ */
+public final class BulkTeleportManager {
+    private static final ChunkTicketType<ChunkPos> BULK_TELEPORT_TICKET =
+        ChunkTicketType.create("essentialcommands_bulk_teleport", Comparator.comparingLong(ChunkPos::toLong));
+    private static final int TICKET_RADIUS = 2;
+    private static final int PROGRESS_INTERVAL_TICKS = 20;
+
+    private static BulkTeleportManager instance;
+
+    private final List<Job> jobs = new ArrayList<>();
+
+    private static final class Job {
+        private final ServerCommandSource source;
+        private final ServerWorld world;
+        private final ChunkPos chunkPos;
+        private final MinecraftLocation dest;
+        private final MutableText destName;
+        private final boolean validateDestination;
+        private final ArrayDeque<UUID> remainingPlayers;
+        private final int playerCount;
+        private boolean destinationLoaded;
+        private int requestedCount;
+        private int offlineCount;
+        private int lastProgressTick;
+
+        private Job(
+            ServerCommandSource source,
+            ServerWorld world,
+            MinecraftLocation dest,
+            MutableText destName,
+            boolean validateDestination,
+            Collection<UUID> players)
+        {
+            this.source = source;
+            this.world = world;
+            this.chunkPos = new ChunkPos(BlockPos.ofFloored(dest.pos()));
+            this.dest = dest;
+            this.destName = destName;
+            this.validateDestination = validateDestination;
+            this.remainingPlayers = new ArrayDeque<>(players);
+            this.playerCount = players.size();
+        }
+
+        private boolean isDone() {
+            return remainingPlayers.isEmpty();
+        }
+    }
+
+    private BulkTeleportManager() {}
+
+    public static BulkTeleportManager getInstance() {
+        if (instance == null) {
+            instance = new BulkTeleportManager();
+        }
+        return instance;
+    }
+
+    public static void init() {
+        getInstance();
+        PlayerDataManager.TICK_EVENT.register((playerDataManager, server) -> instance.tick(server));
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> instance.cancelAll());
+    }
+
+    /**
+     * Starts teleporting {@code players} to {@code dest}. Progress is reported to {@code source}.
+     *
+     * @param validateDestination whether {@code dest} is a saved destination, to be checked for safety like
+     *                            {@link PlayerTeleporter#requestSafeTeleport} does.
+     * @return the number of players that will be teleported.
+     */
+    public int start(
+        ServerCommandSource source,
+        Collection<ServerPlayerEntity> players,
+        MinecraftLocation dest,
+        MutableText destName,
+        boolean validateDestination)
+    {
+        var world = source.getServer().getWorld(dest.dim());
+        if (world == null) {
+            throw new IllegalStateException(String.format("Could not find teleport target world, '%s'", dest.dim()));
+        }
+
+        var job = new Job(source, world, dest, destName, validateDestination, players.stream().map(ServerPlayerEntity::getUuid).toList());
+        job.lastProgressTick = source.getServer().getTicks();
+        world.getChunkManager().addTicket(BULK_TELEPORT_TICKET, job.chunkPos, TICKET_RADIUS, job.chunkPos);
+        jobs.add(job);
+
+        var ecText = ECText.access(source.getPlayer());
+        source.sendFeedback(() -> ecText.getText(
+            "cmd.bulktp.started",
+            ecText.accent(String.valueOf(job.playerCount)),
+            destName.copy()
+        ), false);
+        return job.playerCount;
+    }
+
+    private void tick(MinecraftServer server) {
+        if (jobs.isEmpty()) {
+            return;
+        }
+
+        final long deadlineNanos = System.nanoTime() + (long) (CONFIG.BULK_TELEPORT_TICK_BUDGET_MS * 1_000_000);
+        // At least one teleport per tick, whatever the limits, so that jobs always finish.
+        final int maxTeleportsThisTick = Math.max(1, CONFIG.BULK_TELEPORT_MAX_PER_TICK);
+        int teleportsThisTick = 0;
+
+        for (Iterator<Job> jobIterator = jobs.iterator(); jobIterator.hasNext(); ) {
+            var job = jobIterator.next();
+            if (!job.destinationLoaded) {
+                job.destinationLoaded = job.world.getChunkManager().isChunkLoaded(job.chunkPos.x, job.chunkPos.z);
+                if (!job.destinationLoaded) {
+                    continue;
+                }
+            }
+
+            while (!job.isDone()
+                && teleportsThisTick < maxTeleportsThisTick
+                && (teleportsThisTick == 0 || System.nanoTime() < deadlineNanos)
+            ) {
+                var player = server.getPlayerManager().getPlayer(job.remainingPlayers.poll());
+                if (player == null) {
+                    job.offlineCount++;
+                    continue;
+                }
+
+                PlayerTeleporter.requestTeleport(new QueuedLocationTeleport(
+                    PlayerData.access(player),
+                    job.dest,
+                    job.destName.copy(),
+                    job.validateDestination));
+                job.requestedCount++;
+                teleportsThisTick++;
+            }
+
+            if (job.isDone()) {
+                finish(job);
+                jobIterator.remove();
+            } else if (server.getTicks() - job.lastProgressTick >= PROGRESS_INTERVAL_TICKS) {
+                job.lastProgressTick = server.getTicks();
+                sendProgress(job);
+            }
+        }
+    }
+
+    private static void sendProgress(Job job) {
+        var ecText = ECText.access(job.source.getPlayer());
+        job.source.sendFeedback(() -> ecText.getText(
+            "cmd.bulktp.progress",
+            ecText.accent(String.valueOf(job.requestedCount + job.offlineCount)),
+            ecText.accent(String.valueOf(job.playerCount)),
+            job.destName.copy()
+        ), false);
+    }
+
+    private static void finish(Job job) {
+        job.world.getChunkManager().removeTicket(BULK_TELEPORT_TICKET, job.chunkPos, TICKET_RADIUS, job.chunkPos);
+        var ecText = ECText.access(job.source.getPlayer());
+        job.source.sendFeedback(() -> ecText.getText(
+            "cmd.bulktp.done",
+            ecText.accent(String.valueOf(job.requestedCount)),
+            job.destName.copy(),
+            ecText.accent(String.valueOf(job.offlineCount))
+        ), false);
+    }
+
+    /**
+     * @return the number of jobs that were cancelled.
+     */
+    public int cancelAll() {
+        int cancelledCount = jobs.size();
+        for (Job job : jobs) {
+            job.world.getChunkManager().removeTicket(BULK_TELEPORT_TICKET, job.chunkPos, TICKET_RADIUS, job.chunkPos);
+        }
+        jobs.clear();
+        return cancelledCount;
+    }
+
+    public int getRunningJobCount() {
+        return jobs.size();
+    }
+}
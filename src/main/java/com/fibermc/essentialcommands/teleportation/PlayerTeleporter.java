@@ -20,13 +20,33 @@ public final class PlayerTeleporter {
         requestTeleport(new QueuedLocationTeleport(pData, dest, destName));
     }
 
+    /**
+     * Like {@link #requestTeleport(PlayerData, MinecraftLocation, MutableText)}, but for saved destinations that may
+     * have changed since they were saved: when the teleport executes, the destination is checked (and moved to the
+     * nearest safe spot, if needed) by {@link SafeDestinationResolver}.
+     */
+    public static void requestSafeTeleport(PlayerData pData, MinecraftLocation dest, MutableText destName) {
+        requestTeleport(new QueuedLocationTeleport(pData, dest, destName, true));
+    }
+
+    /**
+     * @param onTeleported run once the player has been teleported. Not run if the teleport is cancelled, or fails.
+     */
+    public static void requestSafeTeleport(PlayerData pData, MinecraftLocation dest, MutableText destName, Runnable onTeleported) {
+        requestTeleport(new QueuedLocationTeleport(pData, dest, destName, true, onTeleported));
+    }
+
+    public static void requestSafeTeleport(ServerPlayerEntity playerEntity, MinecraftLocation dest, MutableText destName) {
+        requestSafeTeleport(((ServerPlayerEntityAccess) playerEntity).ec$getPlayerData(), dest, destName);
+    }
+
     public static void requestTeleport(QueuedTeleport queuedTeleport) {
         ServerPlayerEntity player = queuedTeleport.getPlayerData().getPlayer();
 //        if (pData.getTpCooldown() < 0 || player.getServer().getPlayerManager().isOperator(player.getGameProfile())) {
 //            //send TP request to tpManager
 //        }
         if (playerHasTpRulesBypass(player, ECPerms.Registry.bypass_teleport_delay) || CONFIG.TELEPORT_DELAY_TICKS <= 0) {
-            teleport(queuedTeleport.getPlayerData(), queuedTeleport.getDest(), queuedTeleport.getDestName());
+            teleportToValidatedDest(queuedTeleport);
         } else {
             TeleportManager.getInstance().queueTeleport(queuedTeleport);
         }
@@ -38,10 +58,44 @@ public final class PlayerTeleporter {
 
     public static void teleport(QueuedTeleport queuedTeleport) {
         queuedTeleport.complete();
-        teleport(queuedTeleport.getPlayerData(), queuedTeleport.getDest(), queuedTeleport.getDestName());
+        teleportToValidatedDest(queuedTeleport);
+    }
+
+    private static void teleportToValidatedDest(QueuedTeleport queuedTeleport) {
+        var pData = queuedTeleport.getPlayerData();
+        var player = pData.getPlayer();
+        // Players that can fly can't get stuck or fall, so leave them exactly where they asked to go.
+        if (!queuedTeleport.shouldValidateDestination()
+            || !CONFIG.SAFE_TELEPORT_ENABLED
+            || player.getAbilities().allowFlying
+        ) {
+            if (teleport(pData, queuedTeleport.getDest(), queuedTeleport.getDestName())) {
+                queuedTeleport.onTeleported();
+            }
+            return;
+        }
+
+        SafeDestinationResolver.getInstance()
+            .resolve(player.getServer(), queuedTeleport.getDest())
+            .thenAccept(safeDest -> {
+                if (pData.getPlayer().isDisconnected()) {
+                    return;
+                }
+                safeDest.ifPresentOrElse(
+                    dest -> {
+                        if (teleport(pData, dest, queuedTeleport.getDestName())) {
+                            queuedTeleport.onTeleported();
+                        }
+                    },
+                    () -> pData.sendError("teleport.error.no_safe_destination", queuedTeleport.getDestName())
+                );
+            });
     }
 
-    public static void teleport(PlayerData pData, MinecraftLocation dest, MutableText destName) { //forceTeleport
+    /**
+     * @return whether the player was teleported.
+     */
+    public static boolean teleport(PlayerData pData, MinecraftLocation dest, MutableText destName) { //forceTeleport
         ServerPlayerEntity player = pData.getPlayer();
 
         // If teleporting between dimensions is disabled and player doesn't have TP rules override
@@ -50,11 +104,12 @@ public final class PlayerTeleporter {
             // If this teleport is between dimensions
             if (dest.dim() != player.getWorld().getRegistryKey()) {
                 pData.sendError("teleport.error.interdimensional_teleport_disabled");
-                return;
+                return false;
             }
         }
 
         execTeleport(player, dest, destName);
+        return true;
     }
 
     private static void execTeleport(ServerPlayerEntity playerEntity, MinecraftLocation dest, MutableText destName) {
@@ -8,18 +8,48 @@ import net.minecraft.text.MutableText;
 public class QueuedLocationTeleport extends QueuedTeleport {
 
     private final MinecraftLocation dest;
+    private final boolean validateDestination;
+    private final Runnable onTeleported;
 
     public QueuedLocationTeleport(PlayerData playerData, MinecraftLocation dest, MutableText destName) {
+        this(playerData, dest, destName, false);
+    }
+
+    public QueuedLocationTeleport(PlayerData playerData, MinecraftLocation dest, MutableText destName, boolean validateDestination) {
+        this(playerData, dest, destName, validateDestination, () -> {});
+    }
+
+    public QueuedLocationTeleport(
+        PlayerData playerData,
+        MinecraftLocation dest,
+        MutableText destName,
+        boolean validateDestination,
+        Runnable onTeleported)
+    {
         super(playerData, destName);
         this.dest = dest;
+        this.validateDestination = validateDestination;
+        this.onTeleported = onTeleported;
     }
 
     public QueuedLocationTeleport(PlayerData playerData, MinecraftLocation dest, MutableText destName, int delay) {
         super(playerData, destName, delay);
         this.dest = dest;
+        this.validateDestination = false;
+        this.onTeleported = () -> {};
     }
 
     public MinecraftLocation getDest() {
         return dest;
     }
+
+    @Override
+    public boolean shouldValidateDestination() {
+        return validateDestination;
+    }
+
+    @Override
+    public void onTeleported() {
+        onTeleported.run();
+    }
 }
@@ -42,6 +42,14 @@ public abstract class QueuedTeleport {
 
     public abstract MinecraftLocation getDest();
 
+    /**
+     * @return whether the destination should be checked for safety before teleporting. See
+     * {@link SafeDestinationResolver}.
+     */
+    public boolean shouldValidateDestination() {
+        return false;
+    }
+
     public MutableText getDestName() {
         return (MutableText) destName;
     }
@@ -50,6 +58,11 @@ public abstract class QueuedTeleport {
         return playerData;
     }
 
+    /**
+     * Called once the player has been teleported to the destination.
+     */
+    public void onTeleported() {}
+
     public void complete() {
         ((ServerPlayerEntityAccess) playerData.getPlayer()).ec$endQueuedTeleport();
     }
@@ -0,0 +1,109 @@
+package com.fibermc.essentialcommands.teleportation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fibermc.essentialcommands.EssentialCommands;
+
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.registry.tag.TagKey;
+import net.minecraft.server.world.ServerChunkManager;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.InvalidIdentifierException;
+import net.minecraft.world.Heightmap;
+import net.minecraft.world.biome.Biome;
+import net.minecraft.world.biome.source.BiomeCoords;
+import net.minecraft.world.gen.chunk.ChunkGenerator;
+
+import static com.fibermc.essentialcommands.EssentialCommands.CONFIG;
+
+/**
+ * Rejects random teleport candidates before their chunk is loaded, using only the world's biome source and noise
+ * config. Both are safe to sample off the server thread, and neither generates anything.
+ */
+public final class RtpCandidatePrefilter {
+    private RtpCandidatePrefilter() {}
+
+    public enum Result {
+        ACCEPTED,
+        DENIED_BIOME,
+        DENIED_TERRAIN,
+    }
+
+    public static Result test(ServerWorld world, int x, int z) {
+        final ServerChunkManager chunkManager = world.getChunkManager();
+        final ChunkGenerator generator = chunkManager.getChunkGenerator();
+        final var noiseConfig = chunkManager.getNoiseConfig();
+        final int seaLevel = generator.getSeaLevel();
+
+        RegistryEntry<Biome> biome = generator.getBiomeSource().getBiome(
+            BiomeCoords.fromBlock(x),
+            BiomeCoords.fromBlock(seaLevel),
+            BiomeCoords.fromBlock(z),
+            noiseConfig.getMultiNoiseSampler()
+        );
+        if (CONFIG.RTP_BIOME_DENY_LIST.matches(biome)) {
+            return Result.DENIED_BIOME;
+        }
+
+        // Terrain height estimates are meaningless below a ceiling (e.g. the nether), so only check open worlds.
+        if (CONFIG.RTP_PREFILTER_TERRAIN && !world.getDimension().hasCeiling()) {
+            int floorY = generator.getHeight(x, z, Heightmap.Type.OCEAN_FLOOR_WG, world, noiseConfig);
+            // No terrain at all (e.g. the void between end islands), or the floor is below sea level and so is
+            // almost certainly under water.
+            if (floorY <= world.getBottomY() || floorY < seaLevel) {
+                return Result.DENIED_TERRAIN;
+            }
+        }
+
+        return Result.ACCEPTED;
+    }
+
+    /**
+     * Biome ids (e.g. {@code minecraft:river}) and biome tags (e.g. {@code #minecraft:is_ocean}) that random teleport
+     * should never pick.
+     */
+    public static final class BiomeDenyList {
+        private final List<RegistryKey<Biome>> biomes;
+        private final List<TagKey<Biome>> tags;
+
+        private BiomeDenyList(List<RegistryKey<Biome>> biomes, List<TagKey<Biome>> tags) {
+            this.biomes = biomes;
+            this.tags = tags;
+        }
+
+        public static BiomeDenyList parse(List<String> entries) {
+            var biomes = new ArrayList<RegistryKey<Biome>>();
+            var tags = new ArrayList<TagKey<Biome>>();
+            for (String entry : entries) {
+                try {
+                    if (entry.startsWith("#")) {
+                        tags.add(TagKey.of(RegistryKeys.BIOME, Identifier.of(entry.substring(1))));
+                    } else if (!entry.isBlank()) {
+                        biomes.add(RegistryKey.of(RegistryKeys.BIOME, Identifier.of(entry)));
+                    }
+                } catch (InvalidIdentifierException e) {
+                    EssentialCommands.LOGGER.warn("Ignoring invalid `rtp_biome_deny_list` entry: '{}'", entry);
+                }
+            }
+            return new BiomeDenyList(List.copyOf(biomes), List.copyOf(tags));
+        }
+
+        public boolean matches(RegistryEntry<Biome> biome) {
+            for (var key : biomes) {
+                if (biome.matchesKey(key)) {
+                    return true;
+                }
+            }
+            for (var tag : tags) {
+                if (biome.isIn(tag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
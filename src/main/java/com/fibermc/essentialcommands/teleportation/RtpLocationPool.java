@@ -0,0 +1,245 @@
+package com.fibermc.essentialcommands.teleportation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.fibermc.essentialcommands.EssentialCommands;
+import com.fibermc.essentialcommands.commands.RandomTeleportCommand;
+import com.fibermc.essentialcommands.scheduler.TickScheduler;
+import com.fibermc.essentialcommands.util.DataFileCodec;
+import com.fibermc.essentialcommands.util.FileUtil;
+import org.apache.logging.log4j.Level;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3i;
+import net.minecraft.world.World;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+
+import static com.fibermc.essentialcommands.EssentialCommands.CONFIG;
+
+/**
+ * Keeps a small pool of pre-validated random teleport destinations for each world in {@code rtp_enabled_worlds}, so that
+ * {@code /rtp} does not have to pay for generating fresh chunks while the player waits.
+ *
+ * <p>The pool is refilled one search at a time on a background thread, and only while the server's average tick time
+ * is below {@code rtp_pool_refill_max_mspt}. Pooled positions are persisted to
+ * {@code <world>/essentialcommands/rtp_pool.dat} on shutdown.
+ */
+public final class RtpLocationPool {
+    private static final String SAVE_DIR = "essentialcommands";
+    private static final String SAVE_FILE_NAME = "rtp_pool.dat";
+    private static final int REFILL_INTERVAL_TICKS = 20;
+
+    private static final String POOL_KEY_KEY = "poolKey";
+    private static final String WORLDS_KEY = "worlds";
+
+    private static RtpLocationPool instance;
+
+    private final Map<RegistryKey<World>, Queue<BlockPos>> pools = new ConcurrentHashMap<>();
+    private final AtomicBoolean refillInProgress = new AtomicBoolean(false);
+    private final ExecutorService refillExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        var thread = new Thread(runnable, "RTP Location Pool Thread");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.setUncaughtExceptionHandler((t, throwable) ->
+            EssentialCommands.LOGGER.error("Exception in RTP location pool thread", throwable));
+        return thread;
+    });
+
+    /**
+     * The spawn position and radii that the currently pooled positions were found with. Positions found for a different
+     * center or radius are discarded.
+     */
+    private volatile PoolKey poolKey;
+    private Path saveFile;
+
+    private record PoolKey(int centerX, int centerZ, int minRadius, int maxRadius) {
+        static Optional<PoolKey> current() {
+            return RandomTeleportCommand.getRtpCenter()
+                .map(center -> new PoolKey(center.getX(), center.getZ(), CONFIG.RTP_MIN_RADIUS, CONFIG.RTP_RADIUS));
+        }
+
+        NbtCompound asNbt() {
+            var nbt = new NbtCompound();
+            nbt.putIntArray("value", new int[]{centerX, centerZ, minRadius, maxRadius});
+            return nbt;
+        }
+
+        @Nullable
+        static PoolKey fromNbt(NbtCompound nbt) {
+            int[] value = nbt.getIntArray("value");
+            return value.length == 4
+                ? new PoolKey(value[0], value[1], value[2], value[3])
+                : null;
+        }
+    }
+
+    private RtpLocationPool() {}
+
+    public static RtpLocationPool getInstance() {
+        if (instance == null) {
+            instance = new RtpLocationPool();
+        }
+        return instance;
+    }
+
+    public static void init() {
+        getInstance();
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> instance.save());
+    }
+
+    public void onServerStart(MinecraftServer server) {
+        TickScheduler.getInstance().scheduleRepeating(
+            "rtp-pool-refill",
+            TickScheduler.Priority.LOW,
+            REFILL_INTERVAL_TICKS,
+            REFILL_INTERVAL_TICKS,
+            this::refill);
+
+        try {
+            this.saveFile = FileUtil.getOrCreateWorldDirectory(server, SAVE_DIR).resolve(SAVE_FILE_NAME);
+        } catch (IOException e) {
+            EssentialCommands.LOGGER.error("Could not create the RTP location pool directory.", e);
+            this.saveFile = null;
+            return;
+        }
+        load();
+    }
+
+    private void refill(MinecraftServer server) {
+        int targetSize = CONFIG.RTP_POOL_SIZE;
+        if (targetSize <= 0
+            || server.getAverageTickTime() > CONFIG.RTP_POOL_REFILL_MAX_MSPT
+            || refillInProgress.get()
+        ) {
+            return;
+        }
+
+        var currentKeyOpt = PoolKey.current();
+        if (currentKeyOpt.isEmpty()) {
+            return;
+        }
+        var currentKey = currentKeyOpt.get();
+        if (!currentKey.equals(poolKey)) {
+            pools.clear();
+            poolKey = currentKey;
+        }
+        Vec3i center = new Vec3i(currentKey.centerX(), 0, currentKey.centerZ());
+
+        for (RegistryKey<World> worldKey : CONFIG.RTP_ENABLED_WORLDS) {
+            var pool = getPool(worldKey);
+            if (pool.size() >= targetSize) {
+                continue;
+            }
+            ServerWorld world = server.getWorld(worldKey);
+            if (world == null) {
+                continue;
+            }
+
+            refillInProgress.set(true);
+            refillExecutor.execute(() -> {
+                try {
+                    RandomTeleportCommand.searchForPosition(world, center)
+                        .filter(pos -> currentKey.equals(poolKey))
+                        .ifPresent(pool::add);
+                } finally {
+                    refillInProgress.set(false);
+                }
+            });
+            return;
+        }
+    }
+
+    /**
+     * Removes and returns a pooled position for the specified world, re-checking that it is still safe. Positions that
+     * are no longer safe are discarded. Blocks while the position's chunk is loaded, so this should not be called from
+     * the server thread.
+     */
+    public Optional<BlockPos> take(ServerWorld world) {
+        var pool = pools.get(world.getRegistryKey());
+        if (pool == null || !PoolKey.current().map(key -> key.equals(poolKey)).orElse(false)) {
+            return Optional.empty();
+        }
+
+        BlockPos pos;
+        while ((pos = pool.poll()) != null) {
+            if (RandomTeleportCommand.isStillSafe(world, pos)) {
+                return Optional.of(pos);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public int size(RegistryKey<World> worldKey) {
+        var pool = pools.get(worldKey);
+        return pool == null ? 0 : pool.size();
+    }
+
+    private Queue<BlockPos> getPool(RegistryKey<World> worldKey) {
+        return pools.computeIfAbsent(worldKey, k -> new ConcurrentLinkedQueue<>());
+    }
+
+    private void load() {
+        pools.clear();
+        poolKey = null;
+        if (saveFile == null || !Files.exists(saveFile)) {
+            return;
+        }
+
+        try {
+            NbtCompound nbt = DataFileCodec.readFile(saveFile);
+            poolKey = PoolKey.fromNbt(nbt.getCompound(POOL_KEY_KEY));
+            NbtCompound worldsNbt = nbt.getCompound(WORLDS_KEY);
+            for (String worldId : worldsNbt.getKeys()) {
+                var worldKey = RegistryKey.of(RegistryKeys.WORLD, Identifier.of(worldId));
+                var pool = getPool(worldKey);
+                for (long packedPos : worldsNbt.getLongArray(worldId)) {
+                    pool.add(BlockPos.fromLong(packedPos));
+                }
+            }
+        } catch (Exception e) {
+            EssentialCommands.log(Level.WARN, "Failed to load the RTP location pool from '{}'. It will be regenerated.", saveFile);
+            pools.clear();
+            poolKey = null;
+        }
+    }
+
+    private void save() {
+        if (saveFile == null || poolKey == null) {
+            return;
+        }
+
+        var worldsNbt = new NbtCompound();
+        pools.forEach((worldKey, pool) -> worldsNbt.putLongArray(
+            worldKey.getValue().toString(),
+            pool.stream().mapToLong(BlockPos::asLong).toArray()
+        ));
+
+        var nbt = new NbtCompound();
+        nbt.put(POOL_KEY_KEY, poolKey.asNbt());
+        nbt.put(WORLDS_KEY, worldsNbt);
+
+        try {
+            DataFileCodec.writeFile(saveFile, nbt);
+        } catch (IOException e) {
+            EssentialCommands.LOGGER.error("Failed to save the RTP location pool.", e);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.fibermc.essentialcommands.teleportation;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+import com.fibermc.essentialcommands.EssentialCommands;
+import com.fibermc.essentialcommands.events.PlayerLeaveCallback;
+import com.fibermc.essentialcommands.scheduler.MainThreadInbox;
+
+import static com.fibermc.essentialcommands.EssentialCommands.CONFIG;
+
+/**
+ * Admission control for random teleport location searches.
+ *
+ * <p>At most {@code rtp_max_concurrent_searches} (at least 1) searches run at once. Further requests wait in a FIFO
+ * queue of at most {@code rtp_max_queued_searches} entries, and each player may only have one search queued or running.
+ * Queued players are told their new position whenever the queue moves. Searches belonging to players that log out are
+ * cancelled.
+ */
+public final class RtpSearchScheduler {
+    private static final int LATENCY_SAMPLE_COUNT = 256;
+
+    private static RtpSearchScheduler instance;
+
+    private final LinkedHashMap<UUID, SearchJob> queuedJobs = new LinkedHashMap<>();
+    private final Map<UUID, SearchJob> runningJobs = new HashMap<>();
+    private final long[] latencySamplesMs = new long[LATENCY_SAMPLE_COUNT];
+    private int latencySampleCursor;
+    private long completedSearches;
+
+    // Thread count is bounded by admission control below, not by the pool itself, so that the limit can be changed
+    // with a config reload.
+    private final ExecutorService workerExecutor = Executors.newCachedThreadPool(runnable -> {
+        var thread = new Thread(runnable, "RTP Location Calculator Thread");
+        thread.setDaemon(true);
+        thread.setUncaughtExceptionHandler((t, throwable) ->
+            EssentialCommands.LOGGER.error("Exception in RTP calculator thread", throwable));
+        return thread;
+    });
+
+    public enum AdmissionStatus {
+        STARTED,
+        QUEUED,
+        ALREADY_SEARCHING,
+        QUEUE_FULL,
+    }
+
+    /**
+     * @param queuePosition 1-based position in the wait queue, or 0 if the search was not queued.
+     */
+    public record Admission(AdmissionStatus status, int queuePosition) {
+        public boolean accepted() {
+            return status == AdmissionStatus.STARTED || status == AdmissionStatus.QUEUED;
+        }
+    }
+
+    public static final class SearchJob {
+        private final UUID playerUuid;
+        private final Consumer<SearchJob> search;
+        private final IntConsumer queuePositionListener;
+        private final long submittedAtNanos = System.nanoTime();
+        private volatile boolean cancelled;
+        // Last position reported to the listener. Guarded by the scheduler.
+        private int queuePosition;
+
+        private SearchJob(UUID playerUuid, Consumer<SearchJob> search, IntConsumer queuePositionListener) {
+            this.playerUuid = playerUuid;
+            this.search = search;
+            this.queuePositionListener = queuePositionListener;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private RtpSearchScheduler() {}
+
+    public static RtpSearchScheduler getInstance() {
+        if (instance == null) {
+            instance = new RtpSearchScheduler();
+        }
+        return instance;
+    }
+
+    public static void init() {
+        getInstance();
+        PlayerLeaveCallback.EVENT.register(player -> instance.cancel(player.getUuid()));
+    }
+
+    /**
+     * @return {@code rtp_max_concurrent_searches}, but at least 1, so that queued searches always get to run.
+     */
+    public static int getMaxConcurrentSearches() {
+        return Math.max(1, CONFIG.RTP_MAX_CONCURRENT_SEARCHES);
+    }
+
+    /**
+     * Starts or queues a search for the specified player. {@code search} is run on a worker thread, and should stop
+     * early once {@link SearchJob#isCancelled()} returns true.
+     *
+     * @param queuePositionListener called on the server thread with the search's new 1-based queue position, whenever
+     *                              it moves up the queue. Not called for the initial position, which is returned.
+     */
+    public synchronized Admission submit(UUID playerUuid, Consumer<SearchJob> search, IntConsumer queuePositionListener) {
+        if (runningJobs.containsKey(playerUuid) || queuedJobs.containsKey(playerUuid)) {
+            return new Admission(AdmissionStatus.ALREADY_SEARCHING, 0);
+        }
+
+        var job = new SearchJob(playerUuid, search, queuePositionListener);
+        if (runningJobs.size() < getMaxConcurrentSearches()) {
+            start(job);
+            return new Admission(AdmissionStatus.STARTED, 0);
+        }
+        if (queuedJobs.size() >= CONFIG.RTP_MAX_QUEUED_SEARCHES) {
+            return new Admission(AdmissionStatus.QUEUE_FULL, 0);
+        }
+
+        queuedJobs.put(playerUuid, job);
+        job.queuePosition = queuedJobs.size();
+        return new Admission(AdmissionStatus.QUEUED, job.queuePosition);
+    }
+
+    public synchronized void cancel(UUID playerUuid) {
+        var queuedJob = queuedJobs.remove(playerUuid);
+        if (queuedJob != null) {
+            queuedJob.cancelled = true;
+            notifyQueuePositions();
+        }
+        var runningJob = runningJobs.get(playerUuid);
+        if (runningJob != null) {
+            runningJob.cancelled = true;
+        }
+    }
+
+    private void start(SearchJob job) {
+        runningJobs.put(job.playerUuid, job);
+        workerExecutor.execute(() -> {
+            try {
+                if (!job.isCancelled()) {
+                    job.search.accept(job);
+                }
+            } finally {
+                onFinished(job);
+            }
+        });
+    }
+
+    private synchronized void onFinished(SearchJob job) {
+        runningJobs.remove(job.playerUuid);
+        if (!job.isCancelled()) {
+            latencySamplesMs[latencySampleCursor] = (System.nanoTime() - job.submittedAtNanos) / 1_000_000;
+            latencySampleCursor = (latencySampleCursor + 1) % LATENCY_SAMPLE_COUNT;
+            completedSearches++;
+        }
+
+        Iterator<SearchJob> queueIterator = queuedJobs.values().iterator();
+        boolean queueMoved = false;
+        while (runningJobs.size() < getMaxConcurrentSearches() && queueIterator.hasNext()) {
+            var next = queueIterator.next();
+            queueIterator.remove();
+            start(next);
+            queueMoved = true;
+        }
+        if (queueMoved) {
+            notifyQueuePositions();
+        }
+    }
+
+    /**
+     * Tells every queued search whose position changed about its new position, on the server thread.
+     */
+    private void notifyQueuePositions() {
+        int position = 0;
+        for (SearchJob job : queuedJobs.values()) {
+            position++;
+            if (job.queuePosition != position) {
+                job.queuePosition = position;
+                int newPosition = position;
+                MainThreadInbox.getInstance().execute(() -> job.queuePositionListener.accept(newPosition));
+            }
+        }
+    }
+
+    public synchronized int getRunningCount() {
+        return runningJobs.size();
+    }
+
+    public synchronized int getQueuedCount() {
+        return queuedJobs.size();
+    }
+
+    /**
+     * @return the number of completed searches that {@link #getLatencyPercentilesMs} is computed over.
+     */
+    public synchronized int getLatencySampleCount() {
+        return (int) Math.min(completedSearches, LATENCY_SAMPLE_COUNT);
+    }
+
+    /**
+     * Time from submission to completion (including time spent queued) of recent searches.
+     *
+     * @param percentiles values in the range (0, 100]
+     * @return one value per requested percentile, or all zeroes if no searches have completed.
+     */
+    public synchronized long[] getLatencyPercentilesMs(double... percentiles) {
+        int sampleCount = getLatencySampleCount();
+        long[] result = new long[percentiles.length];
+        if (sampleCount == 0) {
+            return result;
+        }
+
+        long[] sorted = Arrays.copyOf(latencySamplesMs, sampleCount);
+        Arrays.sort(sorted);
+        for (int i = 0; i < percentiles.length; i++) {
+            int rank = (int) Math.ceil(percentiles[i] / 100D * sampleCount) - 1;
+            result[i] = sorted[Math.max(0, Math.min(rank, sampleCount - 1))];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,72 @@
+package com.fibermc.essentialcommands.teleportation;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.world.World;
+
+/**
+ * Per-world counters for random teleport location searches. Updated from RTP worker threads, read by
+ * {@code /essentialcommands rtp stats}.
+ */
+public final class RtpStatistics {
+    private static final Map<RegistryKey<World>, RtpStatistics> BY_WORLD = new ConcurrentHashMap<>();
+
+    private final LongAdder candidates = new LongAdder();
+    private final LongAdder rejectedBiome = new LongAdder();
+    private final LongAdder rejectedTerrain = new LongAdder();
+    private final LongAdder rejectedUnsafe = new LongAdder();
+    private final LongAdder found = new LongAdder();
+
+    private RtpStatistics() {}
+
+    public static RtpStatistics forWorld(RegistryKey<World> worldKey) {
+        return BY_WORLD.computeIfAbsent(worldKey, k -> new RtpStatistics());
+    }
+
+    public static Map<RegistryKey<World>, RtpStatistics> all() {
+        return BY_WORLD;
+    }
+
+    public void recordCandidate() {
+        candidates.increment();
+    }
+
+    public void recordPrefilterResult(RtpCandidatePrefilter.Result result) {
+        switch (result) {
+            case DENIED_BIOME -> rejectedBiome.increment();
+            case DENIED_TERRAIN -> rejectedTerrain.increment();
+            default -> { }
+        }
+    }
+
+    public void recordUnsafe() {
+        rejectedUnsafe.increment();
+    }
+
+    public void recordFound() {
+        found.increment();
+    }
+
+    public long getCandidates() {
+        return candidates.sum();
+    }
+
+    public long getRejectedBiome() {
+        return rejectedBiome.sum();
+    }
+
+    public long getRejectedTerrain() {
+        return rejectedTerrain.sum();
+    }
+
+    public long getRejectedUnsafe() {
+        return rejectedUnsafe.sum();
+    }
+
+    public long getFound() {
+        return found.sum();
+    }
+}
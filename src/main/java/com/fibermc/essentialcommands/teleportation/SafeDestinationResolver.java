@@ -0,0 +1,268 @@
+package com.fibermc.essentialcommands.teleportation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import com.fibermc.essentialcommands.scheduler.MainThreadInbox;
+import com.fibermc.essentialcommands.types.MinecraftLocation;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.entity.Dismounting;
+import net.minecraft.entity.EntityType;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.registry.tag.BlockTags;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkStatus;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+
+import static com.fibermc.essentialcommands.EssentialCommands.CONFIG;
+
+/**
+ * Checks that a saved destination (home, warp, back location, ...) is still safe to stand in before teleporting a
+ * player there, and finds the nearest safe spot nearby if it isn't.
+ *
+ * <p>The destination chunk is loaded without blocking the server thread, and the result for each destination is
+ * cached until a block in one of the chunks it inspected changes, or that chunk is unloaded. Server thread only, except
+ * for {@link #invalidateFromAnyThread}, which hands block changes made elsewhere (e.g. by world generation) to the
+ * server thread.
+ */
+public final class SafeDestinationResolver {
+    private static final int MAX_CACHED_DESTINATIONS = 1024;
+    // The search checks up to (2r+1)^3 positions on the server thread, so 4913 at most.
+    public static final int MAX_SEARCH_RADIUS = 8;
+
+    private static SafeDestinationResolver instance;
+
+    private record CacheKey(RegistryKey<World> dimension, Vec3d pos) {}
+
+    private final Map<CacheKey, Optional<Vec3d>> cache = new HashMap<>();
+    private final Map<RegistryKey<World>, Long2ObjectMap<Set<CacheKey>>> cacheKeysByChunk = new HashMap<>();
+    // Read off the server thread, so that block changes there aren't handed over while nothing is cached.
+    private volatile boolean hasCachedDestinations;
+
+    private int searchOffsetsRadius = -1;
+    private List<BlockPos> searchOffsets = List.of();
+
+    private SafeDestinationResolver() {}
+
+    public static SafeDestinationResolver getInstance() {
+        if (instance == null) {
+            instance = new SafeDestinationResolver();
+        }
+        return instance;
+    }
+
+    public static void init() {
+        getInstance();
+        ServerChunkEvents.CHUNK_UNLOAD.register((world, chunk) ->
+            instance.invalidate(world.getRegistryKey(), chunk.getPos().toLong()));
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> instance.clear());
+    }
+
+    /**
+     * Loads the chunk containing {@code pos} without blocking the server thread.
+     *
+     * @return a future completed on the server thread, with null if the chunk could not be loaded.
+     */
+    public static CompletableFuture<Chunk> loadChunkAsync(ServerWorld world, BlockPos pos) {
+        return world.getChunkManager()
+            .getChunkFutureSyncOnMainThread(
+                ChunkSectionPos.getSectionCoord(pos.getX()),
+                ChunkSectionPos.getSectionCoord(pos.getZ()),
+                ChunkStatus.FULL,
+                true)
+            .thenApplyAsync(optionalChunk -> optionalChunk.orElse(null), MainThreadInbox.getInstance());
+    }
+
+    /**
+     * @return a future completed on the server thread with {@code dest} if it is safe, the nearest safe location
+     * within {@code safe_teleport_search_radius} blocks (at most {@value #MAX_SEARCH_RADIUS}, keeping the destination's
+     * rotation) if not, or empty if there is none.
+     */
+    public CompletableFuture<Optional<MinecraftLocation>> resolve(MinecraftServer server, MinecraftLocation dest) {
+        var world = server.getWorld(dest.dim());
+        if (world == null) {
+            // Let the teleport itself report the missing world.
+            return CompletableFuture.completedFuture(Optional.of(dest));
+        }
+
+        var cacheKey = new CacheKey(dest.dim(), dest.pos());
+        var cached = cache.get(cacheKey);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached.map(pos -> withPos(dest, pos)));
+        }
+
+        return loadChunkAsync(world, BlockPos.ofFloored(dest.pos()))
+            .thenApply(chunk -> {
+                if (chunk == null) {
+                    return Optional.empty();
+                }
+                var resolved = cache.get(cacheKey);
+                if (resolved == null) {
+                    resolved = findSafePos(world, cacheKey);
+                    cache.put(cacheKey, resolved);
+                }
+                return resolved.map(pos -> withPos(dest, pos));
+            });
+    }
+
+    private Optional<Vec3d> findSafePos(ServerWorld world, CacheKey cacheKey) {
+        if (cache.size() >= MAX_CACHED_DESTINATIONS) {
+            clear();
+        }
+
+        var dest = cacheKey.pos();
+        var destBlockPos = BlockPos.ofFloored(dest);
+        Set<ChunkPos> inspectedChunks = new HashSet<>();
+        inspectedChunks.add(new ChunkPos(destBlockPos));
+
+        Optional<Vec3d> result = Optional.empty();
+        if (isStandable(world, dest)) {
+            result = Optional.of(dest);
+        } else {
+            var mutablePos = new BlockPos.Mutable();
+            for (BlockPos offset : getSearchOffsets(MathHelper.clamp(CONFIG.SAFE_TELEPORT_SEARCH_RADIUS, 0, MAX_SEARCH_RADIUS))) {
+                mutablePos.set(destBlockPos, offset);
+                // Only look at chunks that are already loaded; the destination chunk always is.
+                if (!world.isChunkLoaded(mutablePos)) {
+                    continue;
+                }
+                inspectedChunks.add(new ChunkPos(mutablePos));
+                var standingPos = Dismounting.findRespawnPos(EntityType.PLAYER, world, mutablePos, false);
+                if (standingPos != null && isStandable(world, standingPos)) {
+                    result = Optional.of(standingPos);
+                    break;
+                }
+            }
+        }
+
+        var chunksForWorld = cacheKeysByChunk.computeIfAbsent(cacheKey.dimension(), k -> new Long2ObjectOpenHashMap<>());
+        for (ChunkPos chunkPos : inspectedChunks) {
+            chunksForWorld.computeIfAbsent(chunkPos.toLong(), k -> new HashSet<>()).add(cacheKey);
+        }
+        hasCachedDestinations = true;
+        return result;
+    }
+
+    /**
+     * Whether a player can stand at {@code pos}: nothing to collide with, something to stand on, and no fluid, fire or
+     * other damaging block at the feet, body or the block below.
+     */
+    private static boolean isStandable(ServerWorld world, Vec3d pos) {
+        if (!world.isSpaceEmpty(EntityType.PLAYER.getDimensions().getBoxAt(pos))) {
+            return false;
+        }
+
+        var feetPos = BlockPos.ofFloored(pos);
+        var groundPos = BlockPos.ofFloored(pos.x, pos.y - 0.001, pos.z);
+        if (groundPos.getY() <= world.getBottomY()) {
+            return false;
+        }
+
+        var groundState = world.getBlockState(groundPos);
+        if (groundState.getCollisionShape(world, groundPos).isEmpty() || isHazard(groundState)) {
+            return false;
+        }
+
+        var feetState = world.getBlockState(feetPos);
+        var headState = world.getBlockState(feetPos.up());
+        return feetState.getFluidState().isEmpty() && !isHazard(feetState)
+            && headState.getFluidState().isEmpty() && !isHazard(headState);
+    }
+
+    private static boolean isHazard(BlockState state) {
+        return state.isIn(BlockTags.FIRE)
+            || state.isIn(BlockTags.CAMPFIRES)
+            || state.isOf(Blocks.LAVA)
+            || state.isOf(Blocks.MAGMA_BLOCK)
+            || state.isOf(Blocks.CACTUS)
+            || state.isOf(Blocks.SWEET_BERRY_BUSH)
+            || state.isOf(Blocks.POWDER_SNOW)
+            || state.isOf(Blocks.WITHER_ROSE);
+    }
+
+    /**
+     * Offsets within {@code radius} of the origin on each axis, nearest first, excluding the origin itself.
+     */
+    private List<BlockPos> getSearchOffsets(int radius) {
+        if (radius != searchOffsetsRadius) {
+            List<BlockPos> offsets = new ArrayList<>();
+            for (BlockPos offset : BlockPos.iterate(-radius, -radius, -radius, radius, radius, radius)) {
+                if (!offset.equals(BlockPos.ORIGIN)) {
+                    offsets.add(offset.toImmutable());
+                }
+            }
+            offsets.sort(Comparator.comparingDouble(offset -> offset.getSquaredDistance(BlockPos.ORIGIN)));
+            searchOffsets = offsets;
+            searchOffsetsRadius = radius;
+        }
+        return searchOffsets;
+    }
+
+    /**
+     * Like {@link #invalidate}, but may be called from any thread. Called whenever a block in a loaded chunk changes,
+     * which world generation also does off the server thread; those changes are handed to the server thread, so the
+     * cache is only ever touched there.
+     */
+    public void invalidateFromAnyThread(ServerWorld world, long chunkPos) {
+        if (!hasCachedDestinations) {
+            return;
+        }
+        var dimension = world.getRegistryKey();
+        if (world.getServer().isOnThread()) {
+            invalidate(dimension, chunkPos);
+        } else {
+            MainThreadInbox.getInstance().execute(() -> invalidate(dimension, chunkPos));
+        }
+    }
+
+    /**
+     * Forgets every cached destination that inspected the specified chunk. Returns immediately when nothing is cached
+     * for the chunk. Server thread only.
+     */
+    public void invalidate(RegistryKey<World> dimension, long chunkPos) {
+        if (cacheKeysByChunk.isEmpty()) {
+            return;
+        }
+        var chunksForWorld = cacheKeysByChunk.get(dimension);
+        if (chunksForWorld == null) {
+            return;
+        }
+        var cacheKeys = chunksForWorld.remove(chunkPos);
+        if (cacheKeys != null) {
+            cacheKeys.forEach(cache::remove);
+        }
+    }
+
+    public void clear() {
+        cache.clear();
+        cacheKeysByChunk.clear();
+        hasCachedDestinations = false;
+    }
+
+    private static MinecraftLocation withPos(MinecraftLocation dest, Vec3d pos) {
+        return pos.equals(dest.pos())
+            ? dest
+            : new MinecraftLocation(dest.dim(), pos.x, pos.y, pos.z, dest.headYaw(), dest.pitch());
+    }
+}
@@ -3,6 +3,7 @@ package com.fibermc.essentialcommands.types;
 import java.util.HashMap;
 
 import com.fibermc.essentialcommands.commands.CommandUtil;
+import com.fibermc.essentialcommands.commands.helpers.RenderedPageCache;
 import com.fibermc.essentialcommands.text.ECText;
 import com.fibermc.essentialcommands.text.TextFormatType;
 
@@ -14,6 +15,11 @@ import net.minecraft.nbt.NbtList;
 import net.minecraft.text.Text;
 
 public class NamedLocationStorage extends HashMap<String, NamedMinecraftLocation> implements NbtSerializable {
+    // Incremented on every change, so that cached listings know when to re-render. Use counts have their own version,
+    // so that counting a teleport only re-renders listings sorted by use.
+    private long version;
+    private long useCountVersion;
+    private final RenderedPageCache pageCache = new RenderedPageCache();
 
     public NamedLocationStorage() {}
 
@@ -44,6 +50,7 @@ public class NamedLocationStorage extends HashMap<String, NamedMinecraftLocation
             NbtCompound nbtCompound = (NbtCompound) nbt;
             nbtCompound.getKeys().forEach((key) -> super.put(key, NamedMinecraftLocation.fromNbt(nbtCompound.getCompound(key), key)));
         }
+        version++;
     }
 
     public MinecraftLocation putCommand(String name, MinecraftLocation location) throws CommandSyntaxException {
@@ -52,11 +59,51 @@ public class NamedLocationStorage extends HashMap<String, NamedMinecraftLocation
 
     private MinecraftLocation putCommand(String name, NamedMinecraftLocation location) throws CommandSyntaxException {
         if (this.get(name) == null) {
-            return super.put(name, location);
+            return put(name, location);
         } else {
             throw CommandUtil.createSimpleException(
                 ECText.getInstance().getText("cmd.home.set.error.exists", TextFormatType.Error, Text.literal(name)));
         }
     }
 
+    @Override
+    public NamedMinecraftLocation put(String key, NamedMinecraftLocation value) {
+        version++;
+        return super.put(key, value);
+    }
+
+    @Override
+    public NamedMinecraftLocation remove(Object key) {
+        version++;
+        return super.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        version++;
+        super.clear();
+    }
+
+    /**
+     * Counts a teleport to the named location, for sorting listings by use.
+     */
+    public void recordUse(String name) {
+        var location = get(name);
+        if (location != null) {
+            location.incrementUseCount();
+            useCountVersion++;
+        }
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getUseCountVersion() {
+        return useCountVersion;
+    }
+
+    public RenderedPageCache getPageCache() {
+        return pageCache;
+    }
 }
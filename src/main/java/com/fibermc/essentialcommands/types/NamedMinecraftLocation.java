@@ -5,7 +5,10 @@ import net.minecraft.registry.RegistryKey;
 import net.minecraft.world.World;
 
 public class NamedMinecraftLocation extends MinecraftLocation {
+    private static final String USE_COUNT_KEY = "useCount";
+
     private String name;
+    private int useCount;
 
     protected NamedMinecraftLocation() {}
 
@@ -38,6 +41,16 @@ public class NamedMinecraftLocation extends MinecraftLocation {
     protected void loadNbt(NbtCompound tag, String name) {
         super.loadNbt(tag);
         this.name = name;
+        this.useCount = tag.getInt(USE_COUNT_KEY);
+    }
+
+    @Override
+    public NbtCompound writeNbt(NbtCompound tag) {
+        super.writeNbt(tag);
+        if (useCount > 0) {
+            tag.putInt(USE_COUNT_KEY, useCount);
+        }
+        return tag;
     }
 
     public static NamedMinecraftLocation fromNbt(NbtCompound tag, String name) {
@@ -49,4 +62,15 @@ public class NamedMinecraftLocation extends MinecraftLocation {
     public String getName() {
         return name;
     }
+
+    /**
+     * @return the number of times this location has been teleported to.
+     */
+    public int getUseCount() {
+        return useCount;
+    }
+
+    void incrementUseCount() {
+        useCount++;
+    }
 }
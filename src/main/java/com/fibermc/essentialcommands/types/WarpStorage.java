@@ -3,6 +3,7 @@ package com.fibermc.essentialcommands.types;
 import java.util.HashMap;
 
 import com.fibermc.essentialcommands.commands.CommandUtil;
+import com.fibermc.essentialcommands.commands.helpers.RenderedPageCache;
 import com.fibermc.essentialcommands.text.ECText;
 import com.fibermc.essentialcommands.text.TextFormatType;
 
@@ -14,6 +15,11 @@ import net.minecraft.nbt.NbtList;
 import net.minecraft.text.Text;
 
 public class WarpStorage extends HashMap<String, WarpLocation> implements NbtSerializable {
+    // Incremented on every change, so that cached listings know when to re-render. Use counts have their own version,
+    // so that counting a teleport only re-renders listings sorted by use.
+    private long version;
+    private long useCountVersion;
+    private final RenderedPageCache pageCache = new RenderedPageCache();
 
     public WarpStorage() {}
 
@@ -44,16 +50,56 @@ public class WarpStorage extends HashMap<String, WarpLocation> implements NbtSer
             NbtCompound nbtCompound = (NbtCompound) nbt;
             nbtCompound.getKeys().forEach((key) -> super.put(key, WarpLocation.fromNbt(nbtCompound.getCompound(key), key)));
         }
-
+        version++;
     }
 
     public WarpLocation putCommand(String name, WarpLocation location) throws CommandSyntaxException {
         if (this.get(name) == null) {
-            return super.put(name, location);
+            return put(name, location);
         } else {
             throw CommandUtil.createSimpleException(
                 ECText.getInstance().getText("cmd.warp.set.error.exists", TextFormatType.Error, Text.literal(name)));
         }
     }
 
+    @Override
+    public WarpLocation put(String key, WarpLocation value) {
+        version++;
+        return super.put(key, value);
+    }
+
+    @Override
+    public WarpLocation remove(Object key) {
+        version++;
+        return super.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        version++;
+        super.clear();
+    }
+
+    /**
+     * Counts a teleport to the named location, for sorting listings by use.
+     */
+    public void recordUse(String name) {
+        var location = get(name);
+        if (location != null) {
+            location.incrementUseCount();
+            useCountVersion++;
+        }
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getUseCountVersion() {
+        return useCountVersion;
+    }
+
+    public RenderedPageCache getPageCache() {
+        return pageCache;
+    }
 }
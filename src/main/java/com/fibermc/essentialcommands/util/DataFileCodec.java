@@ -0,0 +1,179 @@
+package com.fibermc.essentialcommands.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import com.fibermc.essentialcommands.EssentialCommands;
+
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtSizeTracker;
+
+import static com.fibermc.essentialcommands.EssentialCommands.CONFIG;
+
+/**
+ * How EC data files (player data, profiles, world data, indexes) are encoded on disk.
+ *
+ * <p>Every codec's output starts with a recognizable signature: gzip's magic number, a zlib header, or, uncompressed,
+ * the NBT compound tag id. {@link #readFile(Path)} uses it to pick the codec, so files written with different codecs
+ * (e.g. after {@code data_file_codec} was changed) load transparently. Files written before codecs existed are gzip, which
+ * is still the default, so they stay readable by vanilla NBT tools.
+ */
+public abstract class DataFileCodec {
+    private static final int GZIP_MAGIC_FIRST_BYTE = 0x1f;
+    private static final int GZIP_MAGIC_SECOND_BYTE = 0x8b;
+    private static final int ZLIB_DEFLATE_METHOD_BYTE = 0x78;
+    private static final int NBT_COMPOUND_TYPE = 0x0a;
+
+    public static final DataFileCodec NONE = new DataFileCodec("none") {
+        @Override
+        protected OutputStream wrap(OutputStream out) {
+            return out;
+        }
+
+        @Override
+        protected InputStream unwrap(InputStream in) {
+            return in;
+        }
+    };
+
+    /**
+     * zlib deflate at its fastest level. Cheaper than gzip to write, at some cost in size, and needs nothing outside
+     * the JDK.
+     */
+    public static final DataFileCodec DEFLATE = new DataFileCodec("deflate") {
+        @Override
+        protected OutputStream wrap(OutputStream out) {
+            var deflater = new Deflater(Deflater.BEST_SPEED);
+            return new DeflaterOutputStream(out, deflater) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        // Not ended by the stream, since it was passed in.
+                        deflater.end();
+                    }
+                }
+            };
+        }
+
+        @Override
+        protected InputStream unwrap(InputStream in) {
+            return new InflaterInputStream(in);
+        }
+    };
+
+    private final String name;
+
+    protected DataFileCodec(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    protected abstract OutputStream wrap(OutputStream out) throws IOException;
+
+    protected abstract InputStream unwrap(InputStream in) throws IOException;
+
+    /**
+     * @param level 0 (store) to 9 (smallest), or -1 for zlib's default (6), which is what vanilla uses.
+     */
+    public static DataFileCodec gzip(int level) {
+        return new DataFileCodec(level == Deflater.DEFAULT_COMPRESSION ? "gzip" : "gzip_" + level) {
+            @Override
+            protected OutputStream wrap(OutputStream out) throws IOException {
+                return new GZIPOutputStream(out) {
+                    {
+                        def.setLevel(level);
+                    }
+                };
+            }
+
+            @Override
+            protected InputStream unwrap(InputStream in) throws IOException {
+                return new GZIPInputStream(in);
+            }
+        };
+    }
+
+    /**
+     * @return the codec selected by {@code data_file_codec}, falling back to gzip if it isn't recognized.
+     */
+    public static DataFileCodec fromConfig() {
+        return switch (CONFIG.DATA_FILE_CODEC.toLowerCase(Locale.ROOT)) {
+            case "none" -> NONE;
+            case "deflate" -> DEFLATE;
+            case "gzip" -> gzip(CONFIG.DATA_FILE_GZIP_LEVEL);
+            default -> {
+                EssentialCommands.LOGGER.warn("Unknown data_file_codec '{}', using gzip", CONFIG.DATA_FILE_CODEC);
+                yield gzip(CONFIG.DATA_FILE_GZIP_LEVEL);
+            }
+        };
+    }
+
+    // Encoding
+
+    public void write(NbtCompound tag, OutputStream out) throws IOException {
+        try (var dataOut = new DataOutputStream(wrap(new BufferedOutputStream(out)))) {
+            NbtIo.writeCompound(tag, dataOut);
+        }
+    }
+
+    public NbtCompound read(InputStream in, NbtSizeTracker sizeTracker) throws IOException {
+        try (var dataIn = new DataInputStream(new BufferedInputStream(unwrap(in)))) {
+            return NbtIo.readCompound(dataIn, sizeTracker);
+        }
+    }
+
+    // Files
+
+    /**
+     * Writes {@code tag} to {@code path} with the configured codec.
+     */
+    public static void writeFile(Path path, NbtCompound tag) throws IOException {
+        fromConfig().write(tag, Files.newOutputStream(path));
+    }
+
+    /**
+     * Reads a file written by any codec.
+     */
+    public static NbtCompound readFile(Path path) throws IOException {
+        try (var in = new BufferedInputStream(Files.newInputStream(path))) {
+            in.mark(2);
+            int firstByte = in.read();
+            int secondByte = in.read();
+            in.reset();
+            return detect(firstByte, secondByte).read(in, NbtSizeTracker.ofUnlimitedBytes());
+        }
+    }
+
+    private static DataFileCodec detect(int firstByte, int secondByte) throws IOException {
+        if (firstByte == GZIP_MAGIC_FIRST_BYTE && secondByte == GZIP_MAGIC_SECOND_BYTE) {
+            return gzip(Deflater.DEFAULT_COMPRESSION);
+        }
+        // A zlib header is a multiple of 31 when read as a big-endian short.
+        if (firstByte == ZLIB_DEFLATE_METHOD_BYTE && ((firstByte << 8) | secondByte) % 31 == 0) {
+            return DEFLATE;
+        }
+        if (firstByte == NBT_COMPOUND_TYPE) {
+            return NONE;
+        }
+        throw new IOException("Unrecognized data file format (first bytes: %d, %d)".formatted(firstByte, secondByte));
+    }
+}
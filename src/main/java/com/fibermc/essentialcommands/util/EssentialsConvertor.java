@@ -54,7 +54,7 @@ public final class EssentialsConvertor {
         return files;
     }
 
-    // TODO @jp: currently unused because EssentialsXParser.convertPlayerDataDir exists, but there
+    // TODO @jp: currently unused because EssentialsXHomeImport exists, but there
     //  are some good ideas here that might be worth carrying over
     @SuppressWarnings("UnreachableCode") // for some reason IDEA 2024.1 hates casting and grays out everything after (L94)
     public static void homeConvert(MinecraftServer server) {
@@ -166,16 +166,21 @@ public final class EssentialsConvertor {
             }
         }
 
-        int successfulConversionCount = 0;
+        // One batch, so that world data is saved once rather than once per warp.
+        var warpBatch = worldDataManager.batchWarps();
         for (Map.Entry<String, MinecraftLocation> entry : locationMap.entrySet()) {
-            try {
-                worldDataManager.setWarp(entry.getKey(), entry.getValue(), false);
-                successfulConversionCount++;
-            } catch (Exception e) {
-                LOGGER.error("There was an error occurred while putting warp config: {}", entry.getKey());
-                e.printStackTrace();
+            if (worldDataManager.getWarp(entry.getKey()) != null) {
+                LOGGER.warn("Warp '{}' already exists, skipping it.", entry.getKey());
+                continue;
             }
+            warpBatch.add(entry.getKey(), entry.getValue(), false);
+        }
+
+        var result = warpBatch.commit();
+        if (!result.isSuccess()) {
+            LOGGER.error("Could not add converted warps: {}", result.conflicts());
         }
+        int successfulConversionCount = result.addedCount();
 
         LOGGER.info(
             "Convert finished, successfully converted {} / {} file(s)!",
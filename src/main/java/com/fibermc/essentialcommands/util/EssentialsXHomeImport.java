@@ -0,0 +1,346 @@
+package com.fibermc.essentialcommands.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fibermc.essentialcommands.playerdata.HomeIndex;
+import com.fibermc.essentialcommands.playerdata.PlayerCatalog;
+import com.fibermc.essentialcommands.playerdata.PlayerDataFactory;
+import com.fibermc.essentialcommands.playerdata.PlayerDataManager;
+import com.fibermc.essentialcommands.scheduler.MainThreadInbox;
+import com.fibermc.essentialcommands.types.NamedLocationStorage;
+import com.fibermc.essentialcommands.types.NamedMinecraftLocation;
+import org.jetbrains.annotations.Nullable;
+import org.yaml.snakeyaml.Yaml;
+
+import net.minecraft.registry.DynamicRegistryManager;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.Text;
+import net.minecraft.world.World;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+
+import static com.fibermc.essentialcommands.EssentialCommands.CONFIG;
+import static com.fibermc.essentialcommands.EssentialCommands.LOGGER;
+
+/**
+ * Converts EssentialsX userdata homes in the background.
+ *
+ * <p>The source directory is streamed, rather than listed up front, and files are converted on a fork-join pool of
+ * {@code player_data_job_threads} workers, each with its own YAML parser. Only a bounded number of files are queued
+ * at once.
+ *
+ * <p>Converted file names are appended to a checkpoint file, so that an interrupted import (server stop, crash) skips
+ * them when it is started again. The checkpoint is flushed periodically, so a few files may be converted twice after a
+ * crash, which is harmless: imported homes never replace existing homes of the same name. The checkpoint is deleted once
+ * an import completes.
+ *
+ * <p>Players who are online keep their loaded player data; their homes are merged into it on the server thread instead
+ * of writing their stored data.
+ *
+ * <p>When the server stops, a running import is cancelled, and the server thread waits for the files being converted
+ * to be written before storage is closed.
+ */
+public final class EssentialsXHomeImport {
+    private static final String CHECKPOINT_FILE_NAME = "essentialsx_import.checkpoint";
+    private static final int CHECKPOINT_FLUSH_INTERVAL = 100;
+    private static final int QUEUED_FILES_PER_WORKER = 16;
+    private static final int MAX_REPORTED_FAILURES = 5;
+
+    private static @Nullable EssentialsXHomeImport running;
+
+    private final ServerCommandSource source;
+    private final Path sourceDir;
+    private final Path checkpointPath;
+    private final Map<UUID, RegistryKey<World>> worldUids;
+    private final ThreadLocal<Yaml> yaml = ThreadLocal.withInitial(Yaml::new);
+    private final long startedAtNanos = System.nanoTime();
+
+    private final AtomicInteger convertedCount = new AtomicInteger();
+    private final AtomicInteger mergedOnlineCount = new AtomicInteger();
+    private final AtomicInteger skippedCount = new AtomicInteger();
+    private final AtomicInteger failedCount = new AtomicInteger();
+    private final List<String> failedFileNames = Collections.synchronizedList(new ArrayList<>());
+    private volatile boolean cancelRequested;
+
+    private Thread thread;
+    private BufferedWriter checkpointWriter;
+    private int uncheckpointedCount;
+
+    public static void init() {
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> stopAndWait());
+    }
+
+    private EssentialsXHomeImport(MinecraftServer server, ServerCommandSource source, Path sourceDir, Path checkpointPath) {
+        this.source = source;
+        this.sourceDir = sourceDir;
+        this.checkpointPath = checkpointPath;
+        this.worldUids = EssentialsXParser.getWorldUids(server);
+    }
+
+    /**
+     * Starts converting, resuming a previous import if it was interrupted. Server thread only.
+     *
+     * @return false if an import is already running.
+     */
+    public static boolean start(ServerCommandSource source, Path sourceDir) throws IOException {
+        if (running != null && running.thread.isAlive()) {
+            return false;
+        }
+        if (!Files.isDirectory(sourceDir)) {
+            throw new IOException(sourceDir.toAbsolutePath() + " is not a directory!");
+        }
+
+        var server = source.getServer();
+        running = new EssentialsXHomeImport(
+            server,
+            source,
+            sourceDir,
+            FileUtil.getOrCreateWorldDirectory(server, "essentialcommands").resolve(CHECKPOINT_FILE_NAME));
+
+        running.thread = new Thread(running::run, "EssentialsX Import Thread");
+        running.thread.setDaemon(true);
+        running.thread.start();
+        return true;
+    }
+
+    /**
+     * @return false if no import is running.
+     */
+    public static boolean cancel() {
+        if (running == null || !running.thread.isAlive()) {
+            return false;
+        }
+        running.cancelRequested = true;
+        return true;
+    }
+
+    /**
+     * Cancels a running import, and waits for the files that are being converted to be written. Server thread only.
+     */
+    private static void stopAndWait() {
+        if (running == null) {
+            return;
+        }
+        running.cancelRequested = true;
+        try {
+            running.thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted while waiting for the EssentialsX import to stop");
+        }
+        // Apply merges into online players' data (which is saved as they are disconnected) and index updates, which
+        // would otherwise be dropped when the server stops.
+        MainThreadInbox.getInstance().drain();
+    }
+
+    public static @Nullable Text getProgressText() {
+        return running == null || !running.thread.isAlive() ? null : Text.literal(running.describeProgress("Importing EssentialsX homes"));
+    }
+
+    private void run() {
+        Set<String> alreadyConverted = readCheckpoint();
+        if (!alreadyConverted.isEmpty()) {
+            LOGGER.info("Resuming EssentialsX import, skipping {} already converted files", alreadyConverted.size());
+        }
+
+        int workerCount = Math.max(1, CONFIG.PLAYER_DATA_JOB_THREADS);
+        var pool = new ForkJoinPool(workerCount);
+        // Bounds how far listing can get ahead of conversion.
+        var queuedFiles = new Semaphore(workerCount * QUEUED_FILES_PER_WORKER);
+        boolean completed = false;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(sourceDir, "*.yml")) {
+            checkpointWriter = Files.newBufferedWriter(
+                checkpointPath,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+
+            for (Path file : files) {
+                if (cancelRequested) {
+                    break;
+                }
+                if (alreadyConverted.contains(file.getFileName().toString())) {
+                    skippedCount.incrementAndGet();
+                    continue;
+                }
+                queuedFiles.acquire();
+                pool.execute(() -> {
+                    try {
+                        // Files left unconverted aren't checkpointed, so they are picked up when the import resumes.
+                        if (!cancelRequested) {
+                            convert(file);
+                        }
+                    } finally {
+                        queuedFiles.release();
+                    }
+                });
+            }
+
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            completed = !cancelRequested;
+        } catch (IOException e) {
+            LOGGER.error("Failed to read EssentialsX userdata directory '{}'", sourceDir, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+            closeCheckpoint(completed);
+        }
+
+        String summary = describeProgress(completed ? "Finished importing EssentialsX homes" : "Stopped importing EssentialsX homes");
+        LOGGER.info(summary);
+        if (!failedFileNames.isEmpty()) {
+            LOGGER.warn("Failed EssentialsX userdata files: {}", failedFileNames);
+        }
+        MainThreadInbox.getInstance().execute(() -> {
+            running = null;
+            source.sendFeedback(() -> Text.literal(summary), CONFIG.BROADCAST_TO_OPS);
+        });
+    }
+
+    private void convert(Path file) {
+        String fileName = file.getFileName().toString();
+        try {
+            UUID playerUuid = UUID.fromString(fileName.substring(0, fileName.length() - ".yml".length()));
+            Map<Object, Object> ydoc;
+            try (Reader reader = Files.newBufferedReader(file)) {
+                ydoc = yaml.get().load(reader);
+            }
+            NamedLocationStorage homes = EssentialsXParser.parsePlayerHomes(ydoc, fileName, worldUids);
+
+            // The data map is concurrent, so it can be checked from here.
+            if (PlayerDataManager.getInstance().getByUuid(playerUuid) != null) {
+                MainThreadInbox.getInstance().execute(() -> mergeOnMainThread(playerUuid, homes));
+                mergedOnlineCount.incrementAndGet();
+            } else if (!homes.isEmpty()) {
+                List<NamedMinecraftLocation> importedHomes = List.copyOf(homes.values());
+                int homeCount = writeToStorage(playerUuid, homes);
+                MainThreadInbox.getInstance().execute(() -> {
+                    // The player may have joined while their data was written, in which case their loaded data would
+                    // overwrite it when saved.
+                    var loadedPlayerData = PlayerDataManager.getInstance().getByUuid(playerUuid);
+                    if (loadedPlayerData != null) {
+                        loadedPlayerData.mergeHomes(importedHomes);
+                        return;
+                    }
+                    homes.values().forEach(home -> HomeIndex.getInstance().put(playerUuid, home));
+                    PlayerCatalog.getInstance().updateHomeCount(playerUuid, homeCount);
+                });
+            }
+
+            convertedCount.incrementAndGet();
+            recordConverted(fileName);
+        } catch (IOException | RuntimeException e) {
+            failedCount.incrementAndGet();
+            if (failedFileNames.size() < MAX_REPORTED_FAILURES) {
+                failedFileNames.add(fileName);
+            }
+            LOGGER.error("An unexpected error occurred while converting EssentialsX userdata file '{}'", file, e);
+        }
+    }
+
+    /**
+     * Merges into the player's loaded data, or into their stored data if they left in the meantime (their data has been
+     * saved by then).
+     */
+    private void mergeOnMainThread(UUID playerUuid, NamedLocationStorage homes) {
+        var playerData = PlayerDataManager.getInstance().getByUuid(playerUuid);
+        if (playerData != null) {
+            playerData.mergeHomes(homes.values());
+            return;
+        }
+        int homeCount;
+        try {
+            homeCount = writeToStorage(playerUuid, homes);
+        } catch (IOException e) {
+            // Already checkpointed, so this player's homes won't be retried.
+            failedCount.incrementAndGet();
+            LOGGER.error("Failed to import EssentialsX homes of '{}', who left while they were being imported", playerUuid, e);
+            return;
+        }
+        homes.values().forEach(home -> HomeIndex.getInstance().put(playerUuid, home));
+        PlayerCatalog.getInstance().updateHomeCount(playerUuid, homeCount);
+    }
+
+    /**
+     * Adds {@code homes} to the player's stored data. Afterwards, {@code homes} holds just the homes that were added.
+     *
+     * @return the player's home count.
+     * @throws IOException if the player's stored data couldn't be read, in which case nothing is written.
+     */
+    private int writeToStorage(UUID playerUuid, NamedLocationStorage homes) throws IOException {
+        var playerData = PlayerDataFactory.create(homes, playerUuid);
+        playerData.save(DynamicRegistryManager.EMPTY);
+        return playerData.getHomeNames().size();
+    }
+
+    private String describeProgress(String prefix) {
+        double elapsedSeconds = (System.nanoTime() - startedAtNanos) / 1e9;
+        int processedCount = convertedCount.get() + failedCount.get();
+        return String.format(
+            "%s: %d converted (%d merged into online players), %d failed, %d skipped from a previous run, in %.1fs (%.1f files/s)%s",
+            prefix,
+            convertedCount.get(),
+            mergedOnlineCount.get(),
+            failedCount.get(),
+            skippedCount.get(),
+            elapsedSeconds,
+            elapsedSeconds > 0 ? processedCount / elapsedSeconds : 0,
+            failedFileNames.isEmpty() ? "" : ". Failed files include: " + String.join(", ", failedFileNames));
+    }
+
+    // Checkpoint
+
+    private Set<String> readCheckpoint() {
+        if (!Files.exists(checkpointPath)) {
+            return Set.of();
+        }
+        try {
+            return new HashSet<>(Files.readAllLines(checkpointPath));
+        } catch (IOException e) {
+            LOGGER.warn("Could not read EssentialsX import checkpoint, starting over", e);
+            return Set.of();
+        }
+    }
+
+    private synchronized void recordConverted(String fileName) throws IOException {
+        checkpointWriter.write(fileName);
+        checkpointWriter.newLine();
+        if (++uncheckpointedCount >= CHECKPOINT_FLUSH_INTERVAL) {
+            checkpointWriter.flush();
+            uncheckpointedCount = 0;
+        }
+    }
+
+    private synchronized void closeCheckpoint(boolean completed) {
+        try {
+            if (checkpointWriter != null) {
+                checkpointWriter.close();
+            }
+            if (completed) {
+                Files.deleteIfExists(checkpointPath);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Could not write EssentialsX import checkpoint", e);
+        }
+    }
+}
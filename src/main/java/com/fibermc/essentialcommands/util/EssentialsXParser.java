@@ -1,22 +1,17 @@
 package com.fibermc.essentialcommands.util;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.file.Files;
-import java.nio.file.NotDirectoryException;
-import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.fibermc.essentialcommands.mixin.PersistentStateManagerInvoker;
-import com.fibermc.essentialcommands.playerdata.PlayerData;
-import com.fibermc.essentialcommands.playerdata.PlayerDataFactory;
 import com.fibermc.essentialcommands.types.NamedLocationStorage;
 import com.fibermc.essentialcommands.types.NamedMinecraftLocation;
 import org.apache.logging.log4j.Level;
 import org.yaml.snakeyaml.Yaml;
 
-import net.minecraft.registry.DynamicRegistryManager;
 import net.minecraft.registry.RegistryKey;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.world.World;
@@ -30,7 +25,6 @@ public final class EssentialsXParser {
         File yamlSource,
         Map<UUID, RegistryKey<World>> uuidRegistryKeyMap
     ) {
-        NamedLocationStorage homes = new NamedLocationStorage();
         String yamlStr = null;
         try {
             yamlStr = Files.readString(yamlSource.toPath());
@@ -40,13 +34,25 @@ public final class EssentialsXParser {
         }
 
         Yaml yaml = new Yaml();
-        Map<Object, Object> ydoc = yaml.load(yamlStr);
+        return parsePlayerHomes(yaml.load(yamlStr), yamlSource.toPath().toString(), uuidRegistryKeyMap);
+    }
+
+    /**
+     * @param ydoc               an already parsed userdata file
+     * @param uuidRegistryKeyMap as returned by {@link #getWorldUids}. May be shared between threads.
+     */
+    public static NamedLocationStorage parsePlayerHomes(
+        Map<Object, Object> ydoc,
+        String sourceName,
+        Map<UUID, RegistryKey<World>> uuidRegistryKeyMap
+    ) {
+        NamedLocationStorage homes = new NamedLocationStorage();
         Map<String, Map<String, Object>> homesMap = (Map<String, Map<String, Object>>) ydoc.get("homes");
         if (homesMap == null) {
-            LOGGER.info("No homes key in file '{}'. Skipping.", yamlSource.toPath().toString());
+            LOGGER.debug("No homes key in file '{}'. Skipping.", sourceName);
             return homes;
         }
-        LOGGER.info("Found {} homes in file '{}'.", homesMap.size(), yamlSource.toPath().toString());
+        LOGGER.debug("Found {} homes in file '{}'.", homesMap.size(), sourceName);
         homesMap.forEach((String name, Map<String, Object> locData) -> {
             var worldIdentifier = (String) locData.get("world");
             UUID worldUuid = null;
@@ -108,7 +114,8 @@ public final class EssentialsXParser {
 
     public static Map<UUID, RegistryKey<World>> getWorldUids(MinecraftServer server) {
 
-        Map<UUID, RegistryKey<World>> uuidRegistryKeyMap = new LinkedHashMap<>();
+        // Concurrent, since parsing (which may fill in more worlds) runs on several threads.
+        Map<UUID, RegistryKey<World>> uuidRegistryKeyMap = new ConcurrentHashMap<>();
         server.getWorlds().forEach(world -> {
             // This is dumb. We're taking fabric/vanilla's ideas of these worlds to look for the
             // bukkit/spigot/paper UID. Instead, we should be reading those mods' config files to
@@ -141,59 +148,4 @@ public final class EssentialsXParser {
 
         return uuidRegistryKeyMap;
     }
-
-    public static void convertPlayerDataDir(File sourceDir, File targetDir, MinecraftServer server) throws NotDirectoryException, FileNotFoundException {
-        if (!sourceDir.exists()) {
-            throw new FileNotFoundException(sourceDir.getAbsolutePath() + " does not exist!");
-        }
-        if (!sourceDir.isDirectory()) {
-            throw new NotDirectoryException(sourceDir.getAbsolutePath() + " is not a directory!");
-        }
-
-        var worldUuidRegistryKeyMap = getWorldUids(server);
-
-        targetDir.mkdir();
-        // Existing EC player data files
-        Path targetPath = targetDir.toPath();
-
-        var filesArr = Objects.requireNonNull(sourceDir.listFiles());
-
-        LOGGER.info("Preparing to convert homes for {} players in directory '{}'", filesArr.length, sourceDir);
-
-        int filesAttempted = 0;
-        int filesSucceeded = 0;
-        var playerDataFiles = Arrays.stream(filesArr)
-            .filter(file -> file.getName().endsWith("yml"))
-            .toList();
-
-        for (File file : playerDataFiles) {
-            filesAttempted++;
-            LOGGER.info("Begin parsing homes for '{}'", file);
-
-            // WARN: Currently, this will still overwrite player's new homes of the same name with
-            // EssentialsX homes.
-            String fileName = file.getName();
-            String fileNameAsDat = fileName.substring(0, fileName.indexOf(".yml")) + ".dat";
-            String targetFilePathStr = targetPath.resolve(fileNameAsDat).toString();
-            File targetFile = new File(targetFilePathStr);
-
-            try {
-                NamedLocationStorage homes = parsePlayerHomes(file, worldUuidRegistryKeyMap);
-
-                LOGGER.info("Creating temporary playerdata for '{}', with {} homes.", file, homes.size());
-
-                PlayerData playerData = PlayerDataFactory.create(homes, targetFile);
-                playerData.save(DynamicRegistryManager.EMPTY);
-                filesSucceeded++;
-            } catch (Exception ex) {
-                LOGGER.error("An unexpected error occurred while parsing player data file '{}'", targetFile.getPath(), ex);
-            }
-        }
-
-        LOGGER.info(
-            "Finished converting EssentialsX homes to EssentialCommands homes. (Players Attempted: {}, Players Succeeded: {})",
-            filesAttempted,
-            filesSucceeded);
-    }
-
 }
@@ -0,0 +1,109 @@
+package com.fibermc.essentialcommands.commands.helpers;
+
+import java.util.OptionalInt;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.HeightLimitView;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.PalettedContainer;
+import net.minecraft.world.chunk.ProtoChunk;
+import net.minecraft.world.chunk.UpgradeData;
+import net.minecraft.world.tick.SimpleTickScheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("ChunkColumnHeightFinder")
+public class ChunkColumnHeightFinderTests {
+    // Like the nether: 256 blocks tall, with a logical height of 128 and a bedrock roof at y=127.
+    private static final int NETHER_LOGICAL_HEIGHT = 128;
+    private static final int ROOF_Y = 127;
+
+    @BeforeAll
+    public static void setup() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+
+    @Test
+    @DisplayName("findBottomUp - lava and rock up to the roof")
+    void findBottomUp_solidColumnUnderRoof_findsNothing() {
+        var chunk = createNetherColumn(1, ROOF_Y - 1, Blocks.LAVA.getDefaultState());
+        fillColumn(chunk, 40, ROOF_Y - 1, Blocks.NETHERRACK.getDefaultState());
+
+        assertEquals(OptionalInt.empty(), ChunkColumnHeightFinder.findBottomUp(chunk, 0, 0, NETHER_LOGICAL_HEIGHT, true));
+        // Even if the dimension's logical height reaches past the roof.
+        assertEquals(OptionalInt.empty(), ChunkColumnHeightFinder.findBottomUp(chunk, 0, 0, chunk.getTopY(), true));
+        // Chunks without a world are assumed to have a ceiling.
+        assertEquals(OptionalInt.empty(), ChunkColumnHeightFinder.BOTTOM_UP.getY(chunk, 0, 0));
+    }
+
+    @Test
+    @DisplayName("findBottomUp - cave below the roof")
+    void findBottomUp_caveUnderRoof_findsCaveFloor() {
+        var chunk = createNetherColumn(1, ROOF_Y - 1, Blocks.NETHERRACK.getDefaultState());
+        fillColumn(chunk, 60, 62, Blocks.AIR.getDefaultState());
+
+        assertEquals(OptionalInt.of(60), ChunkColumnHeightFinder.findBottomUp(chunk, 0, 0, NETHER_LOGICAL_HEIGHT, true));
+    }
+
+    @Test
+    @DisplayName("findBottomUp - space just below the roof")
+    void findBottomUp_gapBelowRoof_findsGap() {
+        var chunk = createNetherColumn(1, ROOF_Y - 3, Blocks.NETHERRACK.getDefaultState());
+
+        assertEquals(OptionalInt.of(ROOF_Y - 2), ChunkColumnHeightFinder.findBottomUp(chunk, 0, 0, NETHER_LOGICAL_HEIGHT, true));
+    }
+
+    @Test
+    @DisplayName("findBottomUp - no ceiling")
+    void findBottomUp_noCeiling_findsTopOfHighestSection() {
+        var chunk = createNetherColumn(1, ROOF_Y - 1, Blocks.NETHERRACK.getDefaultState());
+
+        assertEquals(OptionalInt.of(ROOF_Y + 1), ChunkColumnHeightFinder.findBottomUp(chunk, 0, 0, chunk.getTopY(), false));
+    }
+
+    /**
+     * Bedrock at y=0 and y=127, {@code state} from {@code fromY} to {@code toY}, and empty sections above the roof.
+     */
+    private static Chunk createNetherColumn(int fromY, int toY, BlockState state) {
+        var heightLimitView = HeightLimitView.create(0, 256);
+        var sections = new ChunkSection[heightLimitView.countVerticalSections()];
+        for (int i = 0; i < sections.length; i++) {
+            sections[i] = new ChunkSection(
+                new PalettedContainer<>(Block.STATE_IDS, Blocks.AIR.getDefaultState(), PalettedContainer.PaletteProvider.BLOCK_STATE),
+                null
+            );
+        }
+        var chunk = new ProtoChunk(
+            new ChunkPos(0, 0),
+            UpgradeData.NO_UPGRADE_DATA,
+            sections,
+            new SimpleTickScheduler<>(),
+            new SimpleTickScheduler<>(),
+            heightLimitView,
+            null,
+            null
+        );
+
+        fillColumn(chunk, 0, 0, Blocks.BEDROCK.getDefaultState());
+        fillColumn(chunk, ROOF_Y, ROOF_Y, Blocks.BEDROCK.getDefaultState());
+        fillColumn(chunk, fromY, toY, state);
+        return chunk;
+    }
+
+    private static void fillColumn(Chunk chunk, int fromY, int toY, BlockState state) {
+        for (int y = fromY; y <= toY; y++) {
+            chunk.getSection(chunk.getSectionIndex(y)).setBlockState(0, y & 15, 0, state);
+        }
+    }
+}